@@ -3,14 +3,30 @@ package io.github.vishalmysore.analyzer;
 import com.google.gson.Gson;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
+import com.google.gson.JsonIOException;
 import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.MalformedJsonException;
 import com.t4a.predict.PredictionLoader;
+import io.github.vishalmysore.config.MoltbookConfig;
 import io.github.vishalmysore.model.FeedItem;
 import lombok.extern.slf4j.Slf4j;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
 
 /**
  * Analyzes feed content to find relevant discussions
@@ -21,19 +37,66 @@ public class FeedAnalyzer {
 
     private final Gson gson = new Gson();
     private final com.t4a.processor.AIProcessor processor;
-    private final java.util.List<String> relevantKeywords;
+    private volatile java.util.List<String> relevantKeywords;
+    private volatile KeywordMatcher keywordMatcher;
     private final String skills;
+    private final FeedStreamParser feedParser;
+    private final int batchSize;
+    private final int batchItemMaxChars;
+    private final RelevanceCache relevanceCache;
+    private volatile String skillsFingerprint;
+    private final Supplier<String> skillsSource;
 
     public FeedAnalyzer() {
-        this.processor = com.t4a.predict.PredictionLoader.getInstance().createOrGetAIProcessor();
-        this.skills = PredictionLoader.getInstance().getActionNameList().toString();
+        this(new MoltbookConfig());
+    }
+
+    @Autowired
+    public FeedAnalyzer(MoltbookConfig config) {
+        this(config, PredictionLoader.getInstance().createOrGetAIProcessor(),
+                () -> PredictionLoader.getInstance().getActionNameList().toString());
+    }
+
+    /**
+     * @param skillsSource current skills (action names), read on every use
+     */
+    FeedAnalyzer(MoltbookConfig config, com.t4a.processor.AIProcessor processor, Supplier<String> skillsSource) {
+        this.feedParser = new FeedStreamParser(config.getAnalyzer().getMaxFieldLength());
+        this.batchSize = config.getAnalyzer().getBatchSize();
+        this.batchItemMaxChars = config.getAnalyzer().getBatchItemMaxChars();
+        String cacheFile = config.getAnalyzer().getDecisionCacheFile();
+        this.relevanceCache = new RelevanceCache(
+                config.getAnalyzer().getDecisionCacheSize(),
+                Duration.ofMinutes(config.getAnalyzer().getDecisionCacheTtlMinutes()),
+                cacheFile == null || cacheFile.isBlank() ? null : Path.of(cacheFile));
+        this.processor = processor;
+        this.skillsSource = skillsSource;
+        this.skills = skillsSource.get();
         this.relevantKeywords = extractKeywordsFromSkills();
+        this.keywordMatcher = new KeywordMatcher(relevantKeywords);
     }
 
     public List<String> getRelevantKeywords() {
         return relevantKeywords;
     }
 
+    /**
+     * Add extra keywords (e.g. synonyms per skill) to the prefilter.
+     * The matcher is recompiled once for the whole batch.
+     */
+    public synchronized void addKeywords(java.util.Collection<String> keywords) {
+        List<String> updated = new ArrayList<>(relevantKeywords);
+        for (String keyword : keywords) {
+            String normalized = keyword == null ? "" : keyword.trim().toLowerCase();
+            if (!normalized.isEmpty() && !updated.contains(normalized)) {
+                updated.add(normalized);
+            }
+        }
+        this.keywordMatcher = new KeywordMatcher(updated);
+        this.relevantKeywords = java.util.Collections.unmodifiableList(updated);
+        log.info("🎯 Keyword prefilter now has {} keywords", updated.size());
+    }
+
     public String getSkills() {
         return skills;
     }
@@ -42,29 +105,31 @@ public class FeedAnalyzer {
      * Parse JSON feed response into FeedItem objects
      */
     public List<FeedItem> parseFeed(String feedJson) {
+        if (feedJson == null) {
+            return new ArrayList<>();
+        }
+        return parseFeed(new StringReader(feedJson));
+    }
+
+    /**
+     * Parse a feed response directly from the response stream. Malformed
+     * JSON, or an item with a mistyped field, keeps the items parsed so far;
+     * an I/O error while reading is rethrown as UncheckedIOException so the
+     * request can be retried.
+     */
+    public List<FeedItem> parseFeed(Reader feedBody) {
         List<FeedItem> items = new ArrayList<>();
 
         try {
-            JsonObject response = gson.fromJson(feedJson, JsonObject.class);
-
-            if (response.has("posts")) {
-                JsonArray posts = response.getAsJsonArray("posts");
-                for (JsonElement element : posts) {
-                    FeedItem item = gson.fromJson(element, FeedItem.class);
-                    items.add(item);
-                }
-            }
-
-            if (response.has("results")) {
-                JsonArray results = response.getAsJsonArray("results");
-                for (JsonElement element : results) {
-                    FeedItem item = gson.fromJson(element, FeedItem.class);
-                    items.add(item);
-                }
-            }
-
-        } catch (Exception e) {
+            feedParser.parse(feedBody, items);
+        } catch (JsonIOException e) {
+            throw new UncheckedIOException("Feed response interrupted after " + items.size() + " items",
+                    e.getCause() instanceof IOException io ? io : new IOException(e));
+        } catch (MalformedJsonException | EOFException | JsonParseException | IllegalStateException
+                | NumberFormatException e) {
             log.error("Failed to parse feed", e);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Feed response interrupted after " + items.size() + " items", e);
         }
 
         return items;
@@ -108,14 +173,34 @@ public class FeedAnalyzer {
             return false;
         }
 
-        try {
-            // First do a quick keyword check to save AI tokens/time
-            if (!keywordMatch(text)) {
-                return false;
-            }
+        // First do a quick keyword check to save AI tokens/time
+        if (!keywordMatch(text)) {
+            return false;
+        }
+
+        String fingerprint = currentSkillsFingerprint();
+        Boolean cached = relevanceCache.get(null, text, fingerprint);
+        if (cached != null) {
+            return cached;
+        }
+
+        Boolean relevant = semanticRelevance(text);
+        if (relevant == null) {
+            // Fallback to keyword matching if AI fails (not cached)
+            return true;
+        }
+        relevanceCache.put(null, text, fingerprint, relevant);
+        return relevant;
+    }
 
+    /**
+     * Ask the AI whether a keyword-matched text is relevant.
+     * Returns null if the AI call or its answer fails.
+     */
+    private Boolean semanticRelevance(String text) {
+        try {
             // Get agent skills dynamically
-            String mySkills = PredictionLoader.getInstance().getActionNameList().toString();
+            String mySkills = skillsSource.get();
 
             // Build prompt for semantic matching
             String prompt = String.format(
@@ -132,78 +217,238 @@ public class FeedAnalyzer {
 
             // Parse response
             try {
-                // Clean up markdown code blocks if present
-                if (response.contains("```json")) {
-                    response = response.substring(response.indexOf("```json") + 7);
-                    if (response.contains("```")) {
-                        response = response.substring(0, response.indexOf("```"));
-                    }
-                } else if (response.contains("```")) {
-                    response = response.substring(response.indexOf("```") + 3);
-                    if (response.contains("```")) {
-                        response = response.substring(0, response.indexOf("```"));
-                    }
-                }
-
-                JsonObject result = gson.fromJson(response.trim(), JsonObject.class);
+                JsonObject result = gson.fromJson(stripCodeFences(response), JsonObject.class);
                 boolean isRelevant = result.get("relevant").getAsBoolean();
                 String reason = result.get("reason").getAsString();
-
-                if (isRelevant) {
-                    log.info("✅ Relevant item found: \"{}\"\n   Reason: {}",
-                            text.substring(0, Math.min(50, text.length())) + "...", reason);
-                } else {
-                    log.debug("❌ Irrelevant item: \"{}\"\n   Reason: {}",
-                            text.substring(0, Math.min(50, text.length())) + "...", reason);
-                }
-
+                logDecision(text, isRelevant, reason);
                 return isRelevant;
 
             } catch (Exception e) {
                 log.warn("Failed to parse AI relevance decision: " + response);
-                // Fallback to keyword matching if AI fails
-                return keywordMatch(text);
+                return null;
             }
 
         } catch (Exception e) {
             log.error("Error during semantic relevance check", e);
-            return keywordMatch(text);
+            return null;
         }
     }
 
     /**
-     * Keyword matcher based on skills
+     * Classify one batch of keyword-matched items with a single AI call.
+     * Items are numbered 1..N in the prompt (short ids survive the round trip
+     * better than post UUIDs). Returns null if the answer can't be parsed;
+     * items missing from the answer are absent from the map.
      */
-    private boolean keywordMatch(String text) {
-        if (text == null)
-            return false;
-        String lower = text.toLowerCase();
-        for (String keyword : relevantKeywords) {
-            if (lower.contains(keyword)) {
-                return true;
+    private Map<FeedItem, Boolean> classifyBatch(List<FeedItem> batch) {
+        JsonArray promptItems = new JsonArray();
+        for (int i = 0; i < batch.size(); i++) {
+            String text = batch.get(i).getFullText();
+            JsonObject promptItem = new JsonObject();
+            promptItem.addProperty("id", String.valueOf(i + 1));
+            promptItem.addProperty("text", batchItemMaxChars > 0 && text.length() > batchItemMaxChars
+                    ? text.substring(0, batchItemMaxChars)
+                    : text);
+            promptItems.add(promptItem);
+        }
+
+        String response = null;
+        try {
+            String mySkills = skillsSource.get();
+            String prompt = String.format(
+                    "You are an AI decision engine for an autonomous agent.\n" +
+                            "Your Skills/Capabilities:\n%s\n\n" +
+                            "Analyze each of these feed items (JSON array of {\"id\", \"text\"}):\n%s\n\n" +
+                            "Task: For every item, determine if its text is relevant to your skills or if you can provide a helpful response based on your capabilities.\n"
+                            +
+                            "Return ONLY a JSON array with one object per item, in this format:\n" +
+                            "[{\"id\": \"item id\", \"relevant\": boolean, \"reason\": \"short explanation\"}]",
+                    mySkills, gson.toJson(promptItems));
+
+            response = processor.query(prompt);
+            JsonElement parsed = gson.fromJson(stripCodeFences(response), JsonElement.class);
+            JsonArray decisions = parsed.isJsonArray() ? parsed.getAsJsonArray()
+                    : parsed.getAsJsonObject().getAsJsonArray("items");
+
+            Map<FeedItem, Boolean> results = new IdentityHashMap<>();
+            for (JsonElement element : decisions) {
+                JsonObject decision = element.getAsJsonObject();
+                int index = Integer.parseInt(decision.get("id").getAsString().trim()) - 1;
+                if (index < 0 || index >= batch.size()) {
+                    continue;
+                }
+                FeedItem item = batch.get(index);
+                boolean isRelevant = decision.get("relevant").getAsBoolean();
+                String reason = decision.has("reason") ? decision.get("reason").getAsString() : "";
+                logDecision(item.getFullText(), isRelevant, reason);
+                results.put(item, isRelevant);
             }
+            return results;
+
+        } catch (Exception e) {
+            log.warn("Failed to parse batched AI relevance decision, falling back to per-item checks: {}", response);
+            return null;
+        }
+    }
+
+    private void logDecision(String text, boolean isRelevant, String reason) {
+        if (isRelevant) {
+            log.info("✅ Relevant item found: \"{}\"\n   Reason: {}",
+                    text.substring(0, Math.min(50, text.length())) + "...", reason);
+        } else {
+            log.debug("❌ Irrelevant item: \"{}\"\n   Reason: {}",
+                    text.substring(0, Math.min(50, text.length())) + "...", reason);
         }
-        return false;
+    }
+
+    /**
+     * Clean up markdown code blocks if present
+     */
+    private static String stripCodeFences(String response) {
+        if (response.contains("```json")) {
+            response = response.substring(response.indexOf("```json") + 7);
+            if (response.contains("```")) {
+                response = response.substring(0, response.indexOf("```"));
+            }
+        } else if (response.contains("```")) {
+            response = response.substring(response.indexOf("```") + 3);
+            if (response.contains("```")) {
+                response = response.substring(0, response.indexOf("```"));
+            }
+        }
+        return response.trim();
+    }
+
+    /**
+     * Keyword matcher based on skills
+     */
+    private boolean keywordMatch(String text) {
+        return keywordMatcher.matchesAny(text);
+    }
+
+    /**
+     * Which keywords occur in the text and where
+     */
+    public List<KeywordMatcher.Match> findKeywordHits(String text) {
+        return keywordMatcher.findAll(text);
+    }
+
+    /**
+     * Keyword relevance score: number of distinct keywords found in the text.
+     * 0 means the item would not pass the keyword prefilter.
+     */
+    public int keywordScore(String text) {
+        return keywordMatcher.findKeywords(text).size();
     }
 
     /**
      * Analyze feed items and filter for relevant content based on agent
-     * capabilities
+     * capabilities.
+     * Keyword-matched items are first looked up in the decision cache; the rest
+     * are classified batchSize at a time in one AI call, and a batch whose
+     * answer is malformed, or items it leaves out, are checked one by one.
      * TODO: Make this fully dynamic by analyzing Tools4AI actions
      */
     public List<FeedItem> findRelevantItems(List<FeedItem> feed) {
-        List<FeedItem> relevantItems = new ArrayList<>();
-
+        List<FeedItem> candidates = new ArrayList<>();
         for (FeedItem item : feed) {
-            if (looksRelevant(item.getFullText())) {
-                relevantItems.add(item);
-                // Log is already handled in looksRelevant
+            if (passesPrefilter(item)) {
+                candidates.add(item);
             }
         }
+        List<FeedItem> relevantItems = classifyCandidates(candidates);
+        relevanceCache.save();
+        return relevantItems;
+    }
 
+    /**
+     * Cheap keyword check that decides whether an item is worth classifying
+     */
+    public boolean passesPrefilter(FeedItem item) {
+        String text = item.getFullText();
+        return !text.trim().isEmpty() && keywordMatch(text);
+    }
+
+    /**
+     * Classify items that passed the prefilter and return the relevant ones.
+     * Safe to call from several threads; the decision cache is not saved here.
+     */
+    public List<FeedItem> classifyCandidates(List<FeedItem> candidates) {
+        String fingerprint = currentSkillsFingerprint();
+        Map<FeedItem, Boolean> decisions = new IdentityHashMap<>();
+        List<FeedItem> uncached = new ArrayList<>();
+        for (FeedItem item : candidates) {
+            Boolean cached = relevanceCache.get(item.getId(), item.getFullText(), fingerprint);
+            if (cached != null) {
+                decisions.put(item, cached);
+            } else {
+                uncached.add(item);
+            }
+        }
+        if (!candidates.isEmpty()) {
+            log.info("🗂️ Relevance cache: {} of {} candidates already decided", candidates.size() - uncached.size(),
+                    candidates.size());
+        }
+
+        if (batchSize > 1) {
+            for (int start = 0; start < uncached.size(); start += batchSize) {
+                List<FeedItem> batch = uncached.subList(start, Math.min(start + batchSize, uncached.size()));
+                Map<FeedItem, Boolean> batchDecisions = classifyBatch(batch);
+                if (batchDecisions != null) {
+                    batchDecisions.forEach((item, relevant) -> relevanceCache.put(item.getId(), item.getFullText(),
+                            fingerprint, relevant));
+                    decisions.putAll(batchDecisions);
+                }
+            }
+        }
+
+        List<FeedItem> relevantItems = new ArrayList<>();
+        for (FeedItem item : candidates) {
+            Boolean relevant = decisions.get(item);
+            if (relevant == null) {
+                relevant = semanticRelevance(item.getFullText());
+                if (relevant != null) {
+                    relevanceCache.put(item.getId(), item.getFullText(), fingerprint, relevant);
+                } else {
+                    relevant = true; // AI failed - keyword match decides, not cached
+                }
+            }
+            if (relevant) {
+                relevantItems.add(item);
+            }
+        }
         return relevantItems;
     }
 
+    /**
+     * Number of items classified together in one AI call
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Fingerprint of the current skills list; when it changes, decisions made
+     * for the old skills are dropped from the cache
+     */
+    private String currentSkillsFingerprint() {
+        String fingerprint = RelevanceCache.fingerprint(skillsSource.get());
+        if (!fingerprint.equals(skillsFingerprint)) {
+            relevanceCache.invalidateOtherFingerprints(fingerprint);
+            skillsFingerprint = fingerprint;
+        }
+        return fingerprint;
+    }
+
+    public RelevanceCache getRelevanceCache() {
+        return relevanceCache;
+    }
+
+    @PreDestroy
+    public void saveDecisionCache() {
+        relevanceCache.save();
+    }
+
     /**
      * Determine engagement strategy for an item
      */
@@ -0,0 +1,93 @@
+package io.github.vishalmysore.analyzer;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import io.github.vishalmysore.model.FeedItem;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.List;
+
+/**
+ * Token-level parser for feed and search responses.
+ *
+ * Streams the "posts" and "results" arrays straight from the response into
+ * FeedItem instances, without building a JsonObject tree or an intermediate
+ * String of the whole body. Each element is read by Gson's FeedItem adapter,
+ * so the field mapping is the one declared on FeedItem; unknown fields are
+ * skipped. With maxFieldLength &gt; 0, free-text fields (title, content, url,
+ * descriptions) are truncated after reading so long post bodies are not
+ * retained in full; each value is still read in full once.
+ */
+public class FeedStreamParser {
+
+    private static final TypeAdapter<FeedItem> ITEM_ADAPTER = new Gson().getAdapter(FeedItem.class);
+
+    private final int maxFieldLength;
+
+    public FeedStreamParser() {
+        this(0);
+    }
+
+    public FeedStreamParser(int maxFieldLength) {
+        this.maxFieldLength = maxFieldLength;
+    }
+
+    /**
+     * Parse a feed/search response, appending items to the given list as they
+     * are read so a failure part way through keeps everything before it
+     */
+    public void parse(Reader body, List<FeedItem> items) throws IOException {
+        JsonReader reader = new JsonReader(body);
+        reader.setLenient(true);
+
+        if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+            reader.skipValue();
+            return;
+        }
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (("posts".equals(name) || "results".equals(name)) && reader.peek() == JsonToken.BEGIN_ARRAY) {
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    if (reader.peek() == JsonToken.BEGIN_OBJECT) {
+                        items.add(truncate(ITEM_ADAPTER.read(reader)));
+                    } else {
+                        reader.skipValue();
+                    }
+                }
+                reader.endArray();
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+    }
+
+    private FeedItem truncate(FeedItem item) {
+        if (maxFieldLength <= 0) {
+            return item;
+        }
+        item.setTitle(truncate(item.getTitle()));
+        item.setContent(truncate(item.getContent()));
+        item.setUrl(truncate(item.getUrl()));
+        if (item.getSubmolt() != null) {
+            item.getSubmolt().setDisplayName(truncate(item.getSubmolt().getDisplayName()));
+        }
+        if (item.getAuthor() != null) {
+            item.getAuthor().setDescription(truncate(item.getAuthor().getDescription()));
+        }
+        return item;
+    }
+
+    private String truncate(String value) {
+        if (value != null && value.length() > maxFieldLength) {
+            return value.substring(0, maxFieldLength);
+        }
+        return value;
+    }
+}
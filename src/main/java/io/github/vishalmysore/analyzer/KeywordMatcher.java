@@ -0,0 +1,225 @@
+package io.github.vishalmysore.analyzer;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+
+/**
+ * Compiled multi-keyword matcher (Aho-Corasick).
+ *
+ * Built once from the keyword list, then scans text in a single pass,
+ * lowercasing one char at a time instead of copying the text. Matching is
+ * substring based like String.contains, so "agent" also hits "agents".
+ * Instances are immutable and safe to share between threads.
+ */
+public class KeywordMatcher {
+
+    private static final int ROOT = 0;
+
+    private final String[] keywords;
+
+    // Trie: per node, sorted transition chars and their target nodes
+    private char[][] edgeChars;
+    private int[][] edgeTargets;
+    private int[] fail;
+    private int[] output; // keyword index ending at this node, -1 if none
+    private int[] dictLink; // nearest node on the fail chain with an output, -1 if none
+
+    public KeywordMatcher(Collection<String> keywords) {
+        Set<String> unique = new LinkedHashSet<>();
+        for (String keyword : keywords) {
+            if (keyword != null && !keyword.isBlank()) {
+                unique.add(lower(keyword.trim()));
+            }
+        }
+        this.keywords = unique.toArray(new String[0]);
+        build();
+    }
+
+    public List<String> getKeywords() {
+        return Collections.unmodifiableList(Arrays.asList(keywords));
+    }
+
+    public boolean isEmpty() {
+        return keywords.length == 0;
+    }
+
+    /**
+     * True as soon as any keyword occurs in the text
+     */
+    public boolean matchesAny(CharSequence text) {
+        if (text == null || keywords.length == 0) {
+            return false;
+        }
+        int state = ROOT;
+        for (int i = 0; i < text.length(); i++) {
+            state = step(state, Character.toLowerCase(text.charAt(i)));
+            if (output[state] >= 0 || dictLink[state] >= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * All keyword occurrences in the text, in order of their end position
+     */
+    public List<Match> findAll(CharSequence text) {
+        List<Match> matches = new ArrayList<>();
+        if (text == null || keywords.length == 0) {
+            return matches;
+        }
+        int state = ROOT;
+        for (int i = 0; i < text.length(); i++) {
+            state = step(state, Character.toLowerCase(text.charAt(i)));
+            for (int node = output[state] >= 0 ? state : dictLink[state]; node >= 0; node = dictLink[node]) {
+                String keyword = keywords[output[node]];
+                matches.add(new Match(keyword, i + 1 - keyword.length(), i + 1));
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Distinct keywords found in the text, in order of first occurrence
+     */
+    public Set<String> findKeywords(CharSequence text) {
+        Set<String> found = new LinkedHashSet<>();
+        for (Match match : findAll(text)) {
+            found.add(match.getKeyword());
+        }
+        return found;
+    }
+
+    private int step(int state, char c) {
+        while (true) {
+            int next = transition(state, c);
+            if (next >= 0) {
+                return next;
+            }
+            if (state == ROOT) {
+                return ROOT;
+            }
+            state = fail[state];
+        }
+    }
+
+    private int transition(int node, char c) {
+        char[] chars = edgeChars[node];
+        if (chars == null) {
+            return -1;
+        }
+        int index = Arrays.binarySearch(chars, c);
+        return index >= 0 ? edgeTargets[node][index] : -1;
+    }
+
+    private void build() {
+        int maxNodes = 1;
+        for (String keyword : keywords) {
+            maxNodes += keyword.length();
+        }
+        edgeChars = new char[maxNodes][];
+        edgeTargets = new int[maxNodes][];
+        fail = new int[maxNodes];
+        output = new int[maxNodes];
+        dictLink = new int[maxNodes];
+        Arrays.fill(output, -1);
+        Arrays.fill(dictLink, -1);
+        int nodeCount = 1;
+
+        for (int k = 0; k < keywords.length; k++) {
+            int node = ROOT;
+            for (char c : keywords[k].toCharArray()) {
+                int next = transition(node, c);
+                if (next < 0) {
+                    next = nodeCount++;
+                    addEdge(node, c, next);
+                }
+                node = next;
+            }
+            output[node] = k;
+        }
+
+        // Breadth-first: failure link = longest proper suffix that is also a trie path
+        Queue<Integer> queue = new ArrayDeque<>();
+        if (edgeChars[ROOT] != null) {
+            for (int child : edgeTargets[ROOT]) {
+                fail[child] = ROOT;
+                queue.add(child);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int node = queue.poll();
+            if (edgeChars[node] == null) {
+                continue;
+            }
+            for (int e = 0; e < edgeChars[node].length; e++) {
+                char c = edgeChars[node][e];
+                int child = edgeTargets[node][e];
+                int f = fail[node];
+                while (f != ROOT && transition(f, c) < 0) {
+                    f = fail[f];
+                }
+                int target = transition(f, c);
+                fail[child] = (target >= 0 && target != child) ? target : ROOT;
+                dictLink[child] = output[fail[child]] >= 0 ? fail[child] : dictLink[fail[child]];
+                queue.add(child);
+            }
+        }
+    }
+
+    private void addEdge(int node, char c, int target) {
+        char[] chars = edgeChars[node];
+        int[] targets = edgeTargets[node];
+        if (chars == null) {
+            edgeChars[node] = new char[] { c };
+            edgeTargets[node] = new int[] { target };
+            return;
+        }
+        int insertAt = -(Arrays.binarySearch(chars, c) + 1);
+        char[] newChars = new char[chars.length + 1];
+        int[] newTargets = new int[targets.length + 1];
+        System.arraycopy(chars, 0, newChars, 0, insertAt);
+        System.arraycopy(targets, 0, newTargets, 0, insertAt);
+        newChars[insertAt] = c;
+        newTargets[insertAt] = target;
+        System.arraycopy(chars, insertAt, newChars, insertAt + 1, chars.length - insertAt);
+        System.arraycopy(targets, insertAt, newTargets, insertAt + 1, targets.length - insertAt);
+        edgeChars[node] = newChars;
+        edgeTargets[node] = newTargets;
+    }
+
+    private static String lower(String keyword) {
+        char[] chars = keyword.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Character.toLowerCase(chars[i]);
+        }
+        return new String(chars);
+    }
+
+    /**
+     * One keyword occurrence: text.subSequence(start, end) equals the keyword,
+     * ignoring case
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class Match {
+        private final String keyword;
+        private final int start;
+        private final int end;
+
+        @Override
+        public String toString() {
+            return keyword + "@" + start;
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package io.github.vishalmysore.analyzer;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded cache of AI relevance decisions.
+ *
+ * Keyed by post id + SHA-256 of the full text + a fingerprint of the skills
+ * list, so an edited post or a changed skill set never reuses an old answer.
+ * Least recently used entries are evicted beyond maxEntries and entries
+ * expire after the TTL. With a persist file the cache is reloaded on startup.
+ */
+@Slf4j
+public class RelevanceCache {
+
+    private static final Gson gson = new Gson();
+
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final Path persistFile;
+    private final LinkedHashMap<String, Decision> entries;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private boolean dirty;
+
+    public RelevanceCache(int maxEntries, Duration ttl, Path persistFile) {
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttl.toMillis();
+        this.persistFile = persistFile;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Decision> eldest) {
+                return size() > RelevanceCache.this.maxEntries;
+            }
+        };
+        load();
+    }
+
+    /**
+     * Cached decision, or null if unknown or expired
+     */
+    public synchronized Boolean get(String postId, String text, String skillsFingerprint) {
+        String key = key(postId, text, skillsFingerprint);
+        Decision entry = entries.get(key);
+        if (entry != null && isExpired(entry, System.currentTimeMillis())) {
+            entries.remove(key);
+            dirty = true;
+            entry = null;
+        }
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.relevant;
+    }
+
+    public synchronized void put(String postId, String text, String skillsFingerprint, boolean relevant) {
+        Decision entry = new Decision();
+        entry.key = key(postId, text, skillsFingerprint);
+        entry.fingerprint = skillsFingerprint;
+        entry.relevant = relevant;
+        entry.createdAt = System.currentTimeMillis();
+        entries.put(entry.key, entry);
+        dirty = true;
+    }
+
+    /**
+     * Drop every entry made under a different skills fingerprint
+     *
+     * @return number of entries removed
+     */
+    public synchronized int invalidateOtherFingerprints(String skillsFingerprint) {
+        int removed = 0;
+        for (Iterator<Decision> it = entries.values().iterator(); it.hasNext();) {
+            if (!skillsFingerprint.equals(it.next().fingerprint)) {
+                it.remove();
+                removed++;
+            }
+        }
+        if (removed > 0) {
+            dirty = true;
+            log.info("🧹 Skills changed - invalidated {} cached relevance decisions", removed);
+        }
+        return removed;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public double getHitRate() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        return total == 0 ? 0.0 : (double) h / total;
+    }
+
+    /**
+     * Write the cache to the persist file if it changed since the last save
+     */
+    public synchronized void save() {
+        if (persistFile == null || !dirty) {
+            return;
+        }
+        try {
+            long now = System.currentTimeMillis();
+            List<Decision> live = new ArrayList<>();
+            for (Decision entry : entries.values()) {
+                if (!isExpired(entry, now)) {
+                    live.add(entry);
+                }
+            }
+            Path parent = persistFile.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            Path tmp = persistFile.resolveSibling(persistFile.getFileName() + ".tmp");
+            try (Writer writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+                gson.toJson(live, writer);
+            }
+            Files.move(tmp, persistFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            dirty = false;
+        } catch (Exception e) {
+            log.warn("Failed to persist relevance cache to {}: {}", persistFile, e.getMessage());
+        }
+    }
+
+    private void load() {
+        if (persistFile == null || !Files.exists(persistFile)) {
+            return;
+        }
+        try (Reader reader = Files.newBufferedReader(persistFile, StandardCharsets.UTF_8)) {
+            List<Decision> stored = gson.fromJson(reader, new TypeToken<List<Decision>>() {
+            }.getType());
+            long now = System.currentTimeMillis();
+            if (stored != null) {
+                for (Decision entry : stored) {
+                    if (entry.key != null && !isExpired(entry, now)) {
+                        entries.put(entry.key, entry);
+                    }
+                }
+            }
+            log.info("✓ Loaded {} cached relevance decisions from {}", entries.size(), persistFile);
+        } catch (Exception e) {
+            log.warn("Ignoring unreadable relevance cache {}: {}", persistFile, e.getMessage());
+        }
+    }
+
+    private boolean isExpired(Decision entry, long now) {
+        return ttlMillis > 0 && now - entry.createdAt > ttlMillis;
+    }
+
+    private static String key(String postId, String text, String skillsFingerprint) {
+        return postId + ":" + sha256(text) + ":" + skillsFingerprint;
+    }
+
+    /**
+     * Short stable fingerprint of the skills list
+     */
+    public static String fingerprint(String skills) {
+        return sha256(skills).substring(0, 16);
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest((value == null ? "" : value).getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static class Decision {
+        String key;
+        String fingerprint;
+        boolean relevant;
+        long createdAt;
+    }
+}
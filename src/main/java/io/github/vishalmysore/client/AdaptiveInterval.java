@@ -0,0 +1,116 @@
+package io.github.vishalmysore.client;
+
+import io.github.vishalmysore.config.MoltbookConfig;
+
+import java.time.Duration;
+
+/**
+ * Heartbeat interval that follows the feed.
+ *
+ * After each heartbeat the interval is set so that about targetNewItems new
+ * items arrive per heartbeat at the observed feed velocity. An idle feed
+ * doubles it, relevant hits shorten it (up to half) so replies land while the
+ * discussion is fresh, and a low read budget holds it at least at twice the
+ * current value. The interval changes by at most a factor of two per
+ * heartbeat and stays within min/max. With adaptive off it is fixed.
+ */
+public class AdaptiveInterval {
+
+    private final boolean adaptive;
+    private final Duration min;
+    private final Duration max;
+    private final int targetNewItems;
+    private final double lowRateBudget;
+
+    private Duration current;
+    private String reason;
+    private double itemsPerMinute = -1;
+
+    public AdaptiveInterval(MoltbookConfig.Heartbeat.Interval config) {
+        this.adaptive = config.isAdaptive();
+        this.min = Duration.ofMinutes(Math.max(1, config.getMinMinutes()));
+        this.max = Duration.ofMinutes(Math.max(config.getMinMinutes(), config.getMaxMinutes()));
+        this.targetNewItems = Math.max(1, config.getTargetNewItems());
+        this.lowRateBudget = config.getLowRateBudget();
+        Duration initial = Duration.ofMinutes(Math.max(1, config.getMinutes()));
+        this.current = adaptive ? clamp(initial, min, max) : initial;
+        this.reason = adaptive ? "initial" : "fixed";
+    }
+
+    /**
+     * Recompute the interval after a heartbeat
+     *
+     * @param newItems      new feed items pulled
+     * @param sincePrevious time since the previous pull, null on the first one
+     * @param relevantItems items classified as relevant
+     * @param rateBudget    share of the read budget left, 0..1
+     */
+    public synchronized Duration update(int newItems, Duration sincePrevious, int relevantItems,
+            double rateBudget) {
+        if (!adaptive) {
+            return current;
+        }
+        double minutes = sincePrevious == null ? 0 : sincePrevious.toMillis() / 60_000.0;
+        double target;
+        StringBuilder why = new StringBuilder();
+        if (minutes <= 0) {
+            target = current.toMillis();
+            why.append("first run");
+        } else if (newItems == 0) {
+            itemsPerMinute = 0;
+            target = current.toMillis() * 2.0;
+            why.append("idle feed");
+        } else {
+            itemsPerMinute = newItems / minutes;
+            target = targetNewItems / itemsPerMinute * 60_000;
+            why.append(String.format("feed velocity %.1f items/min", itemsPerMinute));
+        }
+        if (relevantItems > 0 && newItems > 0) {
+            double hitRate = (double) relevantItems / newItems;
+            target *= Math.max(0.5, 1 - 5 * hitRate);
+            why.append(String.format(", %d relevant (%.0f%% hit rate)", relevantItems, hitRate * 100));
+        }
+        if (rateBudget < lowRateBudget) {
+            target = Math.max(target, current.toMillis() * 2.0);
+            why.append(String.format(", rate budget low (%.0f%% left)", rateBudget * 100));
+        }
+
+        Duration next = clamp(Duration.ofMillis((long) target), current.dividedBy(2), current.multipliedBy(2));
+        next = clamp(next, min, max);
+        if (next.equals(min) || next.equals(max)) {
+            why.append(next.equals(min) ? ", at minimum" : ", at maximum");
+        }
+        current = next;
+        reason = why.toString();
+        return current;
+    }
+
+    public synchronized Duration getCurrent() {
+        return current;
+    }
+
+    /**
+     * Why the interval has its current value, for monitoring
+     */
+    public synchronized String getReason() {
+        return reason;
+    }
+
+    /**
+     * Feed velocity seen by the last heartbeat, -1 before it is known
+     */
+    public synchronized double getItemsPerMinute() {
+        return itemsPerMinute;
+    }
+
+    public Duration getMin() {
+        return min;
+    }
+
+    private static Duration clamp(Duration value, Duration low, Duration high) {
+        if (value.compareTo(low) < 0) {
+            return low;
+        }
+        return value.compareTo(high) > 0 ? high : value;
+    }
+}
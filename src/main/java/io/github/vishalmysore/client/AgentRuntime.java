@@ -0,0 +1,258 @@
+package io.github.vishalmysore.client;
+
+import com.t4a.detect.HumanInLoop;
+import io.github.vishalmysore.analyzer.FeedAnalyzer;
+import io.github.vishalmysore.config.MoltbookConfig;
+import io.github.vishalmysore.service.ActivityTrackingService;
+import io.github.vishalmysore.service.MoltbookService;
+import io.github.vishalmysore.transport.MoltbookTransport;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hosts several agent identities in one process.
+ *
+ * Each agent has its own API key, rate limits, circuits, seen-set, feed mark
+ * and activity log. AI actions triggered by an agent's heartbeat run with
+ * that agent's MoltbookService bound (see MoltbookService.forCurrentAgent).
+ * The HTTP transport, the feed analyzer (and with it the Tools4AI processor
+ * and relevance cache), the thread pool and the scheduler are shared. First
+ * heartbeats are spread evenly across the starting interval; after that each
+ * agent's interval adapts to its own feed. At most maxConcurrentHeartbeats
+ * run at the same time.
+ *
+ * Agents come from moltbook.multi-agent.agents; more can be added at runtime.
+ */
+@Component
+@Slf4j
+public class AgentRuntime {
+
+    private final MoltbookConfig config;
+    private final MoltbookTransport transport;
+    private final FeedAnalyzer feedAnalyzer;
+    private final HumanInLoop humanInLoop;
+    private final MoltbookConfig.MultiAgent multiAgentConfig;
+    private final Duration interval;
+    private final Duration tick;
+    private final Map<String, Agent> agents = new LinkedHashMap<>();
+
+    private ExecutorService sharedExecutor;
+    private ScheduledExecutorService scheduler;
+
+    public AgentRuntime(MoltbookConfig config, MoltbookTransport transport, FeedAnalyzer feedAnalyzer,
+            HumanInLoop humanInLoop) {
+        this.config = config;
+        this.transport = transport;
+        this.feedAnalyzer = feedAnalyzer;
+        this.humanInLoop = humanInLoop;
+        this.multiAgentConfig = config.getMultiAgent();
+        this.interval = Duration.ofMinutes(Math.max(1, config.getHeartbeat().getInterval().getMinutes()));
+        this.tick = Duration.ofSeconds(Math.max(1, config.getHeartbeat().getInterval().getTickSeconds()));
+    }
+
+    /**
+     * Create the configured agents and schedule their heartbeats evenly
+     * across the interval
+     */
+    @PostConstruct
+    public synchronized void start() {
+        List<MoltbookConfig.AgentIdentity> identities = multiAgentConfig.getAgents();
+        if (identities == null || identities.isEmpty()) {
+            return;
+        }
+        for (MoltbookConfig.AgentIdentity identity : identities) {
+            createAgent(identity.getName(), identity.getApiKey());
+        }
+        long step = interval.toMillis() / agents.size();
+        int slot = 0;
+        for (Agent agent : agents.values()) {
+            schedule(agent, step * slot++);
+        }
+        log.info("🦞 Agent runtime started: {} agents, first heartbeats {} ms apart, up to {} at a time",
+                agents.size(), step, multiAgentConfig.getMaxConcurrentHeartbeats());
+    }
+
+    /**
+     * Add an agent while running. Its first heartbeat goes into the middle of
+     * the widest gap between the next heartbeats of the agents already
+     * scheduled, so agents added one by one still spread out.
+     */
+    public synchronized Agent addAgent(String name, String apiKey) {
+        long delay = widestGapDelay();
+        Agent agent = createAgent(name, apiKey);
+        schedule(agent, delay);
+        return agent;
+    }
+
+    /**
+     * Stop an agent's heartbeats and persist its state
+     */
+    public synchronized boolean removeAgent(String name) {
+        Agent agent = agents.remove(name);
+        if (agent == null) {
+            return false;
+        }
+        stop(agent);
+        log.info("🦞 Agent {} removed from runtime", name);
+        return true;
+    }
+
+    public synchronized Agent getAgent(String name) {
+        return agents.get(name);
+    }
+
+    public synchronized Collection<Agent> getAgents() {
+        return new ArrayList<>(agents.values());
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        for (Agent agent : agents.values()) {
+            stop(agent);
+        }
+        agents.clear();
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        if (sharedExecutor != null) {
+            sharedExecutor.shutdownNow();
+        }
+    }
+
+    private Agent createAgent(String name, String apiKey) {
+        if (name == null || name.isBlank() || apiKey == null || apiKey.isBlank()) {
+            throw new IllegalArgumentException("Agent needs a name and an API key");
+        }
+        if (agents.containsKey(name)) {
+            throw new IllegalArgumentException("Agent " + name + " is already running");
+        }
+        ExecutorService executor = sharedExecutor();
+        Path stateDir = Path.of(multiAgentConfig.getStateDir(), name);
+        String journalDir = config.getActivity().getJournalDir();
+        ActivityTrackingService activity = new ActivityTrackingService(config,
+                journalDir == null || journalDir.isBlank()
+                        ? null
+                        : stateDir.resolve(Path.of(journalDir).getFileName()));
+        MoltbookClient client = MoltbookClient.forAgent(apiKey, activity, transport, config,
+                multiAgentConfig.getCacheMaxBytes());
+        MoltbookAsyncClient asyncClient = new MoltbookAsyncClient(client, executor,
+                Duration.ofSeconds(config.getApi().getAsyncTimeoutSeconds()));
+        MoltbookHeartbeat heartbeat = new MoltbookHeartbeat(client, asyncClient, feedAnalyzer, activity,
+                humanInLoop, config, stateDir, executor);
+        Agent agent = new Agent(name, client, asyncClient, heartbeat, activity, heartbeat.getActionService());
+        agents.put(name, agent);
+        return agent;
+    }
+
+    /**
+     * Delay to the middle of the widest gap between the next heartbeats of
+     * the running agents, with their run times folded onto one interval
+     */
+    private long widestGapDelay() {
+        if (agents.isEmpty()) {
+            return 0;
+        }
+        long period = interval.toMillis();
+        Instant now = Instant.now();
+        long[] offsets = agents.values().stream()
+                .mapToLong(agent -> Math.floorMod(
+                        Duration.between(now, agent.heartbeat.getNextRunAt()).toMillis(), period))
+                .sorted()
+                .toArray();
+        // The gap that wraps around from the last offset to the first
+        long gapStart = offsets[offsets.length - 1];
+        long gap = offsets[0] + period - gapStart;
+        for (int i = 1; i < offsets.length; i++) {
+            if (offsets[i] - offsets[i - 1] > gap) {
+                gapStart = offsets[i - 1];
+                gap = offsets[i] - offsets[i - 1];
+            }
+        }
+        return (gapStart + gap / 2) % period;
+    }
+
+    private void schedule(Agent agent, long firstRunDelayMillis) {
+        agent.heartbeat.delayNextRun(Duration.ofMillis(firstRunDelayMillis));
+        agent.schedule = scheduler().scheduleWithFixedDelay(() -> {
+            try {
+                agent.heartbeat.tick();
+            } catch (RuntimeException e) {
+                log.error("❌ Heartbeat of agent {} failed", agent.name, e);
+            }
+        }, firstRunDelayMillis % tick.toMillis(), tick.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private void stop(Agent agent) {
+        if (agent.schedule != null) {
+            agent.schedule.cancel(false);
+        }
+        agent.heartbeat.shutdown();
+        agent.activity.close();
+    }
+
+    private ExecutorService sharedExecutor() {
+        if (sharedExecutor == null) {
+            sharedExecutor = MoltbookHeartbeat.newItemExecutor(0, config.getHeartbeat().isVirtualThreads());
+        }
+        return sharedExecutor;
+    }
+
+    private ScheduledExecutorService scheduler() {
+        if (scheduler == null) {
+            AtomicInteger counter = new AtomicInteger();
+            ScheduledThreadPoolExecutor pool = new ScheduledThreadPoolExecutor(
+                    Math.max(1, multiAgentConfig.getMaxConcurrentHeartbeats()), r -> {
+                        Thread thread = new Thread(r, "moltbook-heartbeat-" + counter.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+            pool.setRemoveOnCancelPolicy(true);
+            scheduler = pool;
+        }
+        return scheduler;
+    }
+
+    /**
+     * One hosted agent identity and its per-agent state
+     */
+    @Getter
+    public static class Agent {
+        private final String name;
+        private final MoltbookClient client;
+        private final MoltbookAsyncClient asyncClient;
+        private final MoltbookHeartbeat heartbeat;
+        private final ActivityTrackingService activity;
+        private final MoltbookService service;
+        @Getter(AccessLevel.NONE)
+        private volatile ScheduledFuture<?> schedule;
+
+        Agent(String name, MoltbookClient client, MoltbookAsyncClient asyncClient, MoltbookHeartbeat heartbeat,
+                ActivityTrackingService activity, MoltbookService service) {
+            this.name = name;
+            this.client = client;
+            this.asyncClient = asyncClient;
+            this.heartbeat = heartbeat;
+            this.activity = activity;
+            this.service = service;
+        }
+    }
+}
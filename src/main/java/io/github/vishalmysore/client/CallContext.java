@@ -0,0 +1,161 @@
+package io.github.vishalmysore.client;
+
+import io.github.vishalmysore.transport.Cancellation;
+import okhttp3.Request;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Where the steps of one {@link MoltbookClient} call run.
+ *
+ * Rate limit waits and retry backoffs are scheduled on a delayed executor
+ * instead of sleeping. A context on an executor (the async client) holds no
+ * thread while they pass; a caller-runs context (the blocking methods) runs
+ * each step on the thread waiting in {@link #await}, which is otherwise idle.
+ * {@link #cancel()} aborts the HTTP call in flight and stops further attempts;
+ * a caller-runs context is cancelled when its waiting thread is interrupted.
+ */
+final class CallContext implements Executor {
+
+    private static final Runnable WAKE_UP = () -> {
+    };
+
+    private final Executor executor; // null = steps run on the awaiting thread
+    private final BlockingQueue<Runnable> steps;
+    private final Cancellation cancellation = new Cancellation();
+    private final List<Runnable> cancelActions = new ArrayList<>();
+
+    private CallContext(Executor executor, BlockingQueue<Runnable> steps) {
+        this.executor = executor;
+        this.steps = steps;
+    }
+
+    static CallContext on(Executor executor) {
+        return new CallContext(executor, null);
+    }
+
+    static CallContext callerRuns() {
+        return new CallContext(null, new LinkedBlockingQueue<>());
+    }
+
+    /**
+     * A context running its steps where this one does, with a cancellation
+     * of its own: for a call shared with other callers, which must go on when
+     * this caller gives up. The fork of a caller-runs context is cancelled
+     * with it all the same, as nothing runs its steps once the caller is gone.
+     */
+    CallContext fork() {
+        CallContext fork = new CallContext(executor, steps);
+        if (executor == null) {
+            onCancel(fork::cancel);
+        }
+        return fork;
+    }
+
+    @Override
+    public void execute(Runnable step) {
+        if (executor != null) {
+            executor.execute(step);
+        } else {
+            steps.add(step);
+        }
+    }
+
+    /**
+     * Tag the request so {@link #cancel()} reaches its HTTP call
+     */
+    Request tag(Request request) {
+        return request.newBuilder().tag(Cancellation.class, cancellation).build();
+    }
+
+    /**
+     * Stop the call: abort the request in flight, send no more attempts
+     */
+    void cancel() {
+        List<Runnable> actions;
+        synchronized (this) {
+            cancellation.cancel();
+            actions = new ArrayList<>(cancelActions);
+            cancelActions.clear();
+        }
+        actions.forEach(Runnable::run);
+    }
+
+    /**
+     * Run the action when this context is cancelled, or now if it already is
+     */
+    void onCancel(Runnable action) {
+        synchronized (this) {
+            if (!cancellation.isCancelled()) {
+                cancelActions.add(action);
+                return;
+            }
+        }
+        action.run();
+    }
+
+    boolean isCancelled() {
+        return cancellation.isCancelled();
+    }
+
+    /**
+     * Run a step after the delay, without holding a thread meanwhile
+     */
+    void schedule(Duration delay, Runnable step) {
+        if (delay.isZero() || delay.isNegative()) {
+            execute(step);
+        } else {
+            CompletableFuture.delayedExecutor(delay.toNanos(), TimeUnit.NANOSECONDS, this).execute(step);
+        }
+    }
+
+    /**
+     * Wait for the result, running this context's steps on the current
+     * thread if it is a caller-runs context
+     *
+     * @throws RuntimeException or Error the call failed with
+     */
+    <T> T await(CompletableFuture<T> result) {
+        if (executor == null) {
+            result.whenComplete((value, error) -> steps.add(WAKE_UP));
+            try {
+                while (!result.isDone()) {
+                    steps.take().run();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                cancel(); // the queued steps will never run
+                throw new IllegalStateException("Interrupted while waiting for a Moltbook call", e);
+            }
+        }
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            throw unchecked(e.getCause() != null ? e.getCause() : e);
+        }
+    }
+
+    /**
+     * The failure of a call, without CompletionException wrapping
+     */
+    static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    private static RuntimeException unchecked(Throwable error) {
+        if (error instanceof Error) {
+            throw (Error) error;
+        }
+        return error instanceof RuntimeException
+                ? (RuntimeException) error
+                : new RuntimeException(error.getMessage(), error);
+    }
+}
@@ -0,0 +1,177 @@
+package io.github.vishalmysore.client;
+
+import com.google.gson.Gson;
+import io.github.vishalmysore.model.FeedItem;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Newest feed position already pulled: the latest created_at plus the ids
+ * seen at exactly that time (several posts can share a timestamp).
+ *
+ * Items newer than the mark, or at the mark with an unknown id, are new.
+ * With a persist file the mark survives restarts.
+ */
+@Slf4j
+public class FeedHighWaterMark {
+
+    private static final Gson gson = new Gson();
+
+    private final Path persistFile;
+    private Instant latest;
+    private final Set<String> idsAtLatest = new HashSet<>();
+    private boolean dirty;
+
+    public FeedHighWaterMark(Path persistFile) {
+        this.persistFile = persistFile;
+        load();
+    }
+
+    public synchronized boolean isEmpty() {
+        return latest == null;
+    }
+
+    /**
+     * True if the item was created after the mark (or at the mark but not
+     * pulled yet). Items without a readable timestamp count as new.
+     */
+    public synchronized boolean isNew(FeedItem item) {
+        if (latest == null) {
+            return true;
+        }
+        Instant created = parse(item.getCreatedAt());
+        if (created == null) {
+            return true;
+        }
+        int order = created.compareTo(latest);
+        return order > 0 || (order == 0 && !idsAtLatest.contains(item.getId()));
+    }
+
+    /**
+     * Move the mark to the newest of the given items
+     */
+    public synchronized void advance(Collection<FeedItem> items) {
+        for (FeedItem item : items) {
+            Instant created = parse(item.getCreatedAt());
+            if (created == null || item.getId() == null) {
+                continue;
+            }
+            if (latest == null || created.isAfter(latest)) {
+                latest = created;
+                idsAtLatest.clear();
+            }
+            if (created.equals(latest)) {
+                idsAtLatest.add(item.getId());
+            }
+            dirty = true;
+        }
+    }
+
+    /**
+     * Move the mark over the finished items, stopping short of the oldest
+     * unfinished one so it is pulled again next time. Items older than that
+     * are pulled again too; the caller skips them as already seen.
+     */
+    public synchronized void advanceFinished(Collection<FeedItem> items, Predicate<FeedItem> finished) {
+        Instant oldestUnfinished = null;
+        for (FeedItem item : items) {
+            Instant created = parse(item.getCreatedAt());
+            if (created != null && !finished.test(item)
+                    && (oldestUnfinished == null || created.isBefore(oldestUnfinished))) {
+                oldestUnfinished = created;
+            }
+        }
+        List<FeedItem> done = new ArrayList<>(items.size());
+        for (FeedItem item : items) {
+            Instant created = parse(item.getCreatedAt());
+            if (created != null && finished.test(item)
+                    && (oldestUnfinished == null || created.isBefore(oldestUnfinished))) {
+                done.add(item);
+            }
+        }
+        advance(done);
+    }
+
+    public synchronized Instant getLatest() {
+        return latest;
+    }
+
+    /**
+     * Write the mark to the persist file if it moved since the last save
+     */
+    public synchronized void save() {
+        if (persistFile == null || !dirty || latest == null) {
+            return;
+        }
+        try {
+            Path parent = persistFile.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            Stored stored = new Stored();
+            stored.latest = latest.toString();
+            stored.ids = new ArrayList<>(idsAtLatest);
+            Path tmp = persistFile.resolveSibling(persistFile.getFileName() + ".tmp");
+            try (Writer writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+                gson.toJson(stored, writer);
+            }
+            Files.move(tmp, persistFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            dirty = false;
+        } catch (Exception e) {
+            log.warn("Failed to persist feed high-water mark to {}: {}", persistFile, e.getMessage());
+        }
+    }
+
+    private void load() {
+        if (persistFile == null || !Files.exists(persistFile)) {
+            return;
+        }
+        try (Reader reader = Files.newBufferedReader(persistFile, StandardCharsets.UTF_8)) {
+            Stored stored = gson.fromJson(reader, Stored.class);
+            if (stored != null && stored.latest != null) {
+                latest = Instant.parse(stored.latest);
+                if (stored.ids != null) {
+                    idsAtLatest.addAll(stored.ids);
+                }
+                log.info("✓ Feed high-water mark {} loaded from {}", latest, persistFile);
+            }
+        } catch (Exception e) {
+            log.warn("Ignoring unreadable feed high-water mark {}: {}", persistFile, e.getMessage());
+        }
+    }
+
+    private static Instant parse(String createdAt) {
+        if (createdAt == null || createdAt.isEmpty()) {
+            return null;
+        }
+        try {
+            return OffsetDateTime.parse(createdAt).toInstant();
+        } catch (DateTimeParseException e) {
+            try {
+                return Instant.parse(createdAt);
+            } catch (DateTimeParseException ignored) {
+                return null;
+            }
+        }
+    }
+
+    private static class Stored {
+        String latest;
+        List<String> ids;
+    }
+}
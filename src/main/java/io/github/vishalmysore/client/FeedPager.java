@@ -0,0 +1,167 @@
+package io.github.vishalmysore.client;
+
+import io.github.vishalmysore.model.FeedItem;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Lazily paged view of /feed or /posts.
+ *
+ * Pages are fetched with limit/offset, the first one as soon as the pager is
+ * created. While the consumer works through one page, the next one is
+ * already being fetched, so at most two pages are held at a time however
+ * deep the scan goes. Nothing beyond that prefetched page is requested once
+ * the consumer stops pulling (e.g. after Stream.limit or takeWhile). Items
+ * that shift across page boundaries while paging are returned only once, and
+ * a page that brings nothing new ends the scan.
+ */
+@Slf4j
+public class FeedPager implements Iterator<FeedItem>, AutoCloseable {
+
+    /**
+     * Fetches one page asynchronously
+     */
+    @FunctionalInterface
+    public interface PageFetcher {
+        CompletableFuture<List<FeedItem>> fetch(int offset, int limit);
+    }
+
+    private final PageFetcher fetcher;
+    private final int pageSize;
+    private final int maxItems;
+
+    private CompletableFuture<List<FeedItem>> nextPage;
+    private Iterator<FeedItem> current;
+    private final Set<String> deliveredIds = new HashSet<>();
+    private int offset;
+    private int delivered;
+    private FeedItem lookahead;
+    private Predicate<FeedItem> boundary = item -> false;
+
+    /**
+     * @param maxItems stop after this many items, 0 = until the feed runs out
+     */
+    public FeedPager(PageFetcher fetcher, int pageSize, int maxItems) {
+        this.fetcher = fetcher;
+        this.pageSize = Math.max(1, pageSize);
+        this.maxItems = maxItems;
+        this.nextPage = fetcher.fetch(0, this.pageSize);
+    }
+
+    /**
+     * End the scan at the first item matching the boundary (exclusive), e.g.
+     * the last item already pulled. No page after the one containing it is
+     * fetched.
+     */
+    public FeedPager until(Predicate<FeedItem> boundary) {
+        this.boundary = boundary;
+        return this;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (lookahead != null) {
+            return true;
+        }
+        if (maxItems > 0 && delivered >= maxItems) {
+            close();
+            return false;
+        }
+        while (current == null || !current.hasNext()) {
+            if (nextPage == null) {
+                return false;
+            }
+            advancePage();
+        }
+        lookahead = current.next();
+        return true;
+    }
+
+    @Override
+    public FeedItem next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        FeedItem item = lookahead;
+        lookahead = null;
+        delivered++;
+        return item;
+    }
+
+    /**
+     * Stream over the remaining items; closing the stream cancels the prefetch
+     */
+    public Stream<FeedItem> stream() {
+        return StreamSupport.stream(
+                Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(this::close);
+    }
+
+    /**
+     * Drop the prefetched page, if any
+     */
+    @Override
+    public void close() {
+        if (nextPage != null) {
+            nextPage.cancel(false);
+            nextPage = null;
+        }
+        current = null;
+    }
+
+    private void advancePage() {
+        List<FeedItem> page = await(nextPage);
+        nextPage = null;
+        int pageStart = offset;
+        offset += page.size();
+        boolean lastPage = page.size() < pageSize;
+        for (int i = 0; i < page.size(); i++) {
+            if (boundary.test(page.get(i))) {
+                page = page.subList(0, i);
+                lastPage = true;
+                break;
+            }
+        }
+
+        List<FeedItem> fresh = new ArrayList<>(page.size());
+        for (FeedItem item : page) {
+            if (item.getId() == null || deliveredIds.add(item.getId())) {
+                fresh.add(item);
+            }
+        }
+        if (fresh.isEmpty()) {
+            lastPage = true; // only repeats, the feed is not moving forward
+        }
+        boolean enough = maxItems > 0 && delivered + fresh.size() >= maxItems;
+        if (!lastPage && !enough) {
+            // Prefetch while the consumer works through this page
+            nextPage = fetcher.fetch(offset, pageSize);
+        }
+        current = fresh.iterator();
+        log.debug("📄 Feed page at offset {}: {} items ({} new)", pageStart, page.size(), fresh.size());
+    }
+
+    private static List<FeedItem> await(CompletableFuture<List<FeedItem>> page) {
+        try {
+            return page.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package io.github.vishalmysore.client;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Time budget of one heartbeat.
+ *
+ * Work checks it before starting something slow (an AI call, a verification,
+ * a post); nothing is interrupted mid-call. Work that no longer fits is
+ * deferred to the next heartbeat and counted here per kind. A budget with a
+ * reserve ends earlier but shares the counters, so lower-priority work runs
+ * out first and the reserve stays for higher-priority work.
+ */
+public class HeartbeatBudget {
+
+    private final boolean limited;
+    private final long deadline;
+    private final Map<String, AtomicInteger> deferred;
+    private final AtomicBoolean exceeded;
+
+    private HeartbeatBudget(boolean limited, long deadline, Map<String, AtomicInteger> deferred,
+            AtomicBoolean exceeded) {
+        this.limited = limited;
+        this.deadline = deadline;
+        this.deferred = deferred;
+        this.exceeded = exceeded;
+    }
+
+    /**
+     * Budget starting now; zero or negative means no limit
+     */
+    public static HeartbeatBudget of(Duration budget) {
+        boolean limited = budget != null && !budget.isZero() && !budget.isNegative();
+        return new HeartbeatBudget(limited, limited ? System.nanoTime() + budget.toNanos() : 0,
+                new ConcurrentHashMap<>(), new AtomicBoolean());
+    }
+
+    /**
+     * Same budget ending earlier by the reserve
+     */
+    public HeartbeatBudget withReserve(Duration reserve) {
+        return new HeartbeatBudget(limited, deadline - reserve.toNanos(), deferred, exceeded);
+    }
+
+    public boolean isExpired() {
+        if (!limited || System.nanoTime() - deadline < 0) {
+            return false;
+        }
+        exceeded.set(true);
+        return true;
+    }
+
+    /**
+     * Time left, zero once expired; very long without a limit
+     */
+    public Duration remaining() {
+        if (!limited) {
+            return Duration.ofNanos(Long.MAX_VALUE);
+        }
+        return Duration.ofNanos(Math.max(0, deadline - System.nanoTime()));
+    }
+
+    /**
+     * Record work pushed to the next heartbeat
+     */
+    public void defer(String kind, int count) {
+        if (count > 0) {
+            deferred.computeIfAbsent(kind, k -> new AtomicInteger()).addAndGet(count);
+        }
+    }
+
+    public Map<String, Integer> getDeferred() {
+        Map<String, Integer> counts = new TreeMap<>();
+        deferred.forEach((kind, count) -> counts.put(kind, count.get()));
+        return counts;
+    }
+
+    /**
+     * True if the budget ran out at some point
+     */
+    public boolean wasExceeded() {
+        return exceeded.get();
+    }
+}
@@ -0,0 +1,203 @@
+package io.github.vishalmysore.client;
+
+import io.github.vishalmysore.config.MoltbookConfig;
+import io.github.vishalmysore.model.FeedItem;
+import io.github.vishalmysore.transport.MoltbookTransport;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Non-blocking view of {@link MoltbookClient}.
+ *
+ * Every call runs on this client's own executor and completes exceptionally
+ * with a TimeoutException once moltbook.api.async-timeout-seconds is exceeded,
+ * so independent requests (feed, search, profile) can be issued together and
+ * joined when needed. A call that times out is cancelled along with its HTTP
+ * request. Calls waiting for the rate limiter or a retry backoff do not
+ * occupy an executor thread.
+ */
+@Component
+@Slf4j
+public class MoltbookAsyncClient {
+
+    private final MoltbookClient client;
+    private final ExecutorService executor;
+    private final Duration timeout;
+    private final boolean ownsExecutor;
+
+    @Autowired
+    public MoltbookAsyncClient(MoltbookClient client, MoltbookConfig config) {
+        this(client, newExecutor(config.getApi().getAsyncThreads()),
+                Duration.ofSeconds(config.getApi().getAsyncTimeoutSeconds()), true);
+    }
+
+    /**
+     * Use a caller-managed executor (not shut down by this client)
+     */
+    public MoltbookAsyncClient(MoltbookClient client, ExecutorService executor, Duration timeout) {
+        this(client, executor, timeout, false);
+    }
+
+    private MoltbookAsyncClient(MoltbookClient client, ExecutorService executor, Duration timeout,
+            boolean ownsExecutor) {
+        this.client = client;
+        this.executor = executor;
+        this.timeout = timeout;
+        this.ownsExecutor = ownsExecutor;
+    }
+
+    public CompletableFuture<String> getAgentStatus() {
+        return submit(client::getAgentStatus);
+    }
+
+    public CompletableFuture<String> getFeed(int limit) {
+        return submit(context -> client.getFeed(limit, context));
+    }
+
+    public <T> CompletableFuture<T> getFeed(int limit, MoltbookTransport.BodyReader<T> reader) {
+        return submit(context -> client.getFeed(limit, reader, context));
+    }
+
+    public CompletableFuture<String> getPosts(String sort, int limit) {
+        return submit(context -> client.getPosts(sort, limit, context));
+    }
+
+    public <T> CompletableFuture<T> getPosts(String sort, int limit, MoltbookTransport.BodyReader<T> reader) {
+        return submit(context -> client.getPosts(sort, limit, reader, context));
+    }
+
+    /**
+     * Lazily paged personalized feed; see {@link FeedPager}
+     *
+     * @param maxItems stop after this many items, 0 = until the feed runs out
+     */
+    public FeedPager feedPager(int pageSize, int maxItems, MoltbookTransport.BodyReader<List<FeedItem>> parser) {
+        return new FeedPager(
+                (offset, limit) -> submit(context -> client.getFeed(limit, offset, parser, context)),
+                pageSize, maxItems);
+    }
+
+    /**
+     * Lazily paged global posts; see {@link FeedPager}
+     *
+     * @param maxItems stop after this many items, 0 = until the feed runs out
+     */
+    public FeedPager postsPager(String sort, int pageSize, int maxItems,
+            MoltbookTransport.BodyReader<List<FeedItem>> parser) {
+        return new FeedPager(
+                (offset, limit) -> submit(context -> client.getPosts(sort, limit, offset, parser, context)),
+                pageSize, maxItems);
+    }
+
+    public CompletableFuture<String> getProfile() {
+        return submit(client::getProfile);
+    }
+
+    public CompletableFuture<String> semanticSearch(String query) {
+        return submit(context -> client.semanticSearch(query, context));
+    }
+
+    public CompletableFuture<String> semanticSearch(String query, String type, int limit) {
+        return submit(context -> client.semanticSearch(query, type, limit, context));
+    }
+
+    public <T> CompletableFuture<T> semanticSearch(String query, String type, int limit,
+            MoltbookTransport.BodyReader<T> reader) {
+        return submit(context -> client.semanticSearch(query, type, limit, reader, context));
+    }
+
+    public CompletableFuture<String> getComments(String postId, String sort) {
+        return submit(context -> client.getComments(postId, sort, context));
+    }
+
+    public CompletableFuture<String> createPost(String submolt, String title, String content) {
+        return submit(context -> client.createPost(submolt, title, content, context));
+    }
+
+    public CompletableFuture<String> createLinkPost(String submolt, String title, String url) {
+        return submit(context -> client.createLinkPost(submolt, title, url, context));
+    }
+
+    public CompletableFuture<String> createComment(String postId, String content) {
+        return submit(context -> client.createComment(postId, content, context));
+    }
+
+    public CompletableFuture<Void> upvote(String postId) {
+        return submit(context -> client.upvote(postId, context));
+    }
+
+    public CompletableFuture<Void> downvote(String postId) {
+        return submit(context -> client.downvote(postId, context));
+    }
+
+    public CompletableFuture<String> verifyPost(String verificationCode, String answer) {
+        return submit(context -> client.verifyPost(verificationCode, answer, context));
+    }
+
+    public CompletableFuture<Void> followAgent(String agentName) {
+        return submit(context -> client.followAgent(agentName, context));
+    }
+
+    public CompletableFuture<Void> unfollowAgent(String agentName) {
+        return submit(context -> client.unfollowAgent(agentName, context));
+    }
+
+    public CompletableFuture<Void> subscribeToSubmolt(String submoltName) {
+        return submit(context -> client.subscribeToSubmolt(submoltName, context));
+    }
+
+    public CompletableFuture<String> updateProfile(String description) {
+        return submit(context -> client.updateProfile(description, context));
+    }
+
+    /**
+     * The blocking client this view delegates to
+     */
+    public MoltbookClient getClient() {
+        return client;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (ownsExecutor) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Start the call's async form on the executor. A call that times out (or
+     * whose future is cancelled) is cancelled too, aborting its HTTP request.
+     */
+    private <T> CompletableFuture<T> submit(Function<CallContext, CompletableFuture<T>> call) {
+        CallContext context = CallContext.on(executor);
+        CompletableFuture<T> result = CompletableFuture.supplyAsync(() -> call.apply(context), executor)
+                .thenCompose(Function.identity())
+                .orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        result.whenComplete((value, error) -> {
+            if (error != null) {
+                context.cancel();
+            }
+        });
+        return result;
+    }
+
+    private static ExecutorService newExecutor(int threads) {
+        AtomicInteger counter = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "moltbook-async-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
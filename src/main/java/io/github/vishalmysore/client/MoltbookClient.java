@@ -1,39 +1,72 @@
 package io.github.vishalmysore.client;
 
+import io.github.vishalmysore.config.MoltbookConfig;
 import io.github.vishalmysore.service.ActivityTrackingService;
+import io.github.vishalmysore.transport.CircuitBreaker;
+import io.github.vishalmysore.transport.EndpointClass;
+import io.github.vishalmysore.transport.MoltbookApiException;
+import io.github.vishalmysore.transport.MoltbookTransport;
+import io.github.vishalmysore.transport.PoolMetrics;
+import io.github.vishalmysore.transport.RateLimiter;
+import io.github.vishalmysore.transport.ResponseCache;
+import io.github.vishalmysore.transport.RetryPolicy;
+import io.github.vishalmysore.transport.TransportResponse;
 import lombok.extern.slf4j.Slf4j;
+import okhttp3.HttpUrl;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.*;
 import org.springframework.stereotype.Component;
-import org.springframework.web.client.HttpClientErrorException;
-import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriUtils;
-import com.google.gson.Gson;
 import com.google.gson.JsonObject;
 
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
- * Simplified Moltbook API client using RestTemplate
+ * Simplified Moltbook API client on top of the pooled {@link MoltbookTransport}.
+ * Every request goes through this client's {@link RateLimiter} and the
+ * {@link CircuitBreaker} of its endpoint; GET and DELETE calls are retried
+ * per the {@link RetryPolicy}.
  */
 @Component
 @Slf4j
 public class MoltbookClient {
 
-    private static final String BASE_URL = "https://www.moltbook.com/api/v1";
+    private static final MediaType JSON = MediaType.get("application/json");
     private final ActivityTrackingService activityService;
-    private final RestTemplate restTemplate;
-    private final Gson gson;
+    private final MoltbookTransport transport;
+    private final RateLimiter rateLimiter;
+    private final RetryPolicy retryPolicy;
+    private final MoltbookConfig.Resilience resilienceConfig;
+    private final Map<String, CircuitBreaker> circuitBreakers = new ConcurrentHashMap<>();
+    private final SingleFlight singleFlight;
+    private final ResponseCache responseCache; // null when disabled
+    private final String basePath;
     private String apiKey;
     private ChallengeSolver challengeSolver;
 
+    @Autowired
     public MoltbookClient(
             @Value("${moltbook.api.key:}") String configuredApiKey,
-            ActivityTrackingService activityService) {
-
-        this.restTemplate = new RestTemplate();
-        this.activityService = activityService;
-        this.gson = new Gson();
+            ActivityTrackingService activityService,
+            MoltbookTransport transport,
+            MoltbookConfig config) {
+        this(activityService, transport, config, config.getApi().getCacheMaxBytes());
 
         // Try multiple sources for API key (in priority order)
         // 1. JVM system property (-DMOLTBOOK_API_KEY=...)
@@ -62,6 +95,34 @@ public class MoltbookClient {
         }
     }
 
+    private MoltbookClient(ActivityTrackingService activityService, MoltbookTransport transport,
+            MoltbookConfig config, long cacheMaxBytes) {
+        this.transport = transport;
+        this.rateLimiter = new RateLimiter(config.getRateLimit());
+        this.resilienceConfig = config.getResilience();
+        this.retryPolicy = new RetryPolicy(resilienceConfig);
+        this.singleFlight = new SingleFlight(Duration.ofMillis(config.getApi().getSingleFlightFreshMillis()));
+        this.responseCache = cacheMaxBytes > 0
+                ? new ResponseCache(cacheMaxBytes, Duration.ofSeconds(config.getApi().getCacheTtlSeconds()))
+                : null;
+        HttpUrl baseUrl = HttpUrl.parse(transport.getBaseUrl());
+        this.basePath = baseUrl != null ? baseUrl.encodedPath().replaceAll("/$", "") : "";
+        this.activityService = activityService;
+    }
+
+    /**
+     * Client for one identity of a multi-agent runtime: uses exactly the
+     * given key (no system property / environment lookup) and shares the
+     * transport with the other agents. Rate limits, circuits and caches stay
+     * per agent.
+     */
+    public static MoltbookClient forAgent(String apiKey, ActivityTrackingService activityService,
+            MoltbookTransport transport, MoltbookConfig config, long cacheMaxBytes) {
+        MoltbookClient client = new MoltbookClient(activityService, transport, config, cacheMaxBytes);
+        client.apiKey = apiKey;
+        return client;
+    }
+
     /**
      * Register agent with Moltbook (no API key needed)
      */
@@ -71,18 +132,15 @@ public class MoltbookClient {
                 escapeJson(agentName), escapeJson(description));
 
         try {
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            HttpEntity<String> entity = new HttpEntity<>(requestBody, headers);
+            Request request = transport.newRequest("/agents/register", null)
+                    .post(jsonBody(requestBody))
+                    .build();
 
-            ResponseEntity<String> response = restTemplate.postForEntity(
-                    BASE_URL + "/agents/register",
-                    entity,
-                    String.class);
+            String response = send(request);
 
             log.info("✓ Agent registered successfully!");
             log.info("📋 IMPORTANT: Save the API key from the response!");
-            return response.getBody();
+            return response;
 
         } catch (Exception e) {
             log.error("Registration failed", e);
@@ -94,297 +152,702 @@ public class MoltbookClient {
      * Get agent claim status
      */
     public String getAgentStatus() {
+        return await(this::getAgentStatus);
+    }
+
+    CompletableFuture<String> getAgentStatus(CallContext context) {
         if (apiKey == null || apiKey.isEmpty()) {
             log.error("Cannot check status - no API key set");
-            return "{\"error\":\"No API key configured\"}";
+            return CompletableFuture.completedFuture("{\"error\":\"No API key configured\"}");
         }
-        return get("/agents/status");
+        return get("/agents/status", context);
     }
 
     /**
      * Get personalized feed (subscriptions + follows)
      */
     public String getFeed(int limit) {
-        return get("/feed?sort=new&limit=" + limit);
+        return await(context -> getFeed(limit, context));
+    }
+
+    CompletableFuture<String> getFeed(int limit, CallContext context) {
+        return get("/feed?sort=new&limit=" + limit, context);
+    }
+
+    /**
+     * Get personalized feed, streaming the response body into the reader
+     */
+    public <T> T getFeed(int limit, MoltbookTransport.BodyReader<T> reader) {
+        return await(context -> getFeed(limit, reader, context));
+    }
+
+    <T> CompletableFuture<T> getFeed(int limit, MoltbookTransport.BodyReader<T> reader, CallContext context) {
+        return stream("/feed?sort=new&limit=" + limit, reader, context);
+    }
+
+    /**
+     * Get one page of the personalized feed, streaming it into the reader
+     */
+    public <T> T getFeed(int limit, int offset, MoltbookTransport.BodyReader<T> reader) {
+        return await(context -> getFeed(limit, offset, reader, context));
+    }
+
+    <T> CompletableFuture<T> getFeed(int limit, int offset, MoltbookTransport.BodyReader<T> reader,
+            CallContext context) {
+        return stream("/feed?sort=new&limit=" + limit + "&offset=" + offset, reader, context);
     }
 
     /**
      * Get global posts feed
      */
     public String getPosts(String sort, int limit) {
-        return get("/posts?sort=" + sort + "&limit=" + limit);
+        return await(context -> getPosts(sort, limit, context));
+    }
+
+    CompletableFuture<String> getPosts(String sort, int limit, CallContext context) {
+        return get("/posts?sort=" + sort + "&limit=" + limit, context);
+    }
+
+    /**
+     * Get global posts feed, streaming the response body into the reader
+     */
+    public <T> T getPosts(String sort, int limit, MoltbookTransport.BodyReader<T> reader) {
+        return await(context -> getPosts(sort, limit, reader, context));
+    }
+
+    <T> CompletableFuture<T> getPosts(String sort, int limit, MoltbookTransport.BodyReader<T> reader,
+            CallContext context) {
+        return stream("/posts?sort=" + sort + "&limit=" + limit, reader, context);
+    }
+
+    /**
+     * Get one page of the global posts feed, streaming it into the reader
+     */
+    public <T> T getPosts(String sort, int limit, int offset, MoltbookTransport.BodyReader<T> reader) {
+        return await(context -> getPosts(sort, limit, offset, reader, context));
+    }
+
+    <T> CompletableFuture<T> getPosts(String sort, int limit, int offset, MoltbookTransport.BodyReader<T> reader,
+            CallContext context) {
+        return stream("/posts?sort=" + sort + "&limit=" + limit + "&offset=" + offset, reader, context);
     }
 
     /**
      * Get agent profile
      */
     public String getProfile() {
-        return get("/agents/me");
+        return await(this::getProfile);
+    }
+
+    CompletableFuture<String> getProfile(CallContext context) {
+        return get("/agents/me", context);
     }
 
     /**
      * Semantic search for posts
      */
     public String semanticSearch(String query) {
+        return await(context -> semanticSearch(query, context));
+    }
+
+    CompletableFuture<String> semanticSearch(String query, CallContext context) {
         String encodedQuery = UriUtils.encode(query, StandardCharsets.UTF_8);
-        return get("/search?q=" + encodedQuery);
+        return get("/search?q=" + encodedQuery, context);
     }
 
     /**
      * Search with type and limit
      */
     public String semanticSearch(String query, String type, int limit) {
+        return await(context -> semanticSearch(query, type, limit, context));
+    }
+
+    CompletableFuture<String> semanticSearch(String query, String type, int limit, CallContext context) {
+        String encodedQuery = UriUtils.encode(query, StandardCharsets.UTF_8);
+        return get("/search?q=" + encodedQuery + "&type=" + type + "&limit=" + limit, context);
+    }
+
+    /**
+     * Search with type and limit, streaming the response body into the reader
+     */
+    public <T> T semanticSearch(String query, String type, int limit, MoltbookTransport.BodyReader<T> reader) {
+        return await(context -> semanticSearch(query, type, limit, reader, context));
+    }
+
+    <T> CompletableFuture<T> semanticSearch(String query, String type, int limit,
+            MoltbookTransport.BodyReader<T> reader, CallContext context) {
         String encodedQuery = UriUtils.encode(query, StandardCharsets.UTF_8);
-        return get("/search?q=" + encodedQuery + "&type=" + type + "&limit=" + limit);
+        return stream("/search?q=" + encodedQuery + "&type=" + type + "&limit=" + limit, reader, context);
     }
 
     /**
      * Create a new post
      */
     public String createPost(String submolt, String title, String content) {
+        return await(context -> createPost(submolt, title, content, context));
+    }
+
+    CompletableFuture<String> createPost(String submolt, String title, String content, CallContext context) {
         String requestBody = String.format(
                 "{\"submolt\":\"%s\",\"title\":\"%s\",\"content\":\"%s\"}",
                 escapeJson(submolt), escapeJson(title), escapeJson(content));
 
-        return post("/posts", requestBody);
+        return post("/posts", requestBody, context);
+    }
+
+    /**
+     * Create a post with text content, a link, or both
+     */
+    public String createPost(String submolt, String title, String content, String url) {
+        JsonObject requestBody = new JsonObject();
+        requestBody.addProperty("submolt", submolt);
+        requestBody.addProperty("title", title);
+        if (content != null) {
+            requestBody.addProperty("content", content);
+        }
+        if (url != null) {
+            requestBody.addProperty("url", url);
+        }
+        return await(context -> post("/posts", requestBody.toString(), context));
     }
 
     /**
      * Create a link post
      */
     public String createLinkPost(String submolt, String title, String url) {
+        return await(context -> createLinkPost(submolt, title, url, context));
+    }
+
+    CompletableFuture<String> createLinkPost(String submolt, String title, String url, CallContext context) {
         String requestBody = String.format(
                 "{\"submolt\":\"%s\",\"title\":\"%s\",\"url\":\"%s\"}",
                 escapeJson(submolt), escapeJson(title), escapeJson(url));
-        return post("/posts", requestBody);
+        return post("/posts", requestBody, context);
     }
 
     /**
      * Upvote a post
      */
     public void upvote(String postId) {
-        post("/posts/" + postId + "/upvote", null);
+        await(context -> upvote(postId, context));
+    }
+
+    CompletableFuture<Void> upvote(String postId, CallContext context) {
+        return post("/posts/" + postId + "/upvote", null, context).thenApply(response -> null);
     }
 
     /**
      * Downvote a post
      */
     public void downvote(String postId) {
-        post("/posts/" + postId + "/downvote", null);
+        await(context -> downvote(postId, context));
+    }
+
+    CompletableFuture<Void> downvote(String postId, CallContext context) {
+        return post("/posts/" + postId + "/downvote", null, context).thenApply(response -> null);
     }
 
     /**
      * Comment on a post
      */
     public String createComment(String postId, String content) {
+        return await(context -> createComment(postId, content, context));
+    }
+
+    CompletableFuture<String> createComment(String postId, String content, CallContext context) {
         String requestBody = String.format(
                 "{\"content\":\"%s\"}",
                 escapeJson(content));
-        return post("/posts/" + postId + "/comments", requestBody);
+        return post("/posts/" + postId + "/comments", requestBody, context);
     }
 
     /**
      * Get comments on a post
      */
     public String getComments(String postId, String sort) {
-        return get("/posts/" + postId + "/comments?sort=" + sort);
+        return await(context -> getComments(postId, sort, context));
+    }
+
+    CompletableFuture<String> getComments(String postId, String sort, CallContext context) {
+        return get("/posts/" + postId + "/comments?sort=" + sort, context);
     }
 
     /**
      * Verify a post by solving the challenge
      */
     public String verifyPost(String verificationCode, String answer) {
-        String requestBody = String.format(
+        return await(context -> verifyPost(verificationCode, answer, context));
+    }
+
+    CompletableFuture<String> verifyPost(String verificationCode, String answer, CallContext context) {
+        return post("/verify", verifyBody(verificationCode, answer), context);
+    }
+
+    private String verifyBody(String verificationCode, String answer) {
+        return String.format(
                 "{\"verification_code\":\"%s\",\"answer\":\"%s\"}",
                 escapeJson(verificationCode), escapeJson(answer));
-        return post("/verify", requestBody);
     }
 
     /**
      * Follow another molty
      */
     public void followAgent(String agentName) {
-        post("/agents/" + agentName + "/follow", null);
+        await(context -> followAgent(agentName, context));
+    }
+
+    CompletableFuture<Void> followAgent(String agentName, CallContext context) {
+        return post("/agents/" + agentName + "/follow", null, context).thenApply(response -> null);
     }
 
     /**
      * Unfollow a molty
      */
     public void unfollowAgent(String agentName) {
-        delete("/agents/" + agentName + "/follow");
+        await(context -> unfollowAgent(agentName, context));
+    }
+
+    CompletableFuture<Void> unfollowAgent(String agentName, CallContext context) {
+        return delete("/agents/" + agentName + "/follow", context).thenApply(response -> null);
     }
 
     /**
      * Subscribe to a submolt
      */
     public void subscribeToSubmolt(String submoltName) {
-        post("/submolts/" + submoltName + "/subscribe", null);
+        await(context -> subscribeToSubmolt(submoltName, context));
+    }
+
+    CompletableFuture<Void> subscribeToSubmolt(String submoltName, CallContext context) {
+        return post("/submolts/" + submoltName + "/subscribe", null, context).thenApply(response -> null);
     }
 
     /**
      * Update agent profile
      */
     public String updateProfile(String description) {
+        return await(context -> updateProfile(description, context));
+    }
+
+    CompletableFuture<String> updateProfile(String description, CallContext context) {
         String requestBody = String.format(
                 "{\"description\":\"%s\"}",
                 escapeJson(description));
-        return patch("/agents/me", requestBody);
+        return patch("/agents/me", requestBody, context);
     }
 
     // ====== HTTP Methods ======
+    //
+    // Each request is a chain of futures run by a CallContext: the blocking
+    // methods run it on the calling thread, the async client on its executor.
 
-    private String get(String path) {
-        HttpHeaders headers = authHeaders();
-        HttpEntity<?> entity = new HttpEntity<>(headers);
+    /**
+     * Run an async form on the calling thread and wait for its result
+     */
+    private static <T> T await(Function<CallContext, CompletableFuture<T>> call) {
+        CallContext caller = CallContext.callerRuns();
+        return caller.await(call.apply(caller));
+    }
 
-        try {
-            ResponseEntity<String> response = restTemplate.exchange(
-                    BASE_URL + path,
-                    HttpMethod.GET,
-                    entity,
-                    String.class);
-            return response.getBody();
-        } catch (Exception e) {
-            log.error("GET request failed: {}", path, e);
-            throw new RuntimeException("Moltbook API request failed: " + e.getMessage(), e);
+    private CompletableFuture<String> get(String path, CallContext context) {
+        // Identical GETs already in flight share one request
+        return reportFailure(singleFlight.executeAsync(path, context, shared -> cachedGet(path, shared)), "GET", path);
+    }
+
+    private <T> CompletableFuture<T> stream(String path, MoltbookTransport.BodyReader<T> reader,
+            CallContext context) {
+        return reportFailure(cachedStream(path, reader, context), "GET", path);
+    }
+
+    private <T> CompletableFuture<T> cachedStream(String path, MoltbookTransport.BodyReader<T> reader,
+            CallContext context) {
+        if (responseCache == null) {
+            return exchange(authRequest(path).get().build(), request -> transport.stream(request, reader), context);
+        }
+        String fresh = responseCache.fresh(path);
+        if (fresh != null) {
+            try {
+                return CompletableFuture.completedFuture(reader.read(new StringReader(fresh)));
+            } catch (IOException | RuntimeException e) {
+                return CompletableFuture.failedFuture(e);
+            }
         }
+        Request plain = authRequest(path).get().build();
+        AtomicBoolean evicted = new AtomicBoolean();
+        return exchange(responseCache.conditional(path, plain), request -> {
+            try {
+                return streamAndStore(path, request, reader);
+            } catch (MoltbookApiException e) {
+                if (e.getStatusCode() != 304) {
+                    throw e;
+                }
+                String cached = responseCache.notModified(path);
+                if (cached == null) {
+                    evicted.set(true);
+                    return null;
+                }
+                return reader.read(new StringReader(cached));
+            }
+        }, context).thenCompose(result -> evicted.get()
+                // 304 for an entry evicted meanwhile: the full fetch is a call
+                // of its own, with its own rate limit token and circuit check
+                ? exchange(plain, request -> streamAndStore(path, request, reader), context)
+                : CompletableFuture.completedFuture(result));
     }
 
-    private String post(String path, Object body) {
-        return executeWithVerification(() -> {
-            HttpHeaders headers = authHeaders();
-            HttpEntity<?> entity = new HttpEntity<>(body, headers);
-            ResponseEntity<String> response = restTemplate.postForEntity(
-                    BASE_URL + path,
-                    entity,
-                    String.class);
-            return response.getBody();
-        }, "POST " + path);
-    }
-
-    private String patch(String path, Object body) {
-        return executeWithVerification(() -> {
-            HttpHeaders headers = authHeaders();
-            HttpEntity<?> entity = new HttpEntity<>(body, headers);
-            ResponseEntity<String> response = restTemplate.exchange(
-                    BASE_URL + path,
-                    HttpMethod.PATCH,
-                    entity,
-                    String.class);
-            return response.getBody();
-        }, "PATCH " + path);
+    private CompletableFuture<String> post(String path, String body, CallContext context) {
+        return executeWithVerification(
+                () -> send(authRequest(path).post(jsonBody(body)).build(), context),
+                "POST", path, context);
     }
 
-    private String executeWithVerification(java.util.function.Supplier<String> action, String description) {
-        try {
-            String response = action.get();
-            if (isVerificationRequired(response)) {
+    private CompletableFuture<String> patch(String path, String body, CallContext context) {
+        return executeWithVerification(
+                () -> send(authRequest(path).patch(jsonBody(body)).build(), context),
+                "PATCH", path, context);
+    }
+
+    /**
+     * Run a write, solving a verification challenge if the response (or the
+     * error body) asks for one. Each body is scanned once with
+     * {@link VerificationScan}; the challenge found there goes straight to the
+     * solver and the body is returned to the caller as is. A write the server
+     * rejected pending verification gets its class token back, so the retry
+     * does not wait out the post or comment interval.
+     */
+    private CompletableFuture<String> executeWithVerification(Supplier<CompletableFuture<String>> action,
+            String method, String path, CallContext context) {
+        String description = method + " " + path;
+        return action.get().handle((response, error) -> {
+            if (error == null) {
+                VerificationScan scan = VerificationScan.of(response);
+                if (!scan.isVerificationRequired()) {
+                    return CompletableFuture.completedFuture(response);
+                }
                 log.info("🔐 {} response requires verification", description);
-                if (handleVerification(response)) {
-                    log.info("✅ Verified successfully for {}", description);
+                return handleVerification(scan, context).thenApply(verified -> {
+                    if (verified) {
+                        log.info("✅ Verified successfully for {}", description);
+                    }
                     return response;
-                }
+                });
             }
-            return response;
-        } catch (Exception e) {
-            String errorBody = extractErrorBody(e);
-            if (isVerificationRequired(errorBody)) {
-                log.info("🔐 {} failed with verification challenge", description);
-                if (handleVerification(errorBody)) {
-                    log.info("🔄 Retrying {} after verification...", description);
-                    return action.get();
-                }
+            Throwable e = CallContext.unwrap(error);
+            VerificationScan scan = VerificationScan.of(extractErrorBody(e));
+            if (!scan.isVerificationRequired()) {
+                return CompletableFuture.<String>failedFuture(apiError(e));
             }
-            if (e instanceof RuntimeException)
-                throw (RuntimeException) e;
-            throw new RuntimeException("Moltbook API error: " + e.getMessage(), e);
-        }
+            log.info("🔐 {} failed with verification challenge", description);
+            rateLimiter.refund(EndpointClass.of(method, path));
+            return handleVerification(scan, context).thenCompose(verified -> {
+                if (!verified) {
+                    return CompletableFuture.failedFuture(apiError(e));
+                }
+                log.info("🔄 Retrying {} after verification...", description);
+                return action.get();
+            });
+        }).thenCompose(next -> next);
     }
 
-    private boolean isVerificationRequired(String body) {
-        if (body == null || body.isEmpty())
-            return false;
-        try {
-            JsonObject obj = gson.fromJson(body, JsonObject.class);
-            return (obj.has("verification_required") && obj.get("verification_required").getAsBoolean())
-                    || obj.has("verification");
-        } catch (Exception e) {
-            return body.contains("verification_required");
+    private static Throwable apiError(Throwable e) {
+        if (e instanceof RuntimeException || e instanceof Error) {
+            return e;
         }
+        return new RuntimeException("Moltbook API error: " + e.getMessage(), e);
     }
 
-    private boolean handleVerification(String jsonResponse) {
+    private CompletableFuture<Boolean> handleVerification(VerificationScan scan, CallContext context) {
         if (challengeSolver == null) {
             log.warn("No ChallengeSolver configured in MoltbookClient - cannot solve verification challenge");
-            return false;
+            return CompletableFuture.completedFuture(false);
+        }
+        if (!scan.hasChallenge())
+            return CompletableFuture.completedFuture(false);
+
+        String challenge = scan.getChallenge();
+        return CompletableFuture.supplyAsync(() -> {
+                    try {
+                        return challengeSolver.solve(challenge);
+                    } catch (Exception e) {
+                        throw new CompletionException(e);
+                    }
+                }, context)
+                // Sent directly: a verify response never carries a new challenge,
+                // so it only needs the one scan below
+                .thenCompose(answer -> send(authRequest("/verify").post(jsonBody(verifyBody(scan.getCode(), answer)))
+                        .build(), context)
+                        .thenApply(verifyResponse -> {
+                            boolean success = VerificationScan.of(verifyResponse).isSuccess();
+
+                            activityService.trackAction(
+                                    success ? "INLINE_VERIFY_SUCCESS" : "INLINE_VERIFY_FAILED",
+                                    "Challenge: " + challenge + "\nAnswer: " + answer,
+                                    verifyResponse,
+                                    success);
+
+                            return success;
+                        }))
+                .exceptionally(e -> {
+                    log.error("Verification handling failed", CallContext.unwrap(e));
+                    return false;
+                });
+    }
+
+    private String extractErrorBody(Throwable e) {
+        if (e instanceof MoltbookApiException) {
+            return ((MoltbookApiException) e).getResponseBody();
         }
+        if (e.getCause() instanceof MoltbookApiException) {
+            return ((MoltbookApiException) e.getCause()).getResponseBody();
+        }
+        return null;
+    }
 
-        try {
-            JsonObject response = gson.fromJson(jsonResponse, JsonObject.class);
-            JsonObject verification = response.has("verification") ? response.getAsJsonObject("verification") : null;
+    public void setChallengeSolver(ChallengeSolver challengeSolver) {
+        this.challengeSolver = challengeSolver;
+    }
 
-            if (verification == null)
-                return false;
+    private CompletableFuture<String> delete(String path, CallContext context) {
+        return reportFailure(send(authRequest(path).delete().build(), context), "DELETE", path);
+    }
 
-            String code = verification.get("code").getAsString();
-            String challenge = verification.get("challenge").getAsString();
+    /**
+     * Log a failed read or delete and report it as a RuntimeException
+     */
+    private <T> CompletableFuture<T> reportFailure(CompletableFuture<T> call, String method, String path) {
+        return call.handle((value, error) -> {
+            if (error == null) {
+                return CompletableFuture.completedFuture(value);
+            }
+            Throwable e = CallContext.unwrap(error);
+            if (e instanceof Error) {
+                return CompletableFuture.<T>failedFuture(e);
+            }
+            log.error("{} request failed: {}", method, path, e);
+            return CompletableFuture.<T>failedFuture(
+                    new RuntimeException("Moltbook API request failed: " + e.getMessage(), e));
+        }).thenCompose(result -> result);
+    }
 
-            String answer = challengeSolver.solve(challenge);
-            String verifyResponse = verifyPost(code, answer);
+    /**
+     * GET through the response cache: served from memory within the TTL (if
+     * one is set), otherwise revalidated with the stored ETag/Last-Modified
+     */
+    private CompletableFuture<String> cachedGet(String path, CallContext context) {
+        Request plain = authRequest(path).get().build();
+        if (responseCache == null) {
+            return send(plain, context);
+        }
+        String fresh = responseCache.fresh(path);
+        if (fresh != null) {
+            return CompletableFuture.completedFuture(fresh);
+        }
+        AtomicBoolean evicted = new AtomicBoolean();
+        return exchange(responseCache.conditional(path, plain), request -> {
+            TransportResponse response = transport.execute(request);
+            if (response.getCode() == 304) {
+                String cached = responseCache.notModified(path);
+                evicted.set(cached == null);
+                return cached;
+            }
+            return store(path, response);
+        }, context).thenCompose(body -> evicted.get()
+                // 304 for an entry evicted meanwhile: fetch it in full as a call of its own
+                ? exchange(plain, request -> store(path, transport.execute(request)), context)
+                : CompletableFuture.completedFuture(body));
+    }
 
-            JsonObject verifyObj = gson.fromJson(verifyResponse, JsonObject.class);
-            boolean success = verifyObj.has("success") && verifyObj.get("success").getAsBoolean();
+    private String store(String path, TransportResponse response) {
+        if (!response.isSuccessful()) {
+            throw new MoltbookApiException(response);
+        }
+        responseCache.store(path, response.getHeaders(), response.getBody());
+        return response.getBody();
+    }
 
-            activityService.trackAction(
-                    success ? "INLINE_VERIFY_SUCCESS" : "INLINE_VERIFY_FAILED",
-                    "Challenge: " + challenge + "\nAnswer: " + answer,
-                    verifyResponse,
-                    success);
+    private <T> T streamAndStore(String path, Request request, MoltbookTransport.BodyReader<T> reader)
+            throws IOException {
+        return transport.streamWithHeaders(request, (headers, body) -> {
+            ResponseCache.CapturingReader capture = responseCache.capture(body);
+            T result = reader.read(capture);
+            responseCache.store(path, headers, capture.finish());
+            return result;
+        });
+    }
 
-            return success;
-        } catch (Exception e) {
-            log.error("Verification handling failed", e);
-            return false;
-        }
+    /**
+     * Execute through the shared transport, turning non-2xx responses into
+     * MoltbookApiException
+     */
+    private String send(Request request) {
+        return await(context -> send(request, context));
     }
 
-    private String extractErrorBody(Exception e) {
-        if (e instanceof HttpClientErrorException) {
-            return ((HttpClientErrorException) e).getResponseBodyAsString();
-        }
-        if (e.getCause() instanceof HttpClientErrorException) {
-            return ((HttpClientErrorException) e.getCause()).getResponseBodyAsString();
-        }
-        return null;
+    private CompletableFuture<String> send(Request request, CallContext context) {
+        return exchange(request, r -> {
+            TransportResponse response = transport.execute(r);
+            if (!response.isSuccessful()) {
+                throw new MoltbookApiException(response);
+            }
+            return response.getBody();
+        }, context);
     }
 
-    public void setChallengeSolver(ChallengeSolver challengeSolver) {
-        this.challengeSolver = challengeSolver;
+    /**
+     * Run one logical call: circuit check, rate limit, then the exchange,
+     * retrying idempotent requests on I/O errors, 5xx, 408 and 429 (see
+     * {@link RetryPolicy#isRetryable}) with jittered backoff. The rate limit
+     * wait and the backoffs are scheduled on the context, so no thread sleeps
+     * through them.
+     */
+    private <T> CompletableFuture<T> exchange(Request request, Exchange<T> exchange, CallContext context) {
+        ExchangeCall<T> call = new ExchangeCall<>(request, exchange, context);
+        call.attempt(1);
+        return call.result;
     }
 
-    private void delete(String path) {
-        HttpHeaders headers = authHeaders();
-        HttpEntity<?> entity = new HttpEntity<>(headers);
+    /**
+     * State of one logical call across its attempts
+     */
+    private final class ExchangeCall<T> {
+        final Request request;
+        final Exchange<T> exchange;
+        final CallContext context;
+        final String method;
+        final String path;
+        final EndpointClass endpoint;
+        final CircuitBreaker breaker;
+        final int attempts;
+        final CompletableFuture<T> result = new CompletableFuture<>();
+
+        ExchangeCall(Request request, Exchange<T> exchange, CallContext context) {
+            this.request = context.tag(request);
+            this.exchange = exchange;
+            this.context = context;
+            this.method = request.method();
+            this.path = relativePath(request);
+            this.endpoint = EndpointClass.of(method, path);
+            this.breaker = circuitBreaker(method, path);
+            this.attempts = retryPolicy.attemptsFor(method);
+        }
 
-        try {
-            restTemplate.exchange(
-                    BASE_URL + path,
-                    HttpMethod.DELETE,
-                    entity,
-                    Void.class);
-        } catch (Exception e) {
-            log.error("DELETE request failed: {}", path, e);
-            throw new RuntimeException("Moltbook API request failed: " + e.getMessage(), e);
+        void attempt(int attempt) {
+            if (context.isCancelled()) {
+                result.completeExceptionally(cancelled());
+                return;
+            }
+            Duration wait;
+            try {
+                breaker.checkPermission();
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+                return;
+            }
+            try {
+                wait = rateLimiter.reserve(endpoint);
+            } catch (RuntimeException e) {
+                breaker.onNotSent();
+                result.completeExceptionally(e);
+                return;
+            }
+            if (!wait.isZero()) {
+                log.debug("⏳ {} {} waits {}ms for the {} rate limit", method, path, wait.toMillis(), endpoint);
+            }
+            context.schedule(wait, () -> send(attempt));
+        }
+
+        private void send(int attempt) {
+            if (context.isCancelled()) {
+                breaker.onNotSent();
+                result.completeExceptionally(cancelled());
+                return;
+            }
+            RuntimeException failure;
+            try {
+                T value = exchange.run(request);
+                breaker.onSuccess();
+                if (!"GET".equals(method)) {
+                    // A write may change what any read returns
+                    singleFlight.invalidate();
+                    if (responseCache != null) {
+                        responseCache.clear();
+                    }
+                }
+                result.complete(value);
+                return;
+            } catch (MoltbookApiException e) {
+                if (e.getStatusCode() == 429) {
+                    rateLimiter.onRateLimited(endpoint, e);
+                }
+                if (e.isServerError()) {
+                    breaker.onFailure();
+                } else {
+                    breaker.onSuccess(); // the server answered
+                }
+                if (!retryPolicy.isRetryable(e)) {
+                    result.completeExceptionally(e);
+                    return;
+                }
+                failure = e;
+            } catch (IOException | UncheckedIOException e) {
+                if (context.isCancelled()) {
+                    // aborted by the caller, says nothing about the endpoint
+                    breaker.onNotSent();
+                    result.completeExceptionally(cancelled());
+                    return;
+                }
+                // body readers report I/O errors part way through as UncheckedIOException
+                IOException cause = e instanceof UncheckedIOException unchecked ? unchecked.getCause() : (IOException) e;
+                breaker.onFailure();
+                failure = new UncheckedIOException(
+                        "I/O error on " + method + " " + path + ": " + cause.getMessage(), cause);
+            } catch (RuntimeException | Error e) {
+                // e.g. a body reader or cache bug: never leave a half-open trial in flight
+                breaker.onFailure();
+                result.completeExceptionally(e);
+                return;
+            }
+
+            if (attempt >= attempts) {
+                result.completeExceptionally(failure);
+                return;
+            }
+            Duration backoff = retryPolicy.backoff(attempt);
+            log.warn("🔁 {} {} failed ({}) - retry {}/{} in {}ms",
+                    method, path, failure.getMessage(), attempt, attempts - 1, backoff.toMillis());
+            context.schedule(backoff, () -> attempt(attempt + 1));
+        }
+
+        private CancellationException cancelled() {
+            return new CancellationException(method + " " + path + " cancelled");
         }
     }
 
-    private HttpHeaders authHeaders() {
-        HttpHeaders headers = new HttpHeaders();
-        if (apiKey != null && !apiKey.isEmpty()) {
-            headers.setBearerAuth(apiKey);
+    private String relativePath(Request request) {
+        String path = request.url().encodedPath();
+        if (!basePath.isEmpty() && path.startsWith(basePath)) {
+            path = path.substring(basePath.length());
         }
-        headers.setContentType(MediaType.APPLICATION_JSON);
-        return headers;
+        return path;
+    }
+
+    private CircuitBreaker circuitBreaker(String method, String path) {
+        return circuitBreakers.computeIfAbsent(CircuitBreaker.endpointKey(method, path),
+                key -> new CircuitBreaker(key, resilienceConfig.getFailureThreshold(),
+                        Duration.ofSeconds(resilienceConfig.getOpenSeconds())));
+    }
+
+    @FunctionalInterface
+    private interface Exchange<T> {
+        T run(Request request) throws IOException;
+    }
+
+    private Request.Builder authRequest(String path) {
+        return transport.newRequest(path, apiKey);
+    }
+
+    private RequestBody jsonBody(String body) {
+        return RequestBody.create(body != null ? body : "", JSON);
     }
 
     private String escapeJson(String value) {
@@ -404,6 +867,10 @@ public class MoltbookClient {
      */
     public void setApiKey(String apiKey) {
         this.apiKey = apiKey;
+        singleFlight.invalidate();
+        if (responseCache != null) {
+            responseCache.clear();
+        }
         log.info("✓ API key updated");
     }
 
@@ -413,4 +880,57 @@ public class MoltbookClient {
     public boolean hasApiKey() {
         return apiKey != null && !apiKey.isEmpty();
     }
+
+    /**
+     * Connection pool usage of the underlying transport
+     */
+    public PoolMetrics getPoolMetrics() {
+        return transport.getPoolMetrics();
+    }
+
+    /**
+     * Circuit state of an endpoint, e.g. ("GET", "/feed"). Endpoints that
+     * were never called are CLOSED.
+     */
+    public CircuitBreaker.State getCircuitState(String method, String path) {
+        CircuitBreaker breaker = circuitBreakers.get(CircuitBreaker.endpointKey(method, path));
+        return breaker != null ? breaker.getState() : CircuitBreaker.State.CLOSED;
+    }
+
+    /**
+     * True while calls to the endpoint would fail fast
+     */
+    public boolean isCircuitOpen(String method, String path) {
+        return getCircuitState(method, path) == CircuitBreaker.State.OPEN;
+    }
+
+    /**
+     * State of every endpoint called so far, by endpoint key
+     */
+    public Map<String, CircuitBreaker.State> getCircuitStates() {
+        Map<String, CircuitBreaker.State> states = new TreeMap<>();
+        circuitBreakers.forEach((key, breaker) -> states.put(key, breaker.getState()));
+        return states;
+    }
+
+    /**
+     * Conditional GET cache with hit/miss counters, or null when disabled
+     */
+    public ResponseCache getResponseCache() {
+        return responseCache;
+    }
+
+    /**
+     * Coalescing counters for GET requests
+     */
+    public SingleFlight getSingleFlight() {
+        return singleFlight;
+    }
+
+    /**
+     * Rate limiter shared by every request of this client
+     */
+    public RateLimiter getRateLimiter() {
+        return rateLimiter;
+    }
 }
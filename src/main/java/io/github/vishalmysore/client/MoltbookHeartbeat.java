@@ -7,18 +7,41 @@ import com.t4a.processor.AIProcessor;
 import com.t4a.processor.scripts.ScriptProcessor;
 import com.t4a.transform.PromptTransformer;
 import io.github.vishalmysore.analyzer.FeedAnalyzer;
+import io.github.vishalmysore.config.MoltbookConfig;
 import io.github.vishalmysore.model.FeedItem;
 import io.github.vishalmysore.service.ActivityTrackingService;
+import io.github.vishalmysore.service.MoltbookService;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.nio.file.Path;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.web.client.HttpClientErrorException;
+import io.github.vishalmysore.transport.EndpointClass;
+import io.github.vishalmysore.transport.MoltbookApiException;
 import com.google.gson.Gson;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonArray;
@@ -39,18 +62,45 @@ import com.google.gson.JsonElement;
 @Slf4j
 public class MoltbookHeartbeat {
 
+    private static final String SEARCH_QUERY = "discussions and questions about agent services";
+
     private final MoltbookClient moltbookClient;
+    private final MoltbookService actionService;
+    private final MoltbookAsyncClient asyncClient;
+    private final boolean ownsAsyncClient;
     private final FeedAnalyzer feedAnalyzer;
     private final ActivityTrackingService activityTrackingService;
-
+    private final SeenPostTracker seenPosts;
+    private final FeedHighWaterMark highWaterMark;
+    private final boolean incrementalFeed;
+    private final int feedPageSize;
+    private final int feedInitialItems;
+    private final int feedMaxItems;
+    private volatile boolean feedNeedsSubscriptions = false;
+    private final int pipelineQueueCapacity;
+    private final int classifyWorkers;
+    private final Duration classifyBatchWait;
+    private final int decideWorkers;
+    private final int actWorkers;
+    private final Duration pipelineTimeout;
+    private final ExecutorService itemExecutor;
+    private final boolean ownsItemExecutor;
+    private final Duration budgetLimit;
+    private final Duration verifyReserve;
+    private final int maxDeferredItems;
+    private final Deque<FeedItem> deferredItems = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger deferredItemCount = new AtomicInteger();
+    private final LongAdder budgetExceeded = new LongAdder();
+    private final Map<String, LongAdder> deferredCounts = new ConcurrentHashMap<>();
+
+    private final AdaptiveInterval interval;
+    private volatile Instant nextRunAt = Instant.now();
     private Instant lastCheck;
+    private Instant lastFeedPullAt;
+    private int lastSkippedSeenCount = 0;
     private int semanticSearchResultCount = 0;
-    private Instant lastPostTime = null;
-    private Instant lastCommentTime = null;
-    private int postCooldownMinutes = 120; // 2 hours for new agents
-    private int commentCooldownSeconds = 20;
 
-    private AIProcessor processor;
+    private final AIProcessor processor;
     private PromptTransformer promptTransformer;
     private final String capabilityPrompt;
     private HumanInLoop humanInLoop;
@@ -59,15 +109,81 @@ public class MoltbookHeartbeat {
     public MoltbookHeartbeat(MoltbookClient moltbookClient,
             FeedAnalyzer feedAnalyzer,
             ActivityTrackingService activityTrackingService, HumanInLoop humanInLoop) {
+        this(moltbookClient, new MoltbookAsyncClient(moltbookClient, new MoltbookConfig()), true, feedAnalyzer,
+                activityTrackingService, humanInLoop, new MoltbookConfig(), null, null);
+    }
+
+    @Autowired
+    public MoltbookHeartbeat(MoltbookClient moltbookClient,
+            MoltbookAsyncClient asyncClient,
+            FeedAnalyzer feedAnalyzer,
+            ActivityTrackingService activityTrackingService, HumanInLoop humanInLoop,
+            MoltbookConfig config) {
+        this(moltbookClient, asyncClient, feedAnalyzer, activityTrackingService, humanInLoop, config, null, null);
+    }
+
+    /**
+     * Heartbeat of one agent in a multi-agent runtime
+     *
+     * @param stateDir     directory for this agent's seen-set and feed mark
+     *                     files, null = paths as configured
+     * @param itemExecutor shared executor for the item pipeline, null = own one
+     */
+    public MoltbookHeartbeat(MoltbookClient moltbookClient,
+            MoltbookAsyncClient asyncClient,
+            FeedAnalyzer feedAnalyzer,
+            ActivityTrackingService activityTrackingService, HumanInLoop humanInLoop,
+            MoltbookConfig config, Path stateDir, ExecutorService itemExecutor) {
+        this(moltbookClient, asyncClient, false, feedAnalyzer, activityTrackingService, humanInLoop, config,
+                stateDir, itemExecutor);
+    }
+
+    private MoltbookHeartbeat(MoltbookClient moltbookClient,
+            MoltbookAsyncClient asyncClient, boolean ownsAsyncClient,
+            FeedAnalyzer feedAnalyzer,
+            ActivityTrackingService activityTrackingService, HumanInLoop humanInLoop,
+            MoltbookConfig config, Path stateDir, ExecutorService itemExecutor) {
         this.moltbookClient = moltbookClient;
+        this.actionService = new MoltbookService(config, moltbookClient);
+        this.asyncClient = asyncClient;
+        this.ownsAsyncClient = ownsAsyncClient;
+        MoltbookConfig.Heartbeat heartbeatConfig = config.getHeartbeat();
+        this.seenPosts = new SeenPostTracker(
+                heartbeatConfig.getSeenRecentWindow(),
+                heartbeatConfig.getSeenFilterCapacity(),
+                heartbeatConfig.getSeenFilterFalsePositiveRate(),
+                statePath(heartbeatConfig.getSeenFile(), stateDir));
+        this.incrementalFeed = heartbeatConfig.isIncrementalFeed();
+        this.feedPageSize = heartbeatConfig.getFeedPageSize();
+        this.feedInitialItems = heartbeatConfig.getFeedInitialItems();
+        this.feedMaxItems = heartbeatConfig.getFeedMaxItems();
+        this.highWaterMark = new FeedHighWaterMark(statePath(heartbeatConfig.getFeedMarkFile(), stateDir));
+        this.pipelineQueueCapacity = heartbeatConfig.getPipelineQueueCapacity();
+        this.classifyWorkers = Math.max(1, heartbeatConfig.getClassifyWorkers());
+        this.classifyBatchWait = Duration.ofMillis(heartbeatConfig.getClassifyBatchWaitMillis());
+        this.decideWorkers = Math.max(1, heartbeatConfig.getDecideWorkers());
+        this.actWorkers = Math.max(1, heartbeatConfig.getActWorkers());
+        this.pipelineTimeout = Duration.ofSeconds(heartbeatConfig.getPipelineTimeoutSeconds());
+        this.interval = new AdaptiveInterval(heartbeatConfig.getInterval());
+        this.budgetLimit = Duration.ofSeconds(Math.max(0, heartbeatConfig.getBudgetSeconds()));
+        this.verifyReserve = Duration.ofSeconds(Math.max(0, heartbeatConfig.getVerifyReserveSeconds()));
+        this.maxDeferredItems = Math.max(0, heartbeatConfig.getMaxDeferredItems());
+        this.ownsItemExecutor = itemExecutor == null;
+        this.itemExecutor = itemExecutor != null
+                ? itemExecutor
+                : newItemExecutor(1 + classifyWorkers + decideWorkers + actWorkers,
+                        heartbeatConfig.isVirtualThreads());
         this.feedAnalyzer = feedAnalyzer;
         this.activityTrackingService = activityTrackingService;
         this.processor = PredictionLoader.getInstance().createOrGetAIProcessor();
         this.humanInLoop = humanInLoop;
         this.promptTransformer = PredictionLoader.getInstance().createOrGetPromptTransformer();
 
-        // Configure MoltbookClient with this heartbeat as the challenge solver
-        this.moltbookClient.setChallengeSolver(this::solveVerificationChallenge);
+        // Configure MoltbookClient with this heartbeat's AI as the challenge
+        // solver; the lambda captures only the processor, not the heartbeat
+        // under construction
+        AIProcessor solver = this.processor;
+        this.moltbookClient.setChallengeSolver(challenge -> solveChallenge(solver, challenge));
 
         mySkills = feedAnalyzer.getSkills();
 
@@ -83,22 +199,48 @@ public class MoltbookHeartbeat {
     }
 
     /**
-     * Heartbeat runs every 5 minutes
-     * This is the main "pull" loop - starts immediately on app startup
+     * Checks every few seconds whether the next heartbeat is due; the
+     * interval itself adapts to the feed (see AdaptiveInterval).
+     * Starts immediately on app startup.
+     */
+    @Scheduled(fixedDelayString = "${moltbook.heartbeat.interval.tick-seconds:15}", initialDelay = 0,
+            timeUnit = TimeUnit.SECONDS)
+    public void tick() {
+        if (!moltbookClient.hasApiKey()) {
+            return; // e.g. only hosted agents configured, each with its own heartbeat
+        }
+        if (!Instant.now().isBefore(nextRunAt)) {
+            runHeartbeat();
+        }
+    }
+
+    /**
+     * This is the main "pull" loop
      */
-    @Scheduled(fixedDelay = 5 * 60 * 1000, initialDelay = 0)
     public void runHeartbeat() {
         log.info("🦞 Moltbook heartbeat starting...");
 
         // Double-check protection
         if (lastCheck != null &&
-                Duration.between(lastCheck, Instant.now()).toMinutes() < 5) {
+                Duration.between(lastCheck, Instant.now()).compareTo(interval.getMin()) < 0) {
             log.debug("Heartbeat ran recently, skipping");
             return;
         }
 
+        // Never plan past the next heartbeat; pending-post verification keeps
+        // a reserve that the feed and the optional stages cannot use up
+        HeartbeatBudget budget = HeartbeatBudget.of(budgetLimit.isZero()
+                ? budgetLimit
+                : min(budgetLimit, interval.getCurrent()));
+        HeartbeatBudget feedBudget = budget.withReserve(verifyReserve);
+
         try {
             // 1️⃣ Check if we're claimed
+            if (moltbookClient.isCircuitOpen("GET", "/agents/status")) {
+                log.warn("🔴 Moltbook API unavailable (status circuit open) - skipping heartbeat");
+                lastCheck = Instant.now();
+                return;
+            }
             String statusResponse = moltbookClient.getAgentStatus();
             log.info("Agent status: {}", statusResponse);
 
@@ -115,43 +257,52 @@ public class MoltbookHeartbeat {
                 return;
             }
 
-            // 2️⃣ Pull feed (50 items) - fallback to posts if feed fails
+            // 2️⃣ Pull the feed: only items newer than the high-water mark in
+            // incremental mode, otherwise the newest 50 - fallback to posts if feed fails.
+            // Semantic search and profile (pending posts) don't depend on the feed,
+            // so they are fetched in parallel and only joined when needed.
+            // Stages whose endpoint circuit is open are skipped rather than failed.
             log.info("📥 Pulling feed...");
-            String feedJson;
-            try {
-                feedJson = moltbookClient.getFeed(50);
-            } catch (RuntimeException e) {
-                if (e.getMessage().contains("401") || e.getMessage().contains("Authentication required")) {
-                    log.warn("Feed endpoint requires subscriptions - using global posts instead");
-                    feedJson = moltbookClient.getPosts("new", 50);
-                } else {
-                    throw e;
-                }
-            }
-            List<FeedItem> feed = feedAnalyzer.parseFeed(feedJson);
-            log.info("Retrieved {} items from feed", feed.size());
-
-            // 3️⃣ Analyze for relevant content based on agent capabilities
-            List<FeedItem> relevantItems = feedAnalyzer.findRelevantItems(feed);
-            log.info("🔍 Found {} relevant items", relevantItems.size());
-
-            // 4️⃣ Process relevant items
-            for (FeedItem item : relevantItems) {
-                processRelevantItem(item);
-            }
+            CompletableFuture<List<FeedItem>> feedRequest = incrementalFeed ? null : startFeedRequest();
+            CompletableFuture<List<FeedItem>> searchRequest = moltbookClient.isCircuitOpen("GET", "/search")
+                    ? null
+                    : asyncClient.semanticSearch(SEARCH_QUERY, "posts", 10, feedAnalyzer::parseFeed);
+            CompletableFuture<String> profileRequest = moltbookClient.isCircuitOpen("GET", "/agents/me")
+                    ? null
+                    : asyncClient.getProfile();
+
+            // 3️⃣ Items flow through prefilter -> classify -> decide -> act as
+            // soon as they are parsed, so the first action does not wait for the
+            // whole feed to be pulled and classified
+            processFeed(feedRequest, feedBudget, budget);
 
             // 5️⃣ Optional: Semantic search for relevant discussions
-            searchForRelevantDiscussions();
+            boolean searched = false;
+            if (searchRequest == null) {
+                log.warn("🔴 Search circuit open - skipping semantic search");
+            } else if (feedBudget.isExpired()) {
+                feedBudget.defer("search", 1);
+            } else {
+                searched = searchForRelevantDiscussions(searchRequest, feedBudget);
+            }
 
             // 6️⃣ Check for pending posts that need verification
-            checkPendingPosts();
+            if (profileRequest != null) {
+                checkPendingPosts(profileRequest, budget);
+            } else {
+                log.warn("🔴 Profile circuit open - skipping pending post check");
+            }
 
             // 7️⃣ Post about capabilities if no relevant discussions found via semantic
             // search
             // This ensures we promote our services even when feed has false positives
-            if (semanticSearchResultCount == 0) {
-                log.info("💡 No relevant discussions found via semantic search - posting about capabilities");
-                postAboutCapabilities();
+            if (searched && semanticSearchResultCount == 0) {
+                if (feedBudget.isExpired()) {
+                    feedBudget.defer("capability-post", 1);
+                } else {
+                    log.info("💡 No relevant discussions found via semantic search - posting about capabilities");
+                    postAboutCapabilities();
+                }
             }
 
             lastCheck = Instant.now();
@@ -160,19 +311,351 @@ public class MoltbookHeartbeat {
         } catch (Exception e) {
             log.error("❌ Heartbeat failed", e);
             lastCheck = Instant.now(); // Still update to avoid spam
+        } finally {
+            seenPosts.save();
+            highWaterMark.save();
+            recordBudget(budget);
+            nextRunAt = Instant.now().plus(interval.getCurrent());
+        }
+    }
+
+    private void recordBudget(HeartbeatBudget budget) {
+        Map<String, Integer> deferred = budget.getDeferred();
+        deferred.forEach((kind, count) -> deferredCounts.computeIfAbsent(kind, k -> new LongAdder()).add(count));
+        if (budget.wasExceeded()) {
+            budgetExceeded.increment();
+            log.warn("⏱️ Heartbeat budget used up - deferred to next heartbeat: {}", deferred);
         }
     }
 
+    private static Duration min(Duration a, Duration b) {
+        return a.compareTo(b) <= 0 ? a : b;
+    }
+
     /**
-     * Process a relevant feed item based on agent capabilities
-     * This is where Tools4AI comes in!
+     * Move the next heartbeat, e.g. to stagger agents sharing a process
+     */
+    public void delayNextRun(Duration delay) {
+        nextRunAt = Instant.now().plus(delay);
+    }
+
+    public Duration getCurrentInterval() {
+        return interval.getCurrent();
+    }
+
+    /**
+     * Why the heartbeat interval has its current value
+     */
+    public String getIntervalReason() {
+        return interval.getReason();
+    }
+
+    public Instant getNextRunAt() {
+        return nextRunAt;
+    }
+
+    /**
+     * Heartbeats that ran out of their time budget
+     */
+    public long getBudgetExceededCount() {
+        return budgetExceeded.sum();
+    }
+
+    /**
+     * Work deferred to a later heartbeat, per kind (submit, classify, decide,
+     * act, search, verify, capability-post; feed-pages = paging stopped at the
+     * budget; dropped = deferred items discarded)
+     */
+    public Map<String, Long> getDeferredCounts() {
+        Map<String, Long> counts = new TreeMap<>();
+        deferredCounts.forEach((kind, count) -> counts.put(kind, count.sum()));
+        return counts;
+    }
+
+    /**
+     * Feed items waiting for the next heartbeat
+     */
+    public int getDeferredBacklog() {
+        return deferredItemCount.get();
+    }
+
+    /**
+     * Run the feed through the staged item pipeline. Fetching and parsing
+     * stay fused as its source, since items are parsed straight off the
+     * response stream.
+     */
+    private void processFeed(CompletableFuture<List<FeedItem>> feedRequest, HeartbeatBudget feedBudget,
+            HeartbeatBudget budget) throws InterruptedException {
+        AtomicInteger skippedSeen = new AtomicInteger();
+        AtomicInteger relevantCount = new AtomicInteger();
+        // Items that reached an outcome; deferred, failed or still running
+        // items are missing and hold back the feed mark
+        Set<String> finishedIds = ConcurrentHashMap.newKeySet();
+        Consumer<FeedItem> finish = item -> {
+            seenPosts.markSeen(item.getId());
+            if (item.getId() != null) {
+                finishedIds.add(item.getId());
+            }
+        };
+        StagedPipeline<FeedItem> pipeline = StagedPipeline
+                .<FeedItem>builder("heartbeat", itemExecutor, pipelineQueueCapacity)
+                .stage("prefilter", 1, (FeedItem item, Consumer<FeedItem> emit) -> {
+                    if (seenPosts.hasSeen(item.getId())) {
+                        skippedSeen.incrementAndGet();
+                        if (item.getId() != null) {
+                            finishedIds.add(item.getId());
+                        }
+                    } else if (feedAnalyzer.passesPrefilter(item)) {
+                        emit.accept(item);
+                    } else {
+                        finish.accept(item);
+                    }
+                })
+                .batchStage("classify", classifyWorkers, feedAnalyzer.getBatchSize(), classifyBatchWait,
+                        (List<FeedItem> batch, Consumer<FeedItem> emit) -> {
+                            if (feedBudget.isExpired()) {
+                                batch.forEach(item -> defer(item, "classify", feedBudget));
+                                return;
+                            }
+                            List<FeedItem> relevant = feedAnalyzer.classifyCandidates(batch);
+                            for (FeedItem item : batch) {
+                                if (relevant.contains(item)) {
+                                    relevantCount.incrementAndGet();
+                                    emit.accept(item);
+                                } else {
+                                    finish.accept(item);
+                                }
+                            }
+                        })
+                .stage("decide", decideWorkers, (FeedItem item, Consumer<ItemDecision> emit) -> {
+                    if (feedBudget.isExpired()) {
+                        defer(item, "decide", feedBudget);
+                        return;
+                    }
+                    ItemDecision decision = decide(item);
+                    if (decision != null) {
+                        emit.accept(decision);
+                    } else {
+                        finish.accept(item);
+                    }
+                })
+                .stage("act", actWorkers, (ItemDecision decision, Consumer<Void> emit) -> {
+                    if (feedBudget.isExpired()) {
+                        defer(decision.item, "act", feedBudget);
+                        return;
+                    }
+                    act(decision);
+                    finish.accept(decision.item);
+                })
+                .start();
+
+        // A deferred item can be pulled again with the feed; it must only be
+        // worked on once, since it is marked seen only after acting. Items
+        // that find the pipeline full until the feed budget runs out are
+        // deferred rather than holding the feed loop past its deadline.
+        Set<String> submittedIds = ConcurrentHashMap.newKeySet();
+        Consumer<FeedItem> submit = item -> {
+            if ((item.getId() == null || submittedIds.add(item.getId()))
+                    && !pipeline.offer(item, feedBudget.remaining())) {
+                defer(item, "submit", feedBudget);
+            }
+        };
+        List<FeedItem> feed;
+        try {
+            // Items deferred by the previous heartbeat go first; taken out
+            // before submitting, as they may be deferred again
+            List<FeedItem> carriedOver = new ArrayList<>();
+            for (FeedItem item = deferredItems.pollFirst(); item != null; item = deferredItems.pollFirst()) {
+                deferredItemCount.decrementAndGet();
+                carriedOver.add(item);
+            }
+            carriedOver.forEach(submit);
+            feed = incrementalFeed ? pullNewFeedItems(submit, feedBudget) : submitAll(await(feedRequest), submit);
+        } finally {
+            pipeline.complete();
+        }
+        log.info("Retrieved {} items from feed", feed.size());
+        // Once the feed budget is gone the stages only defer, so the wait
+        // covers the calls still in flight
+        Duration wait = min(pipelineTimeout, budget.remaining());
+        boolean drained = pipeline.await(wait);
+        if (!drained) {
+            log.warn("⏱️ Item pipeline still busy after {} ms - continuing heartbeat", wait.toMillis());
+        }
+        feedAnalyzer.saveDecisionCache();
+
+        lastSkippedSeenCount = skippedSeen.get();
+        if (lastSkippedSeenCount > 0) {
+            log.info("⏭️ Skipped {} already-seen items", lastSkippedSeenCount);
+        }
+        for (StagedPipeline.StageStats stats : pipeline.getStats()) {
+            log.info("🔗 Stage {} ({} workers): {} in, {} out, {} failed, first done after {} ms",
+                    stats.getName(), stats.getWorkers(), stats.getReceived(), stats.getEmitted(),
+                    stats.getFailed(), stats.getFirstItemMillis());
+        }
+        // Pages left unread for lack of budget hold items older than the ones
+        // pulled, which the mark must not pass over
+        boolean pagesLeft = feedBudget.getDeferred().containsKey("feed-pages");
+        if (incrementalFeed && drained && !pagesLeft) {
+            highWaterMark.advanceFinished(feed,
+                    item -> item.getId() == null || finishedIds.contains(item.getId()));
+        } else if (incrementalFeed) {
+            log.info("📌 Feed mark kept at {} until the {} finish", highWaterMark.getLatest(),
+                    pagesLeft ? "remaining feed pages" : "busy items");
+        }
+        // Items seen before (possible without incremental pull) are not new
+        updateInterval(feed.size() - lastSkippedSeenCount, relevantCount.get());
+    }
+
+    private void updateInterval(int newItems, int relevantItems) {
+        Instant now = Instant.now();
+        Duration sincePrevious = lastFeedPullAt == null ? null : Duration.between(lastFeedPullAt, now);
+        lastFeedPullAt = now;
+        Duration next = interval.update(newItems, sincePrevious, relevantItems,
+                moltbookClient.getRateLimiter().remainingBudget(EndpointClass.READ));
+        log.info("⏲️ Next heartbeat in {} min ({})", next.toMinutes(), interval.getReason());
+    }
+
+    /**
+     * Hand an item to the next heartbeat instead of working on it now; the
+     * oldest deferred items are dropped beyond maxDeferredItems. Deferred
+     * items also hold back the feed mark, so with an incremental feed a
+     * dropped item is still pulled again.
+     */
+    private void defer(FeedItem item, String stage, HeartbeatBudget budget) {
+        budget.defer(stage, 1);
+        deferredItems.addLast(item);
+        if (deferredItemCount.incrementAndGet() > maxDeferredItems) {
+            if (deferredItems.pollFirst() != null) {
+                budget.defer("dropped", 1);
+            }
+            deferredItemCount.decrementAndGet();
+        }
+    }
+
+    private static List<FeedItem> submitAll(List<FeedItem> feed, Consumer<FeedItem> submit) {
+        feed.forEach(submit);
+        return feed;
+    }
+
+    /**
+     * Newest 50 items from /feed, or /posts when the feed needs subscriptions
+     * or its circuit is open
+     */
+    private CompletableFuture<List<FeedItem>> startFeedRequest() {
+        if (!moltbookClient.isCircuitOpen("GET", "/feed")) {
+            return asyncClient.getFeed(50, feedAnalyzer::parseFeed)
+                    .exceptionallyCompose(error -> {
+                        Throwable e = unwrap(error);
+                        if (isAuthError(e)) {
+                            log.warn("Feed endpoint requires subscriptions - using global posts instead");
+                            return asyncClient.getPosts("new", 50, feedAnalyzer::parseFeed);
+                        }
+                        return CompletableFuture.failedFuture(e);
+                    });
+        }
+        if (!moltbookClient.isCircuitOpen("GET", "/posts")) {
+            log.warn("🔴 Feed circuit open - using global posts instead");
+            return asyncClient.getPosts("new", 50, feedAnalyzer::parseFeed);
+        }
+        log.warn("🔴 Feed and posts circuits open - skipping feed processing");
+        return CompletableFuture.completedFuture(List.of());
+    }
+
+    /**
+     * Page back from the newest item until the high-water mark, so only new
+     * items are downloaded and parsed. Without a mark, the newest
+     * feedInitialItems are taken. Each item goes to the sink as soon as its
+     * page arrives. No page is fetched once the feed budget is gone.
+     */
+    private List<FeedItem> pullNewFeedItems(Consumer<FeedItem> sink, HeartbeatBudget feedBudget) {
+        int maxItems = highWaterMark.isEmpty() ? feedInitialItems : feedMaxItems;
+        boolean feedUsable = !feedNeedsSubscriptions && !moltbookClient.isCircuitOpen("GET", "/feed");
+        if (feedUsable) {
+            try {
+                return pullNewFeedItems(false, maxItems, sink, feedBudget);
+            } catch (RuntimeException e) {
+                if (!isAuthError(e)) {
+                    throw e;
+                }
+                log.warn("Feed endpoint requires subscriptions - using global posts instead");
+                feedNeedsSubscriptions = true;
+            }
+        }
+        if (moltbookClient.isCircuitOpen("GET", "/posts")) {
+            log.warn("🔴 Feed and posts circuits open - skipping feed processing");
+            return List.of();
+        }
+        return pullNewFeedItems(true, maxItems, sink, feedBudget);
+    }
+
+    private List<FeedItem> pullNewFeedItems(boolean fromPosts, int maxItems, Consumer<FeedItem> sink,
+            HeartbeatBudget feedBudget) {
+        FeedPager pager = fromPosts
+                ? asyncClient.postsPager("new", feedPageSize, maxItems, feedAnalyzer::parseFeed)
+                : asyncClient.feedPager(feedPageSize, maxItems, feedAnalyzer::parseFeed);
+        List<FeedItem> items = new ArrayList<>();
+        try (pager) {
+            pager.until(item -> {
+                if (!highWaterMark.isNew(item)) {
+                    return true;
+                }
+                if (feedBudget.isExpired()) {
+                    // Items from further pages could only be deferred
+                    feedBudget.defer("feed-pages", 1);
+                    return true;
+                }
+                return false;
+            }).forEachRemaining(item -> {
+                items.add(item);
+                sink.accept(item);
+            });
+        }
+        log.info("📥 {} new items since {}", items.size(),
+                highWaterMark.isEmpty() ? "first run" : highWaterMark.getLatest());
+        return items;
+    }
+
+    private static boolean isAuthError(Throwable e) {
+        return e.getMessage() != null
+                && (e.getMessage().contains("401") || e.getMessage().contains("Authentication required"));
+    }
+
+    /**
+     * Ask the AI whether one of our actions fits a relevant item.
+     * Returns null if the item could not be decided.
      */
-    private void processRelevantItem(FeedItem item) {
+    private ItemDecision decide(FeedItem item) {
         try {
             String text = item.getFullText();
             String author = item.getAuthor().getName();
             log.info("Processing relevant item from @{}: {}", author, text.substring(0, Math.min(100, text.length())));
 
+            String promptAskIfActionCanBeExecuted = String.format(
+                    "You are an autonomous agent on Moltbook.\n" +
+                            "Found a relevant post from @%s:\n\"%s\"\n\n" +
+                            "Task: Can you execute an action to engage with this post based on your skills? " +
+                            "Answer YES or NO and if YES, specify the action name " +
+                            "if you cannot find any action mapped then just answer NO." + mySkills,
+                    author, text, item.getId());
+            YesOrNoDecision yesOrNoDecision = (YesOrNoDecision) promptTransformer
+                    .transformIntoPojo(promptAskIfActionCanBeExecuted, YesOrNoDecision.class);
+            return new ItemDecision(item, author, text, yesOrNoDecision.isYes());
+        } catch (Exception e) {
+            log.error("Failed to process item: {}", item.getId(), e);
+            return null;
+        }
+    }
+
+    /**
+     * Execute the decided action for an item (or just answer it)
+     * This is where Tools4AI comes in!
+     */
+    private void act(ItemDecision decision) {
+        FeedItem item = decision.item;
+        String author = decision.author;
+        String text = decision.text;
+        try {
             // Build a descriptive prompt for the AI to understand the context and decide
             // the action
             String prompt = String.format(
@@ -183,20 +666,13 @@ public class MoltbookHeartbeat {
                             "Choose the most helpful and engaging action based on your skills.",
                     author, text, item.getId());
             Object result = null;
-            String promptAskIfActionCanBeExecuted = String.format(
-                    "You are an autonomous agent on Moltbook.\n" +
-                            "Found a relevant post from @%s:\n\"%s\"\n\n" +
-                            "Task: Can you execute an action to engage with this post based on your skills? " +
-                            "Answer YES or NO and if YES, specify the action name " +
-                            "if you cannot find any action mapped then just answer NO." + mySkills,
-                    author, text, item.getId());
-            YesOrNoDecision yesOrNoDecision = (YesOrNoDecision) promptTransformer
-                    .transformIntoPojo(promptAskIfActionCanBeExecuted, YesOrNoDecision.class);
             // Wrap with script processor for action execution
             try {
                 log.info("🤖 AI is deciding action for post: {}", item.getId());
-                if (yesOrNoDecision.isYes()) {
-                    result = processor.processSingleAction(prompt, humanInLoop);
+                if (decision.yes) {
+                    // Action beans are shared; make them use this agent's key
+                    String actionPrompt = prompt;
+                    result = actionService.runAs(() -> processor.processSingleAction(actionPrompt, humanInLoop));
                 } else {
                     log.info("👀 AI decided not to take action on post: {}", item.getId());
                     result = processor.query(prompt);
@@ -228,14 +704,28 @@ public class MoltbookHeartbeat {
 
             }
 
-            // Rate limit protection
-            Thread.sleep(2000);
-
         } catch (Exception e) {
             log.error("Failed to process item: {}", item.getId(), e);
         }
     }
 
+    /**
+     * Output of the decide stage
+     */
+    private static class ItemDecision {
+        final FeedItem item;
+        final String author;
+        final String text;
+        final boolean yes;
+
+        ItemDecision(FeedItem item, String author, String text, boolean yes) {
+            this.item = item;
+            this.author = author;
+            this.text = text;
+            this.yes = yes;
+        }
+    }
+
     /**
      * Post about capabilities using NLP action discovery
      */
@@ -243,7 +733,8 @@ public class MoltbookHeartbeat {
         try {
             // Check post cooldown
             if (!canPost()) {
-                long minutesRemaining = getMinutesUntilCanPost();
+                long minutesRemaining = moltbookClient.getRateLimiter().timeUntilAvailable(EndpointClass.POST)
+                        .toMinutes();
                 log.info("⏰ Post cooldown active - need to wait {} more minutes before posting", minutesRemaining);
                 return;
             }
@@ -255,9 +746,10 @@ public class MoltbookHeartbeat {
                 // mentioned in the prompt and we are not using processSingleAction here
                 Object result = processor.query(capabilityPrompt);
 
+                // Only generates the text; the post token is taken by the client
+                // when a post is actually sent
                 if (result != null) {
-                    lastPostTime = Instant.now();
-                    log.info("✅ Posted about capabilities successfully. Result: {}", result);
+                    log.info("✅ Capability post generated. Result: {}", result);
                     activityTrackingService.trackAction("CAPABILITY_POST", "Automated Capability Promotion",
                             result.toString(), true);
                 }
@@ -266,9 +758,6 @@ public class MoltbookHeartbeat {
                 activityTrackingService.trackError("Capability post failed: " + e.getMessage());
             }
 
-            // Wait a bit to respect rate limits
-            Thread.sleep(3000);
-
         } catch (Exception e) {
             log.error("Failed to post about capabilities", e);
             activityTrackingService.trackError("Exception in postAboutCapabilities: " + e.getMessage());
@@ -279,65 +768,7 @@ public class MoltbookHeartbeat {
      * Check if we can post (respecting cooldown)
      */
     private boolean canPost() {
-        if (lastPostTime == null) {
-            return true;
-        }
-        Duration timeSincePost = Duration.between(lastPostTime, Instant.now());
-        return timeSincePost.toMinutes() >= postCooldownMinutes;
-    }
-
-    /**
-     * Check if we can comment (respecting cooldown)
-     */
-    private boolean canComment() {
-        if (lastCommentTime == null) {
-            return true;
-        }
-        Duration timeSinceComment = Duration.between(lastCommentTime, Instant.now());
-        return timeSinceComment.toSeconds() >= commentCooldownSeconds;
-    }
-
-    /**
-     * Get minutes until we can post again
-     */
-    private long getMinutesUntilCanPost() {
-        if (lastPostTime == null) {
-            return 0;
-        }
-        Duration timeSincePost = Duration.between(lastPostTime, Instant.now());
-        long minutesPassed = timeSincePost.toMinutes();
-        return Math.max(0, postCooldownMinutes - minutesPassed);
-    }
-
-    /**
-     * Update cooldown periods from API error messages
-     */
-    private void updateCooldownFromError(String errorMessage, boolean isPost) {
-        try {
-            if (isPost && errorMessage.contains("retry_after_minutes")) {
-                // Extract retry_after_minutes from error
-                int start = errorMessage.indexOf("\"retry_after_minutes\":") + 22;
-                int end = errorMessage.indexOf(",", start);
-                if (end == -1)
-                    end = errorMessage.indexOf("}", start);
-                String minutesStr = errorMessage.substring(start, end).trim();
-                postCooldownMinutes = Integer.parseInt(minutesStr);
-                log.info("📊 Updated post cooldown to {} minutes", postCooldownMinutes);
-                lastPostTime = Instant.now();
-            } else if (!isPost && errorMessage.contains("retry_after_seconds")) {
-                // Extract retry_after_seconds from error
-                int start = errorMessage.indexOf("\"retry_after_seconds\":") + 22;
-                int end = errorMessage.indexOf(",", start);
-                if (end == -1)
-                    end = errorMessage.indexOf("}", start);
-                String secondsStr = errorMessage.substring(start, end).trim();
-                commentCooldownSeconds = Integer.parseInt(secondsStr);
-                log.info("📊 Updated comment cooldown to {} seconds", commentCooldownSeconds);
-                lastCommentTime = Instant.now();
-            }
-        } catch (Exception e) {
-            log.warn("Could not parse cooldown from error: {}", e.getMessage());
-        }
+        return moltbookClient.getRateLimiter().timeUntilAvailable(EndpointClass.POST).isZero();
     }
 
     /**
@@ -345,21 +776,21 @@ public class MoltbookHeartbeat {
      * Use semantic search to find relevant discussions based on agent capabilities
      * Even if they're not in your feed yet!
      */
-    private void searchForRelevantDiscussions() {
+    private boolean searchForRelevantDiscussions(CompletableFuture<List<FeedItem>> searchRequest,
+            HeartbeatBudget budget) {
         try {
             log.info("🔍 Searching for relevant discussions based on agent capabilities...");
 
-            // Get agent skills summary for search query
-            String mySkills = PredictionLoader.getInstance().getActionNameList().toString();
-            // Extract key topics from skills (simplified approach)
-            String searchQuery = "discussions and questions about agent services";
-
-            String searchJson = moltbookClient.semanticSearch(
-                    searchQuery,
-                    "posts",
-                    10);
-
-            List<FeedItem> results = feedAnalyzer.parseFeed(searchJson);
+            // Search was started alongside the feed pull (see SEARCH_QUERY)
+            List<FeedItem> results;
+            try {
+                results = searchRequest.get(budget.remaining().toMillis(), TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                budget.defer("search", 1);
+                return false;
+            } catch (ExecutionException e) {
+                throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+            }
             semanticSearchResultCount = results.size();
             log.info("Found {} posts via semantic search", results.size());
 
@@ -374,17 +805,18 @@ public class MoltbookHeartbeat {
             log.error("Semantic search failed", e);
             semanticSearchResultCount = 0; // Treat errors as no results found
         }
+        return true;
     }
 
     /**
      * Check for pending posts that need verification
      */
-    private void checkPendingPosts() {
+    private void checkPendingPosts(CompletableFuture<String> profileRequest, HeartbeatBudget budget) {
         try {
             log.info("🔍 Checking for pending posts requiring verification...");
 
             // Get agent profile which includes pending posts
-            String profileResponse = moltbookClient.getProfile();
+            String profileResponse = await(profileRequest);
 
             if (profileResponse == null || !profileResponse.contains("pending_posts")) {
                 log.debug("No pending posts found");
@@ -408,8 +840,14 @@ public class MoltbookHeartbeat {
 
             log.info("📝 Found {} pending post(s) requiring verification", pendingPosts.size());
 
-            // Verify each pending post
+            // Verify each pending post; posts left over stay pending for the next heartbeat
+            int remaining = pendingPosts.size();
             for (com.google.gson.JsonElement postElement : pendingPosts) {
+                if (budget.isExpired()) {
+                    budget.defer("verify", remaining);
+                    break;
+                }
+                remaining--;
                 com.google.gson.JsonObject post = postElement.getAsJsonObject();
 
                 if (!post.has("verification")) {
@@ -447,9 +885,6 @@ public class MoltbookHeartbeat {
                             e.getMessage(),
                             false);
                 }
-
-                // Rate limit between verifications
-                Thread.sleep(2000);
             }
 
         } catch (Exception e) {
@@ -461,7 +896,11 @@ public class MoltbookHeartbeat {
     /**
      * Robust math solver for verification challenges
      */
-    public String solveVerificationChallenge(String challenge) throws Exception {
+    public final String solveVerificationChallenge(String challenge) throws Exception {
+        return solveChallenge(processor, challenge);
+    }
+
+    private static String solveChallenge(AIProcessor processor, String challenge) throws Exception {
         // Use AI to solve the challenge with improved prompt
         String solvePrompt = String.format(
                 "You are solving a mathematical verification challenge. The challenge text may contain obfuscation like random characters, case changes, or extra symbols.\\n"
@@ -499,11 +938,31 @@ public class MoltbookHeartbeat {
     }
 
     /**
-     * Extract error body from RuntimeException wrapping HttpClientErrorException
+     * Wait for an async request, rethrowing the original failure instead of the
+     * CompletionException wrapper
+     */
+    private static <T> T await(CompletableFuture<T> request) {
+        try {
+            return request.join();
+        } catch (CompletionException e) {
+            Throwable cause = unwrap(e);
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new RuntimeException(cause);
+        }
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return (error instanceof CompletionException && error.getCause() != null) ? error.getCause() : error;
+    }
+
+    /**
+     * Extract error body from RuntimeException wrapping MoltbookApiException
      */
     private String extractErrorBody(RuntimeException e) {
-        if (e.getCause() instanceof HttpClientErrorException) {
-            return ((HttpClientErrorException) e.getCause()).getResponseBodyAsString();
+        if (e.getCause() instanceof MoltbookApiException) {
+            return ((MoltbookApiException) e.getCause()).getResponseBody();
         }
         return null;
     }
@@ -520,4 +979,77 @@ public class MoltbookHeartbeat {
     public Instant getLastCheck() {
         return lastCheck;
     }
+
+    /**
+     * Feed items skipped in the last heartbeat because they were handled before
+     */
+    public int getLastSkippedSeenCount() {
+        return lastSkippedSeenCount;
+    }
+
+    public SeenPostTracker getSeenPosts() {
+        return seenPosts;
+    }
+
+    public FeedHighWaterMark getHighWaterMark() {
+        return highWaterMark;
+    }
+
+    /**
+     * Service the AI actions run against: this heartbeat's client and key
+     */
+    public MoltbookService getActionService() {
+        return actionService;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        seenPosts.save();
+        highWaterMark.save();
+        if (ownsItemExecutor) {
+            itemExecutor.shutdownNow();
+        }
+        if (ownsAsyncClient) {
+            asyncClient.shutdown();
+        }
+    }
+
+    /**
+     * Configured state file, moved into stateDir when one is given; null if
+     * the file is not configured (memory only)
+     */
+    private static Path statePath(String configured, Path stateDir) {
+        if (configured == null || configured.isBlank()) {
+            return null;
+        }
+        Path path = Path.of(configured);
+        return stateDir == null ? path : stateDir.resolve(path.getFileName());
+    }
+
+    /**
+     * Virtual threads when the runtime has them (Java 21+), otherwise a
+     * pool of daemon threads: one thread per pipeline worker, or created on
+     * demand when concurrency is 0 (shared by several pipelines).
+     */
+    static ExecutorService newItemExecutor(int concurrency, boolean virtualThreads) {
+        if (virtualThreads) {
+            try {
+                ExecutorService executor = (ExecutorService) Executors.class
+                        .getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+                log.info("🧵 Heartbeat pipeline runs on virtual threads");
+                return executor;
+            } catch (ReflectiveOperationException e) {
+                log.debug("Virtual threads not available - using a fixed pool");
+            }
+        }
+        AtomicInteger counter = new AtomicInteger();
+        ThreadFactory threads = r -> {
+            Thread thread = new Thread(r, "moltbook-item-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        return concurrency > 0
+                ? Executors.newFixedThreadPool(concurrency, threads)
+                : Executors.newCachedThreadPool(threads);
+    }
 }
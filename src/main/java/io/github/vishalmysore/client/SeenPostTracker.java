@@ -0,0 +1,231 @@
+package io.github.vishalmysore.client;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+
+/**
+ * Remembers which post ids the heartbeat has already handled, across
+ * heartbeats and (with a persist file) across restarts.
+ *
+ * The most recent ids are kept exactly; older ids live in two rotating Bloom
+ * filter generations. When the current generation is full the older one is
+ * dropped, so memory stays fixed and very old posts eventually age out.
+ * A Bloom false positive means an unseen post is skipped, with probability
+ * roughly falsePositiveRate.
+ */
+@Slf4j
+public class SeenPostTracker {
+
+    private static final int FILE_MAGIC = 0x4D42534E; // "MBSN"
+    private static final int FILE_VERSION = 1;
+
+    private final int recentWindow;
+    private final int generationCapacity;
+    private final int bitCount;
+    private final int hashCount;
+    private final Path persistFile;
+
+    private final LinkedHashSet<String> recent = new LinkedHashSet<>();
+    private long[] current;
+    private long[] previous;
+    private int currentInsertions;
+    private long totalMarked;
+    private boolean dirty;
+
+    public SeenPostTracker(int recentWindow, int generationCapacity, double falsePositiveRate, Path persistFile) {
+        this.recentWindow = recentWindow;
+        this.generationCapacity = Math.max(1, generationCapacity);
+        // Standard Bloom sizing: m = -n ln p / (ln 2)^2, k = m/n ln 2
+        double bits = -this.generationCapacity * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+        this.bitCount = (int) Math.max(64, Math.min(Integer.MAX_VALUE - 63, Math.ceil(bits)));
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / this.generationCapacity * Math.log(2)));
+        this.persistFile = persistFile;
+        this.current = new long[(bitCount + 63) / 64];
+        this.previous = new long[(bitCount + 63) / 64];
+        load();
+    }
+
+    public synchronized boolean hasSeen(String postId) {
+        if (postId == null) {
+            return false;
+        }
+        return recent.contains(postId) || mightContain(current, postId) || mightContain(previous, postId);
+    }
+
+    public synchronized void markSeen(String postId) {
+        if (postId == null || recent.contains(postId)) {
+            return;
+        }
+        recent.add(postId);
+        if (recent.size() > recentWindow) {
+            Iterator<String> eldest = recent.iterator();
+            eldest.next();
+            eldest.remove();
+        }
+        if (!mightContain(current, postId)) {
+            if (currentInsertions >= generationCapacity) {
+                previous = current;
+                current = new long[previous.length];
+                currentInsertions = 0;
+                log.debug("Seen-post filter rotated after {} ids", generationCapacity);
+            }
+            add(current, postId);
+            currentInsertions++;
+        }
+        totalMarked++;
+        dirty = true;
+    }
+
+    public synchronized long getTotalMarked() {
+        return totalMarked;
+    }
+
+    /**
+     * Approximate heap used by the filters and recent window, in bytes
+     */
+    public synchronized long estimatedBytes() {
+        long filters = 2L * current.length * Long.BYTES;
+        long ids = 0;
+        for (String id : recent) {
+            ids += 40 + 2L * id.length() + 48; // String + backing array + LinkedHashMap node
+        }
+        return filters + ids;
+    }
+
+    /**
+     * Write state to the persist file if anything changed since the last save
+     */
+    public synchronized void save() {
+        if (persistFile == null || !dirty) {
+            return;
+        }
+        try {
+            Path parent = persistFile.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            Path tmp = persistFile.resolveSibling(persistFile.getFileName() + ".tmp");
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                out.writeInt(FILE_MAGIC);
+                out.writeInt(FILE_VERSION);
+                out.writeInt(bitCount);
+                out.writeInt(hashCount);
+                out.writeInt(currentInsertions);
+                out.writeLong(totalMarked);
+                for (long word : current) {
+                    out.writeLong(word);
+                }
+                for (long word : previous) {
+                    out.writeLong(word);
+                }
+                out.writeInt(recent.size());
+                for (String id : recent) {
+                    out.writeUTF(id);
+                }
+            }
+            Files.move(tmp, persistFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            dirty = false;
+        } catch (Exception e) {
+            log.warn("Failed to persist seen posts to {}: {}", persistFile, e.getMessage());
+        }
+    }
+
+    private void load() {
+        if (persistFile == null || !Files.exists(persistFile)) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(persistFile)))) {
+            if (in.readInt() != FILE_MAGIC || in.readInt() != FILE_VERSION) {
+                log.warn("Ignoring seen-post file {} - unknown format", persistFile);
+                return;
+            }
+            int storedBits = in.readInt();
+            int storedHashes = in.readInt();
+            int storedInsertions = in.readInt();
+            long storedTotal = in.readLong();
+            boolean sameShape = storedBits == bitCount && storedHashes == hashCount;
+            long[] storedCurrent = new long[(storedBits + 63) / 64];
+            long[] storedPrevious = new long[storedCurrent.length];
+            for (int i = 0; i < storedCurrent.length; i++) {
+                storedCurrent[i] = in.readLong();
+            }
+            for (int i = 0; i < storedPrevious.length; i++) {
+                storedPrevious[i] = in.readLong();
+            }
+            if (sameShape) {
+                current = storedCurrent;
+                previous = storedPrevious;
+                currentInsertions = storedInsertions;
+            } else {
+                // Filter settings changed: only the exact window can be carried over
+                log.info("Seen-post filter settings changed - keeping only the recent window");
+            }
+            int recentCount = in.readInt();
+            for (int i = 0; i < recentCount; i++) {
+                String id = in.readUTF();
+                recent.add(id);
+                if (!sameShape) {
+                    add(current, id);
+                    currentInsertions++;
+                }
+            }
+            while (recent.size() > recentWindow) {
+                Iterator<String> eldest = recent.iterator();
+                eldest.next();
+                eldest.remove();
+            }
+            totalMarked = storedTotal;
+            log.info("✓ Loaded {} seen posts ({} recent) from {}", totalMarked, recent.size(), persistFile);
+        } catch (Exception e) {
+            log.warn("Ignoring unreadable seen-post file {}: {}", persistFile, e.getMessage());
+        }
+    }
+
+    private boolean mightContain(long[] bits, String id) {
+        long h1 = hash(id, 0x9E3779B97F4A7C15L);
+        long h2 = hash(id, 0xC2B2AE3D27D4EB4FL) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            int bit = (int) Math.floorMod(h1 + i * h2, (long) bitCount);
+            if ((bits[bit >>> 6] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void add(long[] bits, String id) {
+        long h1 = hash(id, 0x9E3779B97F4A7C15L);
+        long h2 = hash(id, 0xC2B2AE3D27D4EB4FL) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            int bit = (int) Math.floorMod(h1 + i * h2, (long) bitCount);
+            bits[bit >>> 6] |= 1L << bit;
+        }
+    }
+
+    /**
+     * Seeded 64-bit FNV-1a with a murmur-style final mix
+     */
+    private static long hash(String value, long seed) {
+        long h = 0xCBF29CE484222325L ^ seed;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= 0x100000001B3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
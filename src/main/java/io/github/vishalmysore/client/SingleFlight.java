@@ -0,0 +1,192 @@
+package io.github.vishalmysore.client;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces identical concurrent reads.
+ *
+ * The first caller for a key runs the call; callers arriving while it is in
+ * flight wait for and share its result (or its exception). With a fresh
+ * window, a completed result is also handed out for that long afterwards.
+ */
+public class SingleFlight {
+
+    private static final int MAX_FRESH_ENTRIES = 256;
+
+    private final long freshNanos;
+    private final Map<String, Flight> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, Fresh> fresh = new ConcurrentHashMap<>();
+
+    private final LongAdder executed = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder freshHits = new LongAdder();
+
+    public SingleFlight(Duration freshWindow) {
+        this.freshNanos = freshWindow.toNanos();
+    }
+
+    public String execute(String key, Supplier<String> call) {
+        CompletableFuture<String> result = executeAsync(key, CallContext.callerRuns(), context -> {
+            try {
+                return CompletableFuture.completedFuture(call.get());
+            } catch (Throwable e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        });
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Like {@link #execute}, for a call that completes later. The leader's
+     * call runs on a fork of its context, so it goes on for the followers
+     * when the leader times out or is cancelled, and is cancelled only once
+     * every caller sharing it has. If the call runs on the leader's own
+     * thread and that thread is interrupted, it fails for everyone and the
+     * key is free for the next caller.
+     */
+    CompletableFuture<String> executeAsync(String key, CallContext context,
+            Function<CallContext, CompletableFuture<String>> call) {
+        if (freshNanos > 0) {
+            Fresh recent = fresh.get(key);
+            if (recent != null && System.nanoTime() - recent.completedAt < freshNanos) {
+                freshHits.increment();
+                return CompletableFuture.completedFuture(recent.value);
+            }
+        }
+
+        Flight mine = new Flight(context.fork());
+        Flight leader;
+        while ((leader = inFlight.putIfAbsent(key, mine)) != null) {
+            if (leader.attach()) {
+                coalesced.increment();
+                context.onCancel(leader::detach);
+                return leader.result.copy();
+            }
+            inFlight.remove(key, leader); // every caller gave up on it
+        }
+
+        executed.increment();
+        mine.shared.onCancel(() -> {
+            mine.result.completeExceptionally(new CancellationException("Shared call for " + key + " cancelled"));
+            inFlight.remove(key, mine);
+        });
+        context.onCancel(mine::detach);
+        CompletableFuture<String> pending;
+        try {
+            pending = call.apply(mine.shared);
+        } catch (Throwable e) {
+            // Errors too, or followers would wait forever
+            pending = CompletableFuture.failedFuture(e);
+        }
+        pending.whenComplete((value, error) -> {
+            if (error == null) {
+                if (freshNanos > 0) {
+                    remember(key, value);
+                }
+                mine.result.complete(value);
+            } else {
+                mine.result.completeExceptionally(CallContext.unwrap(error));
+            }
+            inFlight.remove(key, mine);
+        });
+        return mine.result.copy();
+    }
+
+    /**
+     * Drop all fresh results, e.g. after a write that may have changed them
+     */
+    public void invalidate() {
+        fresh.clear();
+    }
+
+    /**
+     * Calls that actually went to the server
+     */
+    public long getExecuted() {
+        return executed.sum();
+    }
+
+    /**
+     * Calls that joined a request already in flight
+     */
+    public long getCoalesced() {
+        return coalesced.sum();
+    }
+
+    /**
+     * Calls answered from the fresh window
+     */
+    public long getFreshHits() {
+        return freshHits.sum();
+    }
+
+    private void remember(String key, String value) {
+        long now = System.nanoTime();
+        if (fresh.size() >= MAX_FRESH_ENTRIES) {
+            fresh.values().removeIf(entry -> now - entry.completedAt >= freshNanos);
+            if (fresh.size() >= MAX_FRESH_ENTRIES) {
+                fresh.clear();
+            }
+        }
+        fresh.put(key, new Fresh(value, now));
+    }
+
+    /**
+     * One call in flight and the callers still waiting for it
+     */
+    private static class Flight {
+        final CompletableFuture<String> result = new CompletableFuture<>();
+        final CallContext shared;
+        private int attached = 1;
+
+        Flight(CallContext shared) {
+            this.shared = shared;
+        }
+
+        synchronized boolean attach() {
+            if (attached == 0) {
+                return false;
+            }
+            attached++;
+            return true;
+        }
+
+        void detach() {
+            boolean last;
+            synchronized (this) {
+                last = --attached == 0;
+            }
+            if (last && !result.isDone()) {
+                shared.cancel();
+            }
+        }
+    }
+
+    private static class Fresh {
+        final String value;
+        final long completedAt;
+
+        Fresh(String value, long completedAt) {
+            this.value = value;
+            this.completedAt = completedAt;
+        }
+    }
+}
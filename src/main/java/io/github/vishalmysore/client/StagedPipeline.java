@@ -0,0 +1,294 @@
+package io.github.vishalmysore.client;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Chain of stages connected by bounded queues.
+ *
+ * Each stage runs its own number of workers and hands items to the next
+ * stage as soon as it is done with them, so the first item can reach the
+ * last stage while later ones are still being fetched. A full queue blocks
+ * the stage feeding it (backpressure); {@link #offer} gives up after a
+ * timeout instead, so a caller with a deadline is never held past it. A
+ * batch stage collects up to
+ * batchSize items, waiting at most maxWait for more, so batched work such as
+ * AI classification still starts early. A failing item is logged and
+ * dropped; the other items keep flowing.
+ *
+ * @param <I> type submitted to the first stage
+ */
+@Slf4j
+public class StagedPipeline<I> {
+
+    /**
+     * One step of the pipeline; may emit any number of outputs per input
+     */
+    @FunctionalInterface
+    public interface Stage<A, B> {
+        void process(A input, Consumer<B> emit) throws Exception;
+    }
+
+    private static final Object END = new Object();
+
+    private final String name;
+    private final List<StageRunner> stages;
+    private final BlockingQueue<Object> input;
+    private final Semaphore inputSlots;
+    private final CountDownLatch finished;
+    private final long startedAt = System.nanoTime();
+
+    private StagedPipeline(String name, ExecutorService executor, List<StageRunner> stages) {
+        this.name = name;
+        this.stages = stages;
+        this.input = stages.get(0).in;
+        this.inputSlots = stages.get(0).slots;
+        this.finished = new CountDownLatch(1);
+        StageRunner last = stages.get(stages.size() - 1);
+        for (StageRunner stage : stages) {
+            for (int i = 0; i < stage.workers; i++) {
+                executor.execute(() -> stage.work(stage == last ? finished : null));
+            }
+        }
+    }
+
+    public static <I> Builder<I, I> builder(String name, ExecutorService executor, int queueCapacity) {
+        return new Builder<>(name, executor, queueCapacity, new ArrayList<>());
+    }
+
+    /**
+     * Hand an item to the first stage, waiting while its queue is full
+     */
+    public void submit(I item) {
+        try {
+            inputSlots.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while queueing pipeline item", e);
+        }
+        input.add(item);
+    }
+
+    /**
+     * Hand an item to the first stage, waiting at most timeout while its
+     * queue is full
+     *
+     * @return false if the item was not queued
+     */
+    public boolean offer(I item, Duration timeout) {
+        try {
+            if (!inputSlots.tryAcquire(Math.max(0, timeout.toNanos()), TimeUnit.NANOSECONDS)) {
+                return false;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        input.add(item);
+        return true;
+    }
+
+    /**
+     * No more input; stages finish what is queued and stop. Never waits: the
+     * first queue keeps a place for the end marker.
+     */
+    public void complete() {
+        input.add(END);
+    }
+
+    /**
+     * Wait until the last stage has processed everything
+     *
+     * @return false if the timeout passed first
+     */
+    public boolean await(Duration timeout) throws InterruptedException {
+        return finished.await(timeout.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    public List<StageStats> getStats() {
+        List<StageStats> stats = new ArrayList<>();
+        for (StageRunner stage : stages) {
+            long first = stage.firstDoneAt.get();
+            stats.add(new StageStats(stage.name, stage.workers, stage.received.sum(), stage.emitted.sum(),
+                    stage.failed.sum(), first == 0 ? -1 : TimeUnit.NANOSECONDS.toMillis(first - startedAt)));
+        }
+        return stats;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Counters of one stage. firstItemMillis is when its first item was done,
+     * measured from pipeline start (-1 if none).
+     */
+    @Getter
+    @ToString
+    @AllArgsConstructor
+    public static class StageStats {
+        private final String name;
+        private final int workers;
+        private final long received;
+        private final long emitted;
+        private final long failed;
+        private final long firstItemMillis;
+    }
+
+    /**
+     * Typed builder; O is the output type of the last stage added
+     */
+    public static class Builder<I, O> {
+        private final String name;
+        private final ExecutorService executor;
+        private final int queueCapacity;
+        private final List<StageRunner> stages;
+
+        private Builder(String name, ExecutorService executor, int queueCapacity, List<StageRunner> stages) {
+            this.name = name;
+            this.executor = executor;
+            this.queueCapacity = Math.max(1, queueCapacity);
+            this.stages = stages;
+        }
+
+        @SuppressWarnings("unchecked")
+        public <N> Builder<I, N> stage(String stageName, int workers, Stage<O, N> stage) {
+            stages.add(new StageRunner(stageName, workers, 1, 0, queueCapacity, stages.isEmpty(),
+                    (input, emit) -> ((Stage<Object, Object>) stage).process(((List<Object>) input).get(0), emit)));
+            return new Builder<>(name, executor, queueCapacity, stages);
+        }
+
+        @SuppressWarnings("unchecked")
+        public <N> Builder<I, N> batchStage(String stageName, int workers, int batchSize, Duration maxWait,
+                Stage<List<O>, N> stage) {
+            stages.add(new StageRunner(stageName, workers, batchSize, maxWait.toNanos(), queueCapacity,
+                    stages.isEmpty(), (Stage<Object, Object>) (Stage<?, ?>) stage));
+            return new Builder<>(name, executor, queueCapacity, stages);
+        }
+
+        public StagedPipeline<I> start() {
+            if (stages.isEmpty()) {
+                throw new IllegalStateException("Pipeline " + name + " has no stages");
+            }
+            for (int i = 0; i < stages.size() - 1; i++) {
+                stages.get(i).out = stages.get(i + 1).in;
+            }
+            return new StagedPipeline<>(name, executor, stages);
+        }
+    }
+
+    private static class StageRunner {
+        final String name;
+        final int workers;
+        final int batchSize;
+        final long maxWaitNanos;
+        final BlockingQueue<Object> in;
+        final Semaphore slots; // first stage only: places for submitted items, END has one extra
+        final Stage<Object, Object> stage; // always called with a List of inputs
+        BlockingQueue<Object> out; // null for the last stage
+
+        final AtomicInteger running;
+        final LongAdder received = new LongAdder();
+        final LongAdder emitted = new LongAdder();
+        final LongAdder failed = new LongAdder();
+        final AtomicLong firstDoneAt = new AtomicLong();
+
+        StageRunner(String name, int workers, int batchSize, long maxWaitNanos, int queueCapacity, boolean first,
+                Stage<Object, Object> stage) {
+            this.name = name;
+            this.workers = Math.max(1, workers);
+            this.batchSize = Math.max(1, batchSize);
+            this.maxWaitNanos = maxWaitNanos;
+            this.in = new ArrayBlockingQueue<>(first ? queueCapacity + 1 : queueCapacity);
+            this.slots = first ? new Semaphore(queueCapacity) : null;
+            this.stage = stage;
+            this.running = new AtomicInteger(this.workers);
+        }
+
+        private void releaseSlot() {
+            if (slots != null) {
+                slots.release();
+            }
+        }
+
+        void work(CountDownLatch finished) {
+            Consumer<Object> emit = output -> {
+                emitted.increment();
+                if (out != null) {
+                    put(out, output);
+                }
+            };
+            try {
+                boolean ended = false;
+                while (!ended) {
+                    List<Object> batch = new ArrayList<>(batchSize);
+                    Object first = in.take();
+                    if (first == END) {
+                        put(in, END); // let the other workers of this stage see it
+                        break;
+                    }
+                    releaseSlot();
+                    batch.add(first);
+                    long deadline = System.nanoTime() + maxWaitNanos;
+                    while (batch.size() < batchSize) {
+                        Object next = in.poll(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                        if (next == null) {
+                            break;
+                        }
+                        if (next == END) {
+                            put(in, END);
+                            ended = true;
+                            break;
+                        }
+                        releaseSlot();
+                        batch.add(next);
+                    }
+                    received.add(batch.size());
+                    try {
+                        stage.process(batch, emit);
+                    } catch (Exception e) {
+                        failed.add(batch.size());
+                        log.warn("Pipeline stage '{}' failed for {} item(s): {}", name, batch.size(), e.toString());
+                    }
+                    firstDoneAt.compareAndSet(0, System.nanoTime());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                if (running.decrementAndGet() == 0) {
+                    if (out != null) {
+                        put(out, END);
+                    }
+                    if (finished != null) {
+                        finished.countDown();
+                    }
+                }
+            }
+        }
+    }
+
+    private static void put(BlockingQueue<Object> queue, Object item) {
+        try {
+            queue.put(item);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while queueing pipeline item", e);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package io.github.vishalmysore.client;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import lombok.Getter;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+/**
+ * Verification fields of a write or verify response, read in one streaming
+ * pass.
+ *
+ * Only the top-level "verification_required", "verification" {code,
+ * challenge} and "success" fields are read; every other value (such as the
+ * echoed post) is skipped token by token without building a JSON tree.
+ */
+@Getter
+public class VerificationScan {
+
+    private static final VerificationScan EMPTY = new VerificationScan();
+
+    private boolean verificationRequired;
+    private boolean success;
+    private String code;
+    private String challenge;
+
+    private VerificationScan() {
+    }
+
+    /**
+     * Scan a response body. Bodies that are not a JSON object fall back to a
+     * plain text check for "verification_required".
+     */
+    public static VerificationScan of(String body) {
+        if (body == null || body.isEmpty()) {
+            return EMPTY;
+        }
+        VerificationScan scan = new VerificationScan();
+        try {
+            JsonReader reader = new JsonReader(new StringReader(body));
+            reader.setLenient(true);
+            if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+                return textFallback(body);
+            }
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "verification_required" -> scan.verificationRequired |= readBoolean(reader);
+                    case "success" -> scan.success = readBoolean(reader);
+                    case "verification" -> scan.readVerification(reader);
+                    default -> reader.skipValue();
+                }
+            }
+            reader.endObject();
+        } catch (IOException | IllegalStateException e) {
+            if (!scan.hasChallenge()) {
+                return textFallback(body);
+            }
+        }
+        return scan;
+    }
+
+    /**
+     * True when a challenge was found that the solver can work on
+     */
+    public boolean hasChallenge() {
+        return code != null && challenge != null;
+    }
+
+    private void readVerification(JsonReader reader) throws IOException {
+        if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+            reader.skipValue();
+            return;
+        }
+        verificationRequired = true;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "code" -> code = readString(reader);
+                case "challenge" -> challenge = readString(reader);
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+    }
+
+    private static boolean readBoolean(JsonReader reader) throws IOException {
+        if (reader.peek() == JsonToken.BOOLEAN) {
+            return reader.nextBoolean();
+        }
+        reader.skipValue();
+        return false;
+    }
+
+    private static String readString(JsonReader reader) throws IOException {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return null;
+        }
+        return reader.nextString();
+    }
+
+    private static VerificationScan textFallback(String body) {
+        VerificationScan scan = new VerificationScan();
+        scan.verificationRequired = body.contains("verification_required");
+        return scan;
+    }
+}
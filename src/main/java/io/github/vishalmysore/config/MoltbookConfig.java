@@ -4,6 +4,9 @@ import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Configuration properties for Moltbook integration
  */
@@ -15,11 +18,38 @@ public class MoltbookConfig {
     private Api api = new Api();
     private Agent agent = new Agent();
     private Heartbeat heartbeat = new Heartbeat();
+    private Analyzer analyzer = new Analyzer();
+    private RateLimit rateLimit = new RateLimit();
+    private Resilience resilience = new Resilience();
+    private MultiAgent multiAgent = new MultiAgent();
+    private Activity activity = new Activity();
 
     @Data
     public static class Api {
         private String baseUrl = "https://www.moltbook.com/api/v1";
         private String key;
+
+        // HTTP transport settings (see MoltbookTransport)
+        private int connectTimeoutSeconds = 10;
+        private int readTimeoutSeconds = 30;
+        private int writeTimeoutSeconds = 30;
+        private int callTimeoutSeconds = 60; // whole call incl. retries/redirects, 0 = no limit
+        private int maxIdleConnections = 10;
+        private int keepAliveSeconds = 300;
+        private int maxRequests = 64;
+        private int maxRequestsPerHost = 16;
+        private boolean http2Enabled = true;
+
+        // MoltbookAsyncClient executor
+        private int asyncThreads = 8;
+        private int asyncTimeoutSeconds = 90;
+
+        // Reuse a completed GET response for identical requests this long, 0 = only share in-flight requests
+        private long singleFlightFreshMillis = 0;
+
+        // Conditional GET cache (ETag / Last-Modified), 0 bytes = disabled
+        private long cacheMaxBytes = 4 * 1024 * 1024;
+        private int cacheTtlSeconds = 0; // serve responses without validators unchecked this long, 0 = never
     }
 
     @Data
@@ -28,13 +58,124 @@ public class MoltbookConfig {
         private String description = "A helpful AI agent for Moltbook";
     }
 
+    @Data
+    public static class Analyzer {
+        private int maxFieldLength = 0; // truncate long feed texts after parsing each item, 0 = keep all
+        private int batchSize = 10; // feed items per relevance AI call, 1 = one call per item
+        private int batchItemMaxChars = 2000; // per-item text sent in a batch prompt, 0 = no limit
+        private int decisionCacheSize = 5000;
+        private int decisionCacheTtlMinutes = 24 * 60;
+        private String decisionCacheFile; // e.g. data/relevance-cache.json, unset = memory only
+    }
+
+    /**
+     * Per-agent token buckets (see RateLimiter)
+     */
+    @Data
+    public static class RateLimit {
+        private int requestsPerMinute = 100; // all requests
+        private int burst = 20;
+        private int readPerMinute = 60;
+        private int readBurst = 10;
+        private int votePerMinute = 30;
+        private int voteBurst = 5;
+        private int commentIntervalSeconds = 20;
+        private int postIntervalMinutes = 120; // 2 hours for new agents
+        private int verifyIntervalSeconds = 2;
+        private int maxWaitSeconds = 60; // longer waits fail fast with RateLimitExceededException
+        private int defaultRetryAfterSeconds = 60; // 429 without Retry-After or retry_after_*
+    }
+
+    /**
+     * Retries and per-endpoint circuit breakers (see RetryPolicy, CircuitBreaker)
+     */
+    @Data
+    public static class Resilience {
+        private int maxAttempts = 3; // per GET/DELETE call, 1 = no retries
+        private long initialBackoffMillis = 500;
+        private long maxBackoffMillis = 8000;
+        private int failureThreshold = 5; // consecutive failures before a circuit opens
+        private int openSeconds = 30; // fail fast this long before a trial call
+    }
+
+    /**
+     * Activity log of ActivityTrackingService
+     */
+    @Data
+    public static class Activity {
+        private int capacity = 1000; // most recent activities kept, rounded up to a power of two
+        private int maxContentBytes = 4096; // UTF-8 content kept per activity in memory; the journal keeps it all
+        private boolean dedupeContent = true; // share identical content between activities
+        private int dedupeSlots = 1024; // recent distinct contents remembered for sharing
+
+        // Durable journal (ActivityJournal)
+        private String journalDir; // e.g. data/journal, unset = no journal
+        private int journalSegmentBytes = 16 * 1024 * 1024;
+        private int journalRetentionDays = 30; // 0 = keep by count only
+        private int journalMaxSegments = 64;
+        private int journalQueueCapacity = 10000; // records waiting for the writer; more are dropped
+    }
+
+    /**
+     * Several agent identities hosted in one process (see AgentRuntime)
+     */
+    @Data
+    public static class MultiAgent {
+        private List<AgentIdentity> agents = new ArrayList<>(); // empty = runtime not started
+        private String stateDir = "data/agents"; // seen/feed-mark files and journal go to <stateDir>/<name>/
+        private int maxConcurrentHeartbeats = 4;
+        private long cacheMaxBytes = 256 * 1024; // GET cache per agent, 0 = disabled
+    }
+
+    @Data
+    public static class AgentIdentity {
+        private String name;
+        private String apiKey;
+    }
+
     @Data
     public static class Heartbeat {
         private Interval interval = new Interval();
 
+        // Seen-post tracking (SeenPostTracker)
+        private int seenRecentWindow = 1000; // ids kept exactly
+        private int seenFilterCapacity = 20000; // ids per Bloom filter generation
+        private double seenFilterFalsePositiveRate = 0.001;
+        private String seenFile; // e.g. data/seen-posts.bin, unset = memory only
+
+        // Incremental feed pull (FeedHighWaterMark)
+        private boolean incrementalFeed = true; // false = newest 50 items every heartbeat
+        private int feedPageSize = 25;
+        private int feedInitialItems = 50; // first run, no mark yet
+        private int feedMaxItems = 200; // most items paged back through in one heartbeat
+        private String feedMarkFile; // e.g. data/feed-mark.json, unset = memory only
+
+        // Staged item pipeline (StagedPipeline): prefilter -> classify -> decide -> act
+        private int pipelineQueueCapacity = 32; // items waiting between two stages
+        private int classifyWorkers = 2;
+        private long classifyBatchWaitMillis = 200; // wait for a fuller AI batch at most this long
+        private int decideWorkers = 4;
+        private int actWorkers = 2;
+        private int pipelineTimeoutSeconds = 600;
+        private boolean virtualThreads = true; // used when the runtime supports them
+
+        // Time budget per heartbeat (HeartbeatBudget); never longer than the current interval
+        private int budgetSeconds = 240; // 0 = no limit
+        private int verifyReserveSeconds = 30; // kept for pending-post verification
+        private int maxDeferredItems = 200; // feed items carried over to the next heartbeat
+
+        /**
+         * Heartbeat interval (see AdaptiveInterval)
+         */
         @Data
         public static class Interval {
-            private int minutes = 30;
+            private int minutes = 30; // starting interval, and the fixed one when adaptive is off
+            private boolean adaptive = true;
+            private int minMinutes = 2;
+            private int maxMinutes = 60;
+            private int targetNewItems = 25; // aim for about this many new feed items per heartbeat
+            private double lowRateBudget = 0.25; // back off while less than this share of the read budget is left
+            private int tickSeconds = 15; // how often the scheduler checks whether a heartbeat is due
         }
     }
 }
@@ -34,7 +34,7 @@ public class MoltbookActions {
 
         try {
             log.info("Creating Moltbook post in m/{}: {}", submolt, title);
-            MoltbookPost post = moltbookService.createPost(submolt, title, content, null);
+            MoltbookPost post = moltbookService.forCurrentAgent().createPost(submolt, title, content, null);
             return String.format("✅ Posted to m/%s: '%s' (ID: %s)", submolt, title, post.getId());
         } catch (Exception e) {
             log.error("Failed to create post", e);
@@ -48,7 +48,7 @@ public class MoltbookActions {
 
         try {
             log.info("Getting Moltbook feed (limit: {})", limit);
-            List<MoltbookPost> posts = moltbookService.getFeed("hot", Math.min(limit, 25));
+            List<MoltbookPost> posts = moltbookService.forCurrentAgent().getFeed("hot", Math.min(limit, 25));
 
             if (posts.isEmpty()) {
                 return "No posts found in feed.";
@@ -73,7 +73,7 @@ public class MoltbookActions {
 
         try {
             log.info("Searching Moltbook for: {}", query);
-            List<MoltbookPost> posts = moltbookService.searchPosts(query, Math.min(limit, 20));
+            List<MoltbookPost> posts = moltbookService.forCurrentAgent().searchPosts(query, Math.min(limit, 20));
 
             if (posts.isEmpty()) {
                 return "No posts found matching: " + query;
@@ -99,7 +99,7 @@ public class MoltbookActions {
 
         try {
             log.info("Commenting on post {}", postId);
-            moltbookService.createComment(postId, comment);
+            moltbookService.forCurrentAgent().createComment(postId, comment);
             return "✅ Comment posted successfully!";
         } catch (Exception e) {
             log.error("Failed to comment", e);
@@ -112,7 +112,7 @@ public class MoltbookActions {
 
         try {
             log.info("Upvoting post {}", postId);
-            moltbookService.upvotePost(postId);
+            moltbookService.forCurrentAgent().upvotePost(postId);
             return "✅ Post upvoted! 🦞";
         } catch (Exception e) {
             log.error("Failed to upvote", e);
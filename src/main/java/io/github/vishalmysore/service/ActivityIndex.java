@@ -0,0 +1,302 @@
+package io.github.vishalmysore.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Secondary indexes over the ActivityRing: sequence numbers by postId, by
+ * action name, by type and per minute.
+ *
+ * Kept up to date on every write: the new activity is added to its lists
+ * and the one it overwrote is trimmed from the front of its lists, so the
+ * indexes never cover more than the retained window. A query copies
+ * candidate sequence numbers from its cursor backwards: from the postId or
+ * action list, or merged from the lists of the requested types. It then
+ * resolves and matches them from the ring without holding the lock, so a
+ * page costs about its own size however long the log is. Only a query
+ * without any filter walks the ring itself, where every entry is a
+ * candidate. The ring write stays lock-free; the lock only covers updating
+ * the lists and copying candidates.
+ */
+class ActivityIndex {
+
+    private static final long MINUTE_MILLIS = 60_000;
+
+    private final ActivityRing ring;
+    private final Map<String, Sequences> byPostId = new HashMap<>();
+    private final Map<String, Sequences> byAction = new HashMap<>();
+    private final Sequences[] byType = new Sequences[ActivityType.count()];
+    private final TreeMap<Long, long[]> byMinute = new TreeMap<>(); // minute -> first, last sequence
+
+    ActivityIndex(ActivityRing ring) {
+        this.ring = ring;
+        for (int i = 0; i < byType.length; i++) {
+            byType[i] = new Sequences();
+        }
+    }
+
+    /**
+     * Store an activity in the ring and index it
+     *
+     * @return the activity it overwrote, or null
+     */
+    ActivityTrackingService.Activity add(ActivityTrackingService.Activity activity) {
+        ActivityTrackingService.Activity evicted = ring.add(activity);
+        index(activity, evicted);
+        return evicted;
+    }
+
+    private synchronized void index(ActivityTrackingService.Activity activity,
+            ActivityTrackingService.Activity evicted) {
+        long sequence = activity.sequence;
+        ActivityType type = activity.getActivityType();
+        add(byPostId, activity.getPostId(), sequence);
+        if (type == ActivityType.ACTION) {
+            add(byAction, activity.getTitle(), sequence);
+        }
+        byType[type.ordinal()].add(sequence);
+        long[] bucket = byMinute.computeIfAbsent(activity.getTimestampMillis() / MINUTE_MILLIS,
+                minute -> new long[] { sequence, sequence });
+        bucket[0] = Math.min(bucket[0], sequence);
+        bucket[1] = Math.max(bucket[1], sequence);
+
+        if (evicted != null) {
+            long oldest = ring.oldest();
+            trim(byPostId, evicted.getPostId(), oldest);
+            if (evicted.getActivityType() == ActivityType.ACTION) {
+                trim(byAction, evicted.getTitle(), oldest);
+            }
+            byType[evicted.getActivityType().ordinal()].trimBelow(oldest);
+            while (!byMinute.isEmpty() && byMinute.firstEntry().getValue()[1] < oldest) {
+                byMinute.pollFirstEntry();
+            }
+        }
+    }
+
+    ActivityPage<ActivityTrackingService.Activity> query(ActivityQuery query) {
+        long upper = ring.written() - 1;
+        if (query.getCursor() != null) {
+            upper = Math.min(upper, parseCursor(query.getCursor()) - 1);
+        }
+        long lower = ring.oldest();
+        List<ActivityTrackingService.Activity> found = new ArrayList<>();
+        int wanted = query.getLimit() + 1; // one more tells whether there is a next page
+
+        boolean filtered = query.getPostId() != null || query.getAction() != null || query.getTypes() != null;
+        if (query.getFrom() != null || query.getTo() != null) {
+            long[] range;
+            synchronized (this) {
+                range = sequenceRange(query);
+            }
+            if (range == null) {
+                return new ActivityPage<>(found, null);
+            }
+            lower = Math.max(lower, range[0]);
+            upper = Math.min(upper, range[1]);
+        }
+        if (!filtered) {
+            // Every retained activity is a candidate
+            for (long sequence = upper; sequence >= lower && found.size() < wanted; sequence--) {
+                collect(ring.get(sequence), query, found);
+            }
+        }
+        while (filtered && found.size() < wanted && upper >= lower) {
+            int needed = wanted - found.size();
+            long[] candidates;
+            synchronized (this) {
+                candidates = newest(sources(query), lower, upper, needed);
+            }
+            for (long sequence : candidates) {
+                collect(ring.get(sequence), query, found);
+            }
+            if (candidates.length < needed) {
+                break;
+            }
+            upper = candidates[candidates.length - 1] - 1;
+        }
+
+        String next = null;
+        if (found.size() > query.getLimit()) {
+            found.remove(found.size() - 1);
+            next = String.valueOf(found.get(found.size() - 1).sequence);
+        }
+        return new ActivityPage<>(found, next);
+    }
+
+    /**
+     * Lists holding every candidate of a filtered query
+     */
+    private List<Sequences> sources(ActivityQuery query) {
+        if (query.getPostId() != null) {
+            return List.of(byPostId.getOrDefault(query.getPostId(), Sequences.EMPTY));
+        }
+        if (query.getAction() != null) {
+            return List.of(byAction.getOrDefault(query.getAction(), Sequences.EMPTY));
+        }
+        List<Sequences> lists = new ArrayList<>(query.getTypes().size());
+        query.getTypes().forEach(type -> lists.add(byType[type.ordinal()]));
+        return lists;
+    }
+
+    /**
+     * Up to max sequence numbers between lower and upper, newest first,
+     * merged from the lists; a copy, so they can be resolved without the lock
+     */
+    private static long[] newest(List<Sequences> lists, long lower, long upper, int max) {
+        int[] positions = new int[lists.size()];
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = lists.get(i).floorIndex(upper);
+        }
+        long[] result = new long[max];
+        int count = 0;
+        while (count < max) {
+            int best = -1;
+            long bestSequence = lower - 1;
+            for (int i = 0; i < positions.length; i++) {
+                if (positions[i] >= 0 && lists.get(i).get(positions[i]) > bestSequence) {
+                    best = i;
+                    bestSequence = lists.get(i).get(positions[i]);
+                }
+            }
+            if (best < 0) {
+                break;
+            }
+            result[count++] = bestSequence;
+            positions[best]--;
+        }
+        return count == max ? result : Arrays.copyOf(result, count);
+    }
+
+    /**
+     * Sequences that can hold activities of the query's time range, null if none
+     */
+    private long[] sequenceRange(ActivityQuery query) {
+        long fromMinute = Math.floorDiv(query.fromMillis(), MINUTE_MILLIS);
+        long toMinute = Math.floorDiv(query.toMillis() - 1, MINUTE_MILLIS);
+        if (toMinute < fromMinute) {
+            return null;
+        }
+        NavigableMap<Long, long[]> buckets = byMinute.subMap(fromMinute, true, toMinute, true);
+        if (buckets.isEmpty()) {
+            return null;
+        }
+        long first = Long.MAX_VALUE;
+        long last = Long.MIN_VALUE;
+        for (long[] bucket : buckets.values()) {
+            first = Math.min(first, bucket[0]);
+            last = Math.max(last, bucket[1]);
+        }
+        return new long[] { first, last };
+    }
+
+    private static void collect(ActivityTrackingService.Activity activity, ActivityQuery query,
+            List<ActivityTrackingService.Activity> found) {
+        if (activity != null && matches(activity, query)) {
+            found.add(activity);
+        }
+    }
+
+    private static boolean matches(ActivityTrackingService.Activity activity, ActivityQuery query) {
+        long millis = activity.getTimestampMillis();
+        return query.matchesType(activity.getActivityType())
+                && millis >= query.fromMillis() && millis < query.toMillis()
+                && (query.getPostId() == null || query.getPostId().equals(activity.getPostId()))
+                && (query.getAction() == null || query.getAction().equals(activity.getTitle()));
+    }
+
+    private static long parseCursor(String cursor) {
+        try {
+            return Long.parseLong(cursor);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid activity cursor: " + cursor);
+        }
+    }
+
+    private static void add(Map<String, Sequences> index, String key, long sequence) {
+        if (key != null) {
+            index.computeIfAbsent(key, k -> new Sequences()).add(sequence);
+        }
+    }
+
+    private static void trim(Map<String, Sequences> index, String key, long oldest) {
+        if (key == null) {
+            return;
+        }
+        Sequences sequences = index.get(key);
+        if (sequences != null && sequences.trimBelow(oldest) == 0) {
+            index.remove(key);
+        }
+    }
+
+    /**
+     * Ascending sequence numbers; added at the back, trimmed from the front.
+     * Writers reach the index in about sequence order, and one that comes
+     * late is moved back into place.
+     */
+    private static class Sequences {
+        static final Sequences EMPTY = new Sequences();
+
+        private long[] values = new long[4];
+        private int head;
+        private int size;
+
+        void add(long sequence) {
+            if (head + size == values.length) {
+                if (head >= values.length / 2) {
+                    System.arraycopy(values, head, values, 0, size);
+                } else {
+                    values = Arrays.copyOfRange(values, head, head + values.length * 2);
+                }
+                head = 0;
+            }
+            int i = head + size++;
+            while (i > head && values[i - 1] > sequence) {
+                values[i] = values[i - 1];
+                i--;
+            }
+            values[i] = sequence;
+        }
+
+        /**
+         * Drop entries below oldest
+         *
+         * @return entries left
+         */
+        int trimBelow(long oldest) {
+            while (size > 0 && values[head] < oldest) {
+                head++;
+                size--;
+            }
+            if (size == 0) {
+                head = 0;
+            }
+            return size;
+        }
+
+        long get(int index) {
+            return values[head + index];
+        }
+
+        /**
+         * Index of the last entry <= sequence, -1 if none
+         */
+        int floorIndex(long sequence) {
+            int low = 0;
+            int high = size - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (get(mid) <= sequence) {
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return high;
+        }
+    }
+}
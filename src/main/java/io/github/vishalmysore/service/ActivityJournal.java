@@ -0,0 +1,757 @@
+package io.github.vishalmysore.service;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Durable, append-only activity history in memory-mapped segment files.
+ *
+ * Records are appended by one background thread, so tracking an activity
+ * only puts it on a bounded queue and never waits for the disk (a full queue
+ * drops the record and counts it). A segment is a fixed-size file named after
+ * the time of its first record. When a record no longer fits, the next
+ * segment is started, and segments beyond the retention age or count are
+ * deleted. New segments are written out in full when started, so a full disk
+ * fails the rollover with an IOException instead of faulting later inside
+ * the mapping. A record that cannot be written (e.g. the disk is full) is
+ * counted and skipped, and a segment that cannot be deleted is tried again
+ * on the next rollover; the writer keeps running either way.
+ *
+ * Record layout: int length (written last, 0 = end of data), long epoch
+ * millis, byte type, byte status, then postId and title (u16 length + UTF-8)
+ * and content (int length + UTF-8).
+ *
+ * Scans map segments read-only and skip non-matching records by their
+ * header, so only matching records are decoded onto the heap. Each segment
+ * also has a small summary (its types and a Bloom filter of postIds and
+ * action names), kept by the writer for the segment being written and built
+ * on first use for older ones; queries skip segments it rules out.
+ */
+@Slf4j
+public class ActivityJournal implements AutoCloseable {
+
+    private static final int MAGIC = 0x4d424a31; // "MBJ1"
+    private static final int HEADER_BYTES = 8;
+    private static final int RECORD_HEADER_BYTES = 4 + 8 + 1 + 1;
+    private static final String PREFIX = "activity-";
+    private static final String SUFFIX = ".seg";
+    private static final byte KEY_POST_ID = 'p';
+    private static final byte KEY_ACTION = 'a';
+    private static final Entry CLOSE = new Entry(0, null, null, null, null, null);
+
+    private final Path dir;
+    private final int segmentBytes;
+    private final Duration retention;
+    private final int maxSegments;
+    private final BlockingQueue<Entry> queue;
+    private final Thread writer;
+    private final LongAdder written = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private volatile int failedInARow;
+    private volatile String lastError;
+    private final Map<Path, SegmentIndex> segmentIndexes = new ConcurrentHashMap<>();
+
+    // Writer thread only
+    private FileChannel channel;
+    private MappedByteBuffer segment;
+    private SegmentIndex segmentIndex;
+    private long lastForce;
+    private long lastMillis;
+    private boolean dirty;
+
+    public ActivityJournal(Path dir, int segmentBytes, Duration retention, int maxSegments, int queueCapacity)
+            throws IOException {
+        this.dir = dir;
+        this.segmentBytes = Math.max(64 * 1024, segmentBytes);
+        this.retention = retention;
+        this.maxSegments = Math.max(1, maxSegments);
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+        Files.createDirectories(dir);
+        openLastSegment();
+        this.writer = new Thread(this::writeLoop, "moltbook-journal");
+        this.writer.setDaemon(true);
+        this.writer.start();
+        log.info("✓ Activity journal at {} ({} segments)", dir, segments().size());
+    }
+
+    /**
+     * Queue an activity for appending; returns at once
+     */
+    public void append(long timestampMillis, ActivityType type, String status, String postId, String title,
+            String content) {
+        if (!queue.offer(new Entry(timestampMillis, type, status, postId, title, content))) {
+            dropped.increment();
+        }
+    }
+
+    /**
+     * Visit records with from <= time < to whose type is in types (null = all),
+     * oldest first, until the visitor returns false
+     */
+    public void scan(Instant from, Instant to, Set<ActivityType> types, Predicate<JournalRecord> visitor)
+            throws IOException {
+        long fromMillis = from != null ? from.toEpochMilli() : Long.MIN_VALUE;
+        long toMillis = to != null ? to.toEpochMilli() : Long.MAX_VALUE;
+        List<Path> files = segments();
+        for (int i = 0; i < files.size(); i++) {
+            // A segment ends where the next one starts
+            if (i + 1 < files.size() && firstMillis(files.get(i + 1)) < fromMillis) {
+                continue;
+            }
+            if (firstMillis(files.get(i)) >= toMillis) {
+                break;
+            }
+            if (!scanSegment(files.get(i), fromMillis, toMillis, types, visitor)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Records matching the query, newest first, one page at a time. Segments
+     * outside the time range or ruled out by their summary are not read.
+     */
+    public ActivityPage<JournalRecord> query(ActivityQuery query) throws IOException {
+        long fromMillis = query.fromMillis();
+        long toMillis = query.toMillis();
+        byte[] postId = query.getPostId() != null ? query.getPostId().getBytes(StandardCharsets.UTF_8) : null;
+        byte[] action = query.getAction() != null ? query.getAction().getBytes(StandardCharsets.UTF_8) : null;
+        long postIdHash = postId != null ? SegmentIndex.hash(KEY_POST_ID, ByteBuffer.wrap(postId), 0, postId.length) : 0;
+        long actionHash = action != null ? SegmentIndex.hash(KEY_ACTION, ByteBuffer.wrap(action), 0, action.length) : 0;
+        long cursorSegment = Long.MAX_VALUE;
+        int cursorPosition = Integer.MAX_VALUE;
+        if (query.getCursor() != null) {
+            try {
+                int colon = query.getCursor().indexOf(':');
+                cursorSegment = Long.parseLong(query.getCursor().substring(0, colon));
+                cursorPosition = Integer.parseInt(query.getCursor().substring(colon + 1));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid journal cursor: " + query.getCursor());
+            }
+        }
+
+        int wanted = query.getLimit() + 1; // one more tells whether there is a next page
+        List<JournalRecord> found = new ArrayList<>();
+        String[] cursors = new String[wanted];
+        List<Path> files = segments();
+        for (int i = files.size() - 1; i >= 0 && found.size() < wanted; i--) {
+            Path file = files.get(i);
+            long first = firstMillis(file);
+            if (first > cursorSegment || first >= toMillis) {
+                continue;
+            }
+            // A segment ends where the next one starts
+            if (i + 1 < files.size() && firstMillis(files.get(i + 1)) < fromMillis) {
+                break;
+            }
+            ByteBuffer buffer = null;
+            SegmentIndex summary = segmentIndexes.get(file);
+            if (summary == null) {
+                buffer = mapForRead(file);
+                if (buffer == null) {
+                    continue;
+                }
+                summary = SegmentIndex.build(buffer);
+                segmentIndexes.putIfAbsent(file, summary);
+            }
+            if (!summary.mightMatch(query, postIdHash, actionHash)) {
+                continue;
+            }
+            if (buffer == null && (buffer = mapForRead(file)) == null) {
+                continue;
+            }
+            int before = first == cursorSegment ? cursorPosition : Integer.MAX_VALUE;
+            int[] positions = matchingPositions(file, buffer, query, postId, action, before);
+            for (int j = positions[0]; j >= 1 && found.size() < wanted; j--) {
+                int position = positions[j];
+                long millis = buffer.getLong(position + 4);
+                cursors[found.size()] = first + ":" + position;
+                found.add(decode(buffer, position, millis, ActivityType.ofOrdinal(buffer.get(position + 12))));
+            }
+        }
+
+        String next = null;
+        if (found.size() > query.getLimit()) {
+            found.remove(found.size() - 1);
+            next = cursors[found.size() - 1];
+        }
+        return new ActivityPage<>(found, next);
+    }
+
+    public long getWritten() {
+        return written.sum();
+    }
+
+    /**
+     * Records dropped because the write queue was full
+     */
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * Records lost because they could not be written
+     */
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    /**
+     * Most recent write or retention error, null if none
+     */
+    public String getLastError() {
+        return lastError;
+    }
+
+    /**
+     * True while the writer runs and its last record was written
+     */
+    public boolean isHealthy() {
+        return writer.isAlive() && failedInARow == 0;
+    }
+
+    public int getSegmentCount() throws IOException {
+        return segments().size();
+    }
+
+    /**
+     * Write what is queued, flush to disk and stop the writer
+     */
+    @Override
+    public void close() {
+        if (!writer.isAlive()) {
+            return;
+        }
+        try {
+            queue.put(CLOSE);
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void writeLoop() {
+        try {
+            while (true) {
+                Entry entry = queue.poll(1, TimeUnit.SECONDS);
+                if (entry == CLOSE) {
+                    break;
+                }
+                if (entry != null) {
+                    try {
+                        write(entry);
+                        failedInARow = 0;
+                    } catch (IOException | RuntimeException | InternalError e) {
+                        // Lose this record, not the writer; the next one starts a fresh segment.
+                        // InternalError is a fault writing through the mapping, e.g. into a
+                        // sparse segment left by an older version once the disk is full.
+                        failed.increment();
+                        lastError = e.toString();
+                        if (failedInARow++ == 0) {
+                            log.error("Activity journal write failed - skipping records until it recovers", e);
+                        }
+                        closeSegment();
+                        continue;
+                    }
+                }
+                long now = System.nanoTime();
+                // Flush when idle, and at least once a second while busy
+                if (dirty && (entry == null || now - lastForce > TimeUnit.SECONDS.toNanos(1))) {
+                    try {
+                        segment.force();
+                    } catch (RuntimeException e) {
+                        lastError = e.toString();
+                        log.warn("Failed to flush journal segment: {}", e.getMessage());
+                    }
+                    dirty = false;
+                    lastForce = now;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.error("Activity journal writer stopped", e);
+        } finally {
+            closeSegment();
+        }
+    }
+
+    private void write(Entry entry) throws IOException {
+        byte[] postId = utf8(entry.postId, Math.min(0xFFFF, segmentBytes / 16));
+        byte[] title = utf8(entry.title, Math.min(0xFFFF, segmentBytes / 16));
+        byte[] content = utf8(entry.content, segmentBytes / 4);
+        // Keep times non-decreasing so scans can stop at the end of the range
+        long millis = Math.max(entry.timestampMillis, lastMillis);
+        lastMillis = millis;
+        int length = RECORD_HEADER_BYTES + 2 + postId.length + 2 + title.length + 4 + content.length;
+        // Keep room for the zero length that ends the data
+        if (segment == null || segment.remaining() < length + 4) {
+            startSegment(millis);
+        }
+        int start = segment.position();
+        segment.position(start + 4);
+        segment.putLong(millis);
+        segment.put((byte) entry.type.ordinal());
+        segment.put((byte) ActivityStatus.of(entry.status).ordinal());
+        segment.putShort((short) postId.length).put(postId);
+        segment.putShort((short) title.length).put(title);
+        segment.putInt(content.length).put(content);
+        segmentIndex.add(segment, start);
+        // Length last: a record is only visible once it is complete
+        segment.putInt(start, length);
+        dirty = true;
+        written.increment();
+    }
+
+    private void openLastSegment() throws IOException {
+        List<Path> files = segments();
+        if (files.isEmpty()) {
+            return;
+        }
+        mapForWrite(files.get(files.size() - 1));
+        int position = HEADER_BYTES;
+        while (position + RECORD_HEADER_BYTES <= segment.limit()) {
+            int length = segment.getInt(position);
+            if (length <= 0 || position + length > segment.limit()) {
+                break;
+            }
+            lastMillis = segment.getLong(position + 4);
+            segmentIndex.add(segment, position);
+            position += length;
+        }
+        segment.position(position);
+    }
+
+    private void startSegment(long firstMillis) throws IOException {
+        closeSegment();
+        Path file = dir.resolve(String.format("%s%019d%s", PREFIX, firstMillis, SUFFIX));
+        while (Files.exists(file)) {
+            file = dir.resolve(String.format("%s%019d%s", PREFIX, ++firstMillis, SUFFIX));
+        }
+        mapForWrite(file);
+        segment.putInt(MAGIC).putInt(0);
+        applyRetention();
+    }
+
+    private void mapForWrite(Path file) throws IOException {
+        boolean created = !Files.exists(file);
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            preallocate(channel);
+        } catch (IOException e) {
+            closeSegment();
+            if (created) {
+                Files.deleteIfExists(file); // don't leave a partial segment per failed record
+            }
+            throw e;
+        }
+        segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+        segmentIndex = new SegmentIndex();
+        segmentIndexes.put(file, segmentIndex);
+    }
+
+    /**
+     * Write zeros up to the segment size, so every page of the mapping has
+     * disk space behind it
+     */
+    private void preallocate(FileChannel file) throws IOException {
+        ByteBuffer zeros = ByteBuffer.allocate(64 * 1024);
+        long position = file.size();
+        while (position < segmentBytes) {
+            zeros.clear().limit((int) Math.min(zeros.capacity(), segmentBytes - position));
+            position += file.write(zeros, position);
+        }
+    }
+
+    private void closeSegment() {
+        if (segment != null) {
+            try {
+                segment.force();
+            } catch (RuntimeException e) {
+                log.warn("Failed to flush journal segment: {}", e.getMessage());
+            }
+            segment = null;
+            dirty = false;
+        }
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                log.warn("Failed to close journal segment: {}", e.getMessage());
+            }
+            channel = null;
+        }
+    }
+
+    private void applyRetention() {
+        List<Path> files;
+        try {
+            files = segments();
+        } catch (IOException e) {
+            lastError = e.toString();
+            log.warn("Journal retention skipped - cannot list {}: {}", dir, e.getMessage());
+            return;
+        }
+        long cutoff = System.currentTimeMillis() - retention.toMillis();
+        // Never the newest segment, which is the one being written
+        for (int i = 0; i < files.size() - 1; i++) {
+            boolean tooMany = files.size() - i > maxSegments;
+            boolean tooOld = !retention.isZero() && firstMillis(files.get(i + 1)) < cutoff;
+            if (!tooMany && !tooOld) {
+                break;
+            }
+            try {
+                Files.deleteIfExists(files.get(i));
+                segmentIndexes.remove(files.get(i));
+                log.debug("Deleted journal segment {}", files.get(i).getFileName());
+            } catch (IOException e) {
+                lastError = e.toString();
+                log.warn("Failed to delete journal segment {}: {}", files.get(i).getFileName(), e.toString());
+            }
+        }
+    }
+
+    private boolean scanSegment(Path file, long fromMillis, long toMillis, Set<ActivityType> types,
+            Predicate<JournalRecord> visitor) throws IOException {
+        ByteBuffer buffer = mapForRead(file);
+        if (buffer == null) {
+            return true;
+        }
+        int position = HEADER_BYTES;
+        try {
+            while (position + RECORD_HEADER_BYTES <= buffer.limit()) {
+                int length = buffer.getInt(position);
+                if (length <= 0 || position + length > buffer.limit()) {
+                    break;
+                }
+                long millis = buffer.getLong(position + 4);
+                if (millis >= toMillis) {
+                    return false;
+                }
+                ActivityType type = ActivityType.ofOrdinal(buffer.get(position + 12));
+                if (millis >= fromMillis && (types == null || types.contains(type))) {
+                    if (!visitor.test(decode(buffer, position, millis, type))) {
+                        return false;
+                    }
+                }
+                position += length;
+            }
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            log.warn("Stopped reading damaged journal segment {} at {}", file.getFileName(), position);
+        }
+        return true;
+    }
+
+    /**
+     * Positions of matching records before the given one, oldest first;
+     * element 0 holds the count
+     */
+    private static int[] matchingPositions(Path file, ByteBuffer buffer, ActivityQuery query, byte[] postId,
+            byte[] action, int before) {
+        int[] positions = new int[16];
+        int count = 0;
+        int position = HEADER_BYTES;
+        try {
+            while (position < before && position + RECORD_HEADER_BYTES <= buffer.limit()) {
+                int length = buffer.getInt(position);
+                if (length <= 0 || position + length > buffer.limit()) {
+                    break;
+                }
+                long millis = buffer.getLong(position + 4);
+                if (millis >= query.toMillis()) {
+                    break;
+                }
+                if (millis >= query.fromMillis() && matches(buffer, position, query, postId, action)) {
+                    if (++count == positions.length) {
+                        positions = Arrays.copyOf(positions, positions.length * 2);
+                    }
+                    positions[count] = position;
+                }
+                position += length;
+            }
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            log.warn("Stopped reading damaged journal segment {} at {}", file.getFileName(), position);
+        }
+        positions[0] = count;
+        return positions;
+    }
+
+    private static boolean matches(ByteBuffer buffer, int position, ActivityQuery query, byte[] postId,
+            byte[] action) {
+        if (!query.matchesType(ActivityType.ofOrdinal(buffer.get(position + 12)))) {
+            return false;
+        }
+        int postIdLength = buffer.getShort(position + 14) & 0xFFFF;
+        if (postId != null && !equalsAt(buffer, position + 16, postIdLength, postId)) {
+            return false;
+        }
+        int titleAt = position + 16 + postIdLength;
+        return action == null || equalsAt(buffer, titleAt + 2, buffer.getShort(titleAt) & 0xFFFF, action);
+    }
+
+    private static boolean equalsAt(ByteBuffer buffer, int offset, int length, byte[] expected) {
+        if (length != expected.length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (buffer.get(offset + i) != expected[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Map a segment read-only, null if it is not a journal segment
+     */
+    private static ByteBuffer mapForRead(Path file) throws IOException {
+        ByteBuffer buffer;
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            buffer = in.map(FileChannel.MapMode.READ_ONLY, 0, in.size());
+        }
+        if (buffer.limit() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            return null;
+        }
+        return buffer;
+    }
+
+    private static JournalRecord decode(ByteBuffer buffer, int position, long millis, ActivityType type) {
+        ByteBuffer record = buffer.duplicate();
+        record.position(position + 13);
+        String status = ActivityStatus.ofOrdinal(record.get()).label();
+        String postId = string(record, record.getShort() & 0xFFFF);
+        String title = string(record, record.getShort() & 0xFFFF);
+        String content = string(record, record.getInt());
+        return new JournalRecord(Instant.ofEpochMilli(millis), type, status, postId, title, content);
+    }
+
+    private List<Path> segments() throws IOException {
+        if (!Files.isDirectory(dir)) {
+            return Collections.emptyList();
+        }
+        List<Path> files = new ArrayList<>();
+        try (Stream<Path> list = Files.list(dir)) {
+            list.filter(p -> p.getFileName().toString().startsWith(PREFIX)
+                    && p.getFileName().toString().endsWith(SUFFIX)).forEach(files::add);
+        }
+        Collections.sort(files);
+        return files;
+    }
+
+    private static long firstMillis(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), PREFIX.length() + 19));
+    }
+
+    private static byte[] utf8(String value, int maxBytes) {
+        if (value == null) {
+            return new byte[0];
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length <= maxBytes) {
+            return bytes;
+        }
+        int end = maxBytes;
+        while (end > 0 && (bytes[end] & 0xC0) == 0x80) {
+            end--; // don't cut a character in half
+        }
+        byte[] truncated = new byte[end];
+        System.arraycopy(bytes, 0, truncated, 0, end);
+        return truncated;
+    }
+
+    private static String string(ByteBuffer buffer, int length) {
+        if (length == 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * What one segment holds: a bit per type and a Bloom filter of postIds
+     * and action names. Written by the writer thread only.
+     */
+    private static class SegmentIndex {
+        private static final int BLOOM_BITS = 1 << 16; // 8 KB per segment
+        private static final int PROBES = 3;
+
+        private final AtomicLongArray bloom = new AtomicLongArray(BLOOM_BITS / 64);
+        private volatile int types;
+
+        static SegmentIndex build(ByteBuffer buffer) {
+            SegmentIndex index = new SegmentIndex();
+            int position = HEADER_BYTES;
+            try {
+                while (position + RECORD_HEADER_BYTES <= buffer.limit()) {
+                    int length = buffer.getInt(position);
+                    if (length <= 0 || position + length > buffer.limit()) {
+                        break;
+                    }
+                    index.add(buffer, position);
+                    position += length;
+                }
+            } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+                // damaged tail, the scan reports it
+            }
+            return index;
+        }
+
+        /**
+         * Add the record at position
+         */
+        void add(ByteBuffer buffer, int position) {
+            ActivityType type = ActivityType.ofOrdinal(buffer.get(position + 12));
+            types |= 1 << type.ordinal();
+            int postIdLength = buffer.getShort(position + 14) & 0xFFFF;
+            if (postIdLength > 0) {
+                addKey(hash(KEY_POST_ID, buffer, position + 16, postIdLength));
+            }
+            int titleAt = position + 16 + postIdLength;
+            int titleLength = buffer.getShort(titleAt) & 0xFFFF;
+            if (type == ActivityType.ACTION && titleLength > 0) {
+                addKey(hash(KEY_ACTION, buffer, titleAt + 2, titleLength));
+            }
+        }
+
+        boolean mightMatch(ActivityQuery query, long postIdHash, long actionHash) {
+            boolean anyType = false;
+            for (ActivityType type : ActivityType.values()) {
+                anyType |= (types & 1 << type.ordinal()) != 0 && query.matchesType(type);
+            }
+            return anyType && (query.getPostId() == null || mightContain(postIdHash))
+                    && (query.getAction() == null || mightContain(actionHash));
+        }
+
+        private void addKey(long hash) {
+            for (int i = 0; i < PROBES; i++) {
+                int bit = bit(hash, i);
+                bloom.getAndAccumulate(bit >>> 6, 1L << bit, (a, b) -> a | b);
+            }
+        }
+
+        private boolean mightContain(long hash) {
+            for (int i = 0; i < PROBES; i++) {
+                int bit = bit(hash, i);
+                if ((bloom.get(bit >>> 6) & 1L << bit) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static int bit(long hash, int probe) {
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32) | 1;
+            return (h1 + probe * h2) & (BLOOM_BITS - 1);
+        }
+
+        /**
+         * FNV-1a over the key bytes, finished with a 64-bit mix
+         */
+        static long hash(byte kind, ByteBuffer buffer, int offset, int length) {
+            long h = 0xcbf29ce484222325L;
+            h = (h ^ kind) * 0x100000001b3L;
+            for (int i = 0; i < length; i++) {
+                h = (h ^ (buffer.get(offset + i) & 0xFF)) * 0x100000001b3L;
+            }
+            h ^= h >>> 33;
+            h *= 0xff51afd7ed558ccdL;
+            h ^= h >>> 33;
+            return h;
+        }
+    }
+
+    private static class Entry {
+        final long timestampMillis;
+        final ActivityType type;
+        final String status;
+        final String postId;
+        final String title;
+        final String content;
+
+        Entry(long timestampMillis, ActivityType type, String status, String postId, String title,
+                String content) {
+            this.timestampMillis = timestampMillis;
+            this.type = type;
+            this.status = status;
+            this.postId = postId;
+            this.title = title;
+            this.content = content;
+        }
+    }
+
+    /**
+     * One activity read back from the journal
+     */
+    public static class JournalRecord {
+        private final Instant timestamp;
+        private final ActivityType type;
+        private final String status;
+        private final String postId;
+        private final String title;
+        private final String content;
+
+        JournalRecord(Instant timestamp, ActivityType type, String status, String postId, String title,
+                String content) {
+            this.timestamp = timestamp;
+            this.type = type;
+            this.status = status;
+            this.postId = postId;
+            this.title = title;
+            this.content = content;
+        }
+
+        public Instant getTimestamp() {
+            return timestamp;
+        }
+
+        public ActivityType getType() {
+            return type;
+        }
+
+        public String getStatus() {
+            return status;
+        }
+
+        public String getPostId() {
+            return postId;
+        }
+
+        public String getTitle() {
+            return title;
+        }
+
+        public String getContent() {
+            return content;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package io.github.vishalmysore.service;
+
+import java.util.List;
+
+/**
+ * One page of query results, newest first
+ */
+public class ActivityPage<T> {
+
+    private final List<T> items;
+    private final String nextCursor;
+
+    ActivityPage(List<T> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    /**
+     * Pass to ActivityQuery.after for the next page; null on the last page
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasMore() {
+        return nextCursor != null;
+    }
+}
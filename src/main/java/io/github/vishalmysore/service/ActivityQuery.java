@@ -0,0 +1,116 @@
+package io.github.vishalmysore.service;
+
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Filter and page of an activity query, for both the retained activities
+ * (ActivityTrackingService.query) and the journal (ActivityJournal.query).
+ * All conditions must match; unset ones match everything. Results come
+ * newest first, limit at a time; pass the page's next cursor to continue.
+ */
+public class ActivityQuery {
+
+    private String postId;
+    private String action;
+    private Set<ActivityType> types;
+    private Instant from;
+    private Instant to;
+    private int limit = 50;
+    private String cursor;
+
+    public static ActivityQuery all() {
+        return new ActivityQuery();
+    }
+
+    public ActivityQuery postId(String postId) {
+        this.postId = postId;
+        return this;
+    }
+
+    /**
+     * Actions of this name (trackAction's actionName)
+     */
+    public ActivityQuery action(String action) {
+        this.action = action;
+        return this;
+    }
+
+    public ActivityQuery types(ActivityType first, ActivityType... rest) {
+        this.types = EnumSet.of(first, rest);
+        return this;
+    }
+
+    /**
+     * Inclusive
+     */
+    public ActivityQuery from(Instant from) {
+        this.from = from;
+        return this;
+    }
+
+    /**
+     * Exclusive
+     */
+    public ActivityQuery to(Instant to) {
+        this.to = to;
+        return this;
+    }
+
+    public ActivityQuery limit(int limit) {
+        this.limit = Math.max(1, limit);
+        return this;
+    }
+
+    /**
+     * Continue after a previous page; null = from the newest
+     */
+    public ActivityQuery after(String cursor) {
+        this.cursor = cursor;
+        return this;
+    }
+
+    public String getPostId() {
+        return postId;
+    }
+
+    public String getAction() {
+        return action;
+    }
+
+    public Set<ActivityType> getTypes() {
+        return types;
+    }
+
+    public Instant getFrom() {
+        return from;
+    }
+
+    public Instant getTo() {
+        return to;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public String getCursor() {
+        return cursor;
+    }
+
+    long fromMillis() {
+        return from != null ? from.toEpochMilli() : Long.MIN_VALUE;
+    }
+
+    long toMillis() {
+        return to != null ? to.toEpochMilli() : Long.MAX_VALUE;
+    }
+
+    boolean matchesType(ActivityType type) {
+        if (action != null && type != ActivityType.ACTION) {
+            return false;
+        }
+        return types == null || types.contains(type);
+    }
+}
@@ -0,0 +1,111 @@
+package io.github.vishalmysore.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Fixed-size, lock-free store of the most recent activities.
+ *
+ * Writers claim a sequence number from one shared counter and write the
+ * activity into its slot, overwriting the one from a full lap earlier. A
+ * write is one increment plus one slot compare-and-set, and the slot array
+ * is allocated once. A writer delayed so long that another writer lapped it
+ * finds a newer entry in its slot and leaves it there: its own activity is
+ * already outside the window, so a slot never goes back to an older lap.
+ * Each activity carries its sequence number, so a reader can tell an entry
+ * of the lap it expects from one that is not written yet or already
+ * overwritten and skips those: a snapshot never repeats or mixes up entries.
+ */
+class ActivityRing {
+
+    private final int capacity;
+    private final int mask;
+    private final AtomicReferenceArray<ActivityTrackingService.Activity> slots;
+    private final AtomicLong next = new AtomicLong();
+
+    /**
+     * @param capacity rounded up to a power of two
+     */
+    ActivityRing(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        this.capacity = size;
+        this.mask = size - 1;
+        this.slots = new AtomicReferenceArray<>(size);
+    }
+
+    /**
+     * Store an activity
+     *
+     * @return the activity it overwrote, the activity itself if it was lapped
+     *         before it could be stored, or null while the ring is filling up
+     */
+    ActivityTrackingService.Activity add(ActivityTrackingService.Activity activity) {
+        return store(next.getAndIncrement(), activity);
+    }
+
+    /**
+     * Write an activity under a sequence number already claimed
+     */
+    ActivityTrackingService.Activity store(long sequence, ActivityTrackingService.Activity activity) {
+        activity.sequence = sequence;
+        int slot = (int) (sequence & mask);
+        while (true) {
+            ActivityTrackingService.Activity current = slots.get(slot);
+            if (current != null && current.sequence > sequence) {
+                return activity;
+            }
+            if (slots.compareAndSet(slot, current, activity)) {
+                return current;
+            }
+        }
+    }
+
+    /**
+     * Up to max activities, newest first
+     */
+    List<ActivityTrackingService.Activity> snapshot(int max) {
+        long end = next.get();
+        long start = Math.max(0, end - Math.min(capacity, max));
+        List<ActivityTrackingService.Activity> result = new ArrayList<>((int) (end - start));
+        for (long sequence = end - 1; sequence >= start; sequence--) {
+            ActivityTrackingService.Activity activity = slots.get((int) (sequence & mask));
+            if (activity != null && activity.sequence == sequence) {
+                result.add(activity);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * The activity with this sequence number, null if not written yet or
+     * already overwritten
+     */
+    ActivityTrackingService.Activity get(long sequence) {
+        ActivityTrackingService.Activity activity = slots.get((int) (sequence & mask));
+        return activity != null && activity.sequence == sequence ? activity : null;
+    }
+
+    /**
+     * Sequence number of the oldest activity still retained
+     */
+    long oldest() {
+        return Math.max(0, next.get() - capacity);
+    }
+
+    int size() {
+        return (int) Math.min(next.get(), capacity);
+    }
+
+    int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Activities ever written, including overwritten ones
+     */
+    long written() {
+        return next.get();
+    }
+}
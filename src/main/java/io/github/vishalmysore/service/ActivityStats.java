@@ -0,0 +1,156 @@
+package io.github.vishalmysore.service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Activity counters kept up to date on every write, so reading them is O(1).
+ *
+ * Retained counts cover what the ActivityRing still holds: they go up on a
+ * write and down for the activity it overwrote. Lifetime counts only go up.
+ * Per-minute rollups cover the last ROLLUP_MINUTES minutes. All counters are
+ * striped LongAdders, so concurrent writers do not contend on one value.
+ */
+public class ActivityStats {
+
+    static final int ROLLUP_MINUTES = 60;
+
+    private final LongAdder[] retained = adders();
+    private final LongAdder[] lifetime = adders();
+    private final MinuteBucket[] minutes = new MinuteBucket[ROLLUP_MINUTES];
+    private final AtomicLong lastActivityMillis = new AtomicLong();
+
+    ActivityStats() {
+        for (int i = 0; i < minutes.length; i++) {
+            minutes[i] = new MinuteBucket();
+        }
+    }
+
+    void onWrite(ActivityType type, long timestampMillis, ActivityType evicted) {
+        retained[type.ordinal()].increment();
+        lifetime[type.ordinal()].increment();
+        if (evicted != null) {
+            retained[evicted.ordinal()].decrement();
+        }
+        lastActivityMillis.accumulateAndGet(timestampMillis, Math::max);
+
+        long minute = timestampMillis / 60_000;
+        MinuteBucket bucket = minutes[(int) (minute % ROLLUP_MINUTES)];
+        bucket.rollTo(minute);
+        bucket.counts[type.ordinal()].increment();
+    }
+
+    long retained(ActivityType type) {
+        return retained[type.ordinal()].sum();
+    }
+
+    long retainedTotal() {
+        return total(retained);
+    }
+
+    long lifetime(ActivityType type) {
+        return lifetime[type.ordinal()].sum();
+    }
+
+    long lifetimeTotal() {
+        return total(lifetime);
+    }
+
+    /**
+     * Time of the newest activity, or null if there was none
+     */
+    LocalDateTime lastActivity() {
+        long millis = lastActivityMillis.get();
+        return millis == 0 ? null : LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+    }
+
+    /**
+     * Activities of the last count minutes (at most ROLLUP_MINUTES), oldest first
+     */
+    List<MinuteRollup> rollups(int count, long nowMillis) {
+        long current = nowMillis / 60_000;
+        int n = Math.min(Math.max(0, count), ROLLUP_MINUTES);
+        List<MinuteRollup> result = new ArrayList<>(n);
+        for (long minute = current - n + 1; minute <= current; minute++) {
+            MinuteBucket bucket = minutes[(int) (minute % ROLLUP_MINUTES)];
+            Map<ActivityType, Long> counts = new EnumMap<>(ActivityType.class);
+            if (bucket.minute == minute) {
+                for (int t = 0; t < ActivityType.count(); t++) {
+                    long value = bucket.counts[t].sum();
+                    if (value > 0) {
+                        counts.put(ActivityType.ofOrdinal(t), value);
+                    }
+                }
+            }
+            result.add(new MinuteRollup(
+                    LocalDateTime.ofInstant(Instant.ofEpochMilli(minute * 60_000), ZoneId.systemDefault()), counts));
+        }
+        return result;
+    }
+
+    private static LongAdder[] adders() {
+        LongAdder[] adders = new LongAdder[ActivityType.count()];
+        for (int i = 0; i < adders.length; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+    private static long total(LongAdder[] adders) {
+        long sum = 0;
+        for (LongAdder adder : adders) {
+            sum += adder.sum();
+        }
+        return sum;
+    }
+
+    private static class MinuteBucket {
+        volatile long minute = -1;
+        final LongAdder[] counts = adders();
+
+        void rollTo(long newMinute) {
+            if (minute != newMinute) {
+                synchronized (this) {
+                    if (minute < newMinute) {
+                        for (LongAdder count : counts) {
+                            count.reset();
+                        }
+                        minute = newMinute;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Activities per type in one minute
+     */
+    public static class MinuteRollup {
+        private final LocalDateTime minute;
+        private final Map<ActivityType, Long> counts;
+
+        MinuteRollup(LocalDateTime minute, Map<ActivityType, Long> counts) {
+            this.minute = minute;
+            this.counts = counts;
+        }
+
+        public LocalDateTime getMinute() {
+            return minute;
+        }
+
+        public Map<ActivityType, Long> getCounts() {
+            return counts;
+        }
+
+        public long getTotal() {
+            return counts.values().stream().mapToLong(Long::longValue).sum();
+        }
+    }
+}
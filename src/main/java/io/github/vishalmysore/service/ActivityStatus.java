@@ -0,0 +1,32 @@
+package io.github.vishalmysore.service;
+
+/**
+ * Outcome of a tracked activity; the ordinal is the stored code
+ */
+enum ActivityStatus {
+    NONE, SUCCESS, FAILED;
+
+    private static final ActivityStatus[] VALUES = values();
+
+    static ActivityStatus of(boolean success) {
+        return success ? SUCCESS : FAILED;
+    }
+
+    static ActivityStatus of(String name) {
+        if ("SUCCESS".equals(name)) {
+            return SUCCESS;
+        }
+        return "FAILED".equals(name) ? FAILED : NONE;
+    }
+
+    static ActivityStatus ofOrdinal(int ordinal) {
+        return ordinal >= 0 && ordinal < VALUES.length ? VALUES[ordinal] : NONE;
+    }
+
+    /**
+     * SUCCESS or FAILED, null for NONE
+     */
+    String label() {
+        return this == NONE ? null : name();
+    }
+}
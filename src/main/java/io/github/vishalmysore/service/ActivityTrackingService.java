@@ -1,30 +1,70 @@
 package io.github.vishalmysore.service;
 
+import io.github.vishalmysore.config.MoltbookConfig;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
-import java.util.concurrent.ConcurrentLinkedDeque;
 
 @Service
+@Slf4j
 public class ActivityTrackingService {
 
-    private final ConcurrentLinkedDeque<Activity> activities = new ConcurrentLinkedDeque<>();
-    private static final int MAX_ACTIVITIES = 100;
+    private final ActivityRing activities;
+    private final ActivityIndex index;
+    private final ActivityStats stats = new ActivityStats();
+    private final ActivityJournal journal; // null when not configured
+    private final int maxContentBytes;
+    private final ContentInterner interner; // null when dedupe is off
+
+    public ActivityTrackingService() {
+        this(new MoltbookConfig());
+    }
+
+    @Autowired
+    public ActivityTrackingService(MoltbookConfig config) {
+        this(config, config.getActivity().getJournalDir() == null || config.getActivity().getJournalDir().isBlank()
+                ? null
+                : Path.of(config.getActivity().getJournalDir()));
+    }
+
+    /**
+     * @param journalDir where the durable journal goes, null = memory only
+     */
+    public ActivityTrackingService(MoltbookConfig config, Path journalDir) {
+        MoltbookConfig.Activity activityConfig = config.getActivity();
+        this.activities = new ActivityRing(activityConfig.getCapacity());
+        this.index = new ActivityIndex(activities);
+        this.maxContentBytes = Math.max(1, activityConfig.getMaxContentBytes());
+        this.interner = activityConfig.isDedupeContent() ? new ContentInterner(activityConfig.getDedupeSlots()) : null;
+        ActivityJournal opened = null;
+        if (journalDir != null) {
+            try {
+                opened = new ActivityJournal(journalDir, activityConfig.getJournalSegmentBytes(),
+                        Duration.ofDays(Math.max(0, activityConfig.getJournalRetentionDays())),
+                        activityConfig.getJournalMaxSegments(), activityConfig.getJournalQueueCapacity());
+            } catch (Exception e) {
+                log.warn("Activity journal disabled - cannot open {}: {}", journalDir, e.getMessage());
+            }
+        }
+        this.journal = opened;
+    }
 
     public void trackPost(String postId, String title, String content) {
         trackPost(postId, title, content, true);
     }
 
     public void trackPost(String postId, String title, String content, boolean success) {
-        Activity activity = new Activity();
-        activity.type = "POST";
-        activity.postId = postId;
-        activity.title = title;
-        activity.content = content;
-        activity.status = success ? "SUCCESS" : "FAILED";
-        activity.timestamp = LocalDateTime.now();
-        addActivity(activity);
+        record(ActivityType.POST, ActivityStatus.of(success), postId, title, content);
     }
 
     public void trackComment(String postId, String postTitle, String comment) {
@@ -32,104 +72,228 @@ public class ActivityTrackingService {
     }
 
     public void trackComment(String postId, String postTitle, String comment, boolean success) {
-        Activity activity = new Activity();
-        activity.type = "COMMENT";
-        activity.postId = postId;
-        activity.title = postTitle;
-        activity.content = comment;
-        activity.status = success ? "SUCCESS" : "FAILED";
-        activity.timestamp = LocalDateTime.now();
-        addActivity(activity);
+        record(ActivityType.COMMENT, ActivityStatus.of(success), postId, postTitle, comment);
     }
 
     public void trackObservation(String postId, String postTitle) {
-        Activity activity = new Activity();
-        activity.type = "OBSERVE";
-        activity.postId = postId;
-        activity.title = postTitle;
-        activity.content = "Observed but took no action";
-        activity.timestamp = LocalDateTime.now();
-        addActivity(activity);
+        record(ActivityType.OBSERVE, ActivityStatus.NONE, postId, postTitle, "Observed but took no action");
     }
 
     public void trackError(String errorMessage) {
-        Activity activity = new Activity();
-        activity.type = "ERROR";
-        activity.title = "Error occurred";
-        activity.content = errorMessage;
-        activity.timestamp = LocalDateTime.now();
-        addActivity(activity);
+        record(ActivityType.ERROR, ActivityStatus.NONE, null, "Error occurred", errorMessage);
     }
 
     public void trackLog(String message) {
-        Activity activity = new Activity();
-        activity.type = "INFO";
-        activity.title = "System Log";
-        activity.content = message;
-        activity.timestamp = LocalDateTime.now();
-        addActivity(activity);
+        record(ActivityType.INFO, ActivityStatus.NONE, null, "System Log", message);
     }
 
     public void trackAction(String actionName, String details, String response, boolean success) {
-        Activity activity = new Activity();
-        activity.type = "ACTION";
-        activity.title = actionName;
-        activity.content = details + "\nResponse: " + response;
-        activity.status = success ? "SUCCESS" : "FAILED";
-        activity.timestamp = LocalDateTime.now();
-        addActivity(activity);
+        record(ActivityType.ACTION, ActivityStatus.of(success), null, actionName,
+                details + "\nResponse: " + response);
+    }
+
+    private void record(ActivityType type, ActivityStatus status, String postId, String title, String content) {
+        long now = System.currentTimeMillis();
+        byte[] encoded = null;
+        boolean truncated = false;
+        if (content != null) {
+            // every char takes at least one byte, so longer content is cut before encoding it whole
+            String head = content.length() > maxContentBytes
+                    ? content.substring(0, Character.isHighSurrogate(content.charAt(maxContentBytes - 1))
+                            ? maxContentBytes - 1 : maxContentBytes)
+                    : content;
+            encoded = head.getBytes(StandardCharsets.UTF_8);
+            truncated = head.length() < content.length() || encoded.length > maxContentBytes;
+            encoded = cut(encoded, maxContentBytes);
+            if (interner != null) {
+                encoded = interner.intern(encoded);
+            }
+        }
+        Activity evicted = index.add(new Activity(type, status, now, postId, title, encoded, truncated));
+        stats.onWrite(type, now, evicted != null ? evicted.getActivityType() : null);
+        if (journal != null) {
+            // the journal keeps the full content, the ring only a capped copy
+            journal.append(now, type, status.label(), postId, title, content);
+        }
     }
 
-    private void addActivity(Activity activity) {
-        activities.addFirst(activity);
-        if (activities.size() > MAX_ACTIVITIES) {
-            activities.removeLast();
+    private static byte[] cut(byte[] bytes, int maxBytes) {
+        if (bytes.length <= maxBytes) {
+            return bytes;
+        }
+        int end = maxBytes;
+        while (end > 0 && (bytes[end] & 0xC0) == 0x80) {
+            end--; // don't cut a character in half
         }
+        return Arrays.copyOf(bytes, end);
     }
 
+    /**
+     * Durable history beyond the retained window, or null if not configured
+     */
+    public ActivityJournal getJournal() {
+        return journal;
+    }
+
+    @PreDestroy
+    public void close() {
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    /**
+     * Retained activities, newest first
+     */
     public List<Activity> getRecentActivities() {
-        return new ArrayList<>(activities);
+        return activities.snapshot(Integer.MAX_VALUE);
+    }
+
+    /**
+     * The newest max activities, newest first
+     */
+    public List<Activity> getRecentActivities(int max) {
+        return activities.snapshot(max);
+    }
+
+    /**
+     * Retained activities matching the query, newest first, one page at a
+     * time; served from indexes kept on write, without copying the log.
+     * getJournal().query takes the same query for the durable history.
+     */
+    public ActivityPage<Activity> query(ActivityQuery query) {
+        return index.query(query);
     }
 
+    /**
+     * Counts for the retained window (total*) and since startup (lifetime*);
+     * O(1), read from counters kept up to date on every write
+     */
     public Map<String, Object> getStats() {
-        Map<String, Object> stats = new HashMap<>();
-        long posts = activities.stream().filter(a -> "POST".equals(a.type)).count();
-        long comments = activities.stream().filter(a -> "COMMENT".equals(a.type)).count();
-        long observations = activities.stream().filter(a -> "OBSERVE".equals(a.type)).count();
-        long errors = activities.stream().filter(a -> "ERROR".equals(a.type)).count();
-
-        stats.put("totalPosts", posts);
-        stats.put("totalComments", comments);
-        stats.put("totalObservations", observations);
-        stats.put("totalErrors", errors);
-        stats.put("totalActivities", activities.size());
-
-        if (!activities.isEmpty()) {
-            stats.put("lastActivity", activities.getFirst().timestamp.format(
+        Map<String, Object> result = new HashMap<>();
+        result.put("totalPosts", stats.retained(ActivityType.POST));
+        result.put("totalComments", stats.retained(ActivityType.COMMENT));
+        result.put("totalObservations", stats.retained(ActivityType.OBSERVE));
+        result.put("totalErrors", stats.retained(ActivityType.ERROR));
+        result.put("totalActivities", stats.retainedTotal());
+
+        result.put("lifetimePosts", stats.lifetime(ActivityType.POST));
+        result.put("lifetimeComments", stats.lifetime(ActivityType.COMMENT));
+        result.put("lifetimeObservations", stats.lifetime(ActivityType.OBSERVE));
+        result.put("lifetimeErrors", stats.lifetime(ActivityType.ERROR));
+        result.put("lifetimeActivities", stats.lifetimeTotal());
+
+        LocalDateTime lastActivity = stats.lastActivity();
+        if (lastActivity != null) {
+            result.put("lastActivity", lastActivity.format(
                     DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")));
         } else {
-            stats.put("lastActivity", "No activity yet");
+            result.put("lastActivity", "No activity yet");
         }
 
-        return stats;
+        if (journal != null) {
+            result.put("journalHealthy", journal.isHealthy());
+            result.put("journalDropped", journal.getDropped());
+            result.put("journalFailed", journal.getFailed());
+        }
+
+        return result;
+    }
+
+    /**
+     * Activities per type for each of the last minutes (up to an hour),
+     * oldest first
+     */
+    public List<ActivityStats.MinuteRollup> getMinuteRollups(int minutes) {
+        return stats.rollups(minutes, System.currentTimeMillis());
     }
 
+    /**
+     * One tracked activity, kept compact: type and status as enum ordinals,
+     * the time as epoch millis and the content as capped UTF-8 bytes. The
+     * getters decode on access.
+     */
     public static class Activity {
-        public String type;
-        public String postId;
-        public String title;
-        public String content;
-        public String status; // SUCCESS, FAILED
-        public LocalDateTime timestamp;
+        private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("MMM dd, HH:mm:ss");
+        private static final int SHORT_CONTENT_CHARS = 200;
+
+        private final byte type;
+        private final byte status;
+        private final boolean truncated;
+        private final long timestampMillis;
+        private final String postId;
+        private final String title;
+        private final byte[] content; // UTF-8, null if none
+        long sequence; // position in the ActivityRing
+
+        Activity(ActivityType type, ActivityStatus status, long timestampMillis, String postId, String title,
+                byte[] content, boolean truncated) {
+            this.type = (byte) type.ordinal();
+            this.status = (byte) status.ordinal();
+            this.timestampMillis = timestampMillis;
+            this.postId = postId;
+            this.title = title;
+            this.content = content;
+            this.truncated = truncated;
+        }
+
+        public String getType() {
+            return getActivityType().name();
+        }
+
+        public ActivityType getActivityType() {
+            return ActivityType.ofOrdinal(type);
+        }
+
+        /**
+         * SUCCESS, FAILED or null
+         */
+        public String getStatus() {
+            return ActivityStatus.ofOrdinal(status).label();
+        }
+
+        public String getPostId() {
+            return postId;
+        }
+
+        public String getTitle() {
+            return title;
+        }
+
+        public long getTimestampMillis() {
+            return timestampMillis;
+        }
+
+        public LocalDateTime getTimestamp() {
+            return LocalDateTime.ofInstant(Instant.ofEpochMilli(timestampMillis), ZoneId.systemDefault());
+        }
+
+        /**
+         * Content as tracked, up to max-content-bytes
+         */
+        public String getContent() {
+            return content == null ? null : new String(content, StandardCharsets.UTF_8);
+        }
+
+        /**
+         * True if the content was longer than max-content-bytes and got cut
+         */
+        public boolean isTruncated() {
+            return truncated;
+        }
 
         public String getFormattedTime() {
-            return timestamp.format(DateTimeFormatter.ofPattern("MMM dd, HH:mm:ss"));
+            return getTimestamp().format(TIME_FORMAT);
         }
 
         public String getShortContent() {
             if (content == null)
                 return "";
-            return content.length() > 200 ? content.substring(0, 200) + "..." : content;
+            // a char is at most 4 bytes, so this prefix holds the first 200 chars
+            int length = Math.min(content.length, 4 * (SHORT_CONTENT_CHARS + 1));
+            String text = new String(content, 0, length, StandardCharsets.UTF_8);
+            boolean more = text.length() > SHORT_CONTENT_CHARS || length < content.length || truncated;
+            return more ? text.substring(0, Math.min(text.length(), SHORT_CONTENT_CHARS)) + "..." : text;
         }
     }
 }
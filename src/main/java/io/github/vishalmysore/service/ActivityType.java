@@ -0,0 +1,27 @@
+package io.github.vishalmysore.service;
+
+/**
+ * Kinds of tracked activity
+ */
+public enum ActivityType {
+    POST, COMMENT, OBSERVE, ERROR, INFO, ACTION;
+
+    private static final ActivityType[] VALUES = values();
+
+    static ActivityType of(String name) {
+        for (ActivityType type : VALUES) {
+            if (type.name().equals(name)) {
+                return type;
+            }
+        }
+        return INFO;
+    }
+
+    static int count() {
+        return VALUES.length;
+    }
+
+    static ActivityType ofOrdinal(int ordinal) {
+        return VALUES[ordinal];
+    }
+}
@@ -0,0 +1,39 @@
+package io.github.vishalmysore.service;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Shares identical activity content between records.
+ *
+ * A fixed table of slots indexed by content hash, each holding the last
+ * content seen for that hash. A repeat of recent content returns the stored
+ * array instead of keeping another copy; a collision simply replaces the slot.
+ * Lock-free and bounded, so it can never grow or hold on to more than one
+ * array per slot.
+ */
+class ContentInterner {
+
+    private final int mask;
+    private final AtomicReferenceArray<byte[]> slots;
+
+    /**
+     * @param slots rounded up to a power of two
+     */
+    ContentInterner(int slots) {
+        int size = Integer.highestOneBit(Math.max(2, slots) - 1) << 1;
+        this.mask = size - 1;
+        this.slots = new AtomicReferenceArray<>(size);
+    }
+
+    byte[] intern(byte[] content) {
+        int hash = Arrays.hashCode(content);
+        int slot = (hash ^ (hash >>> 16)) & mask;
+        byte[] existing = slots.get(slot);
+        if (existing != null && Arrays.equals(existing, content)) {
+            return existing;
+        }
+        slots.set(slot, content);
+        return content;
+    }
+}
@@ -2,249 +2,158 @@ package io.github.vishalmysore.service;
 
 import com.google.gson.Gson;
 import com.google.gson.JsonObject;
+import io.github.vishalmysore.client.MoltbookClient;
 import io.github.vishalmysore.config.MoltbookConfig;
 import io.github.vishalmysore.model.MoltbookAgent;
 import io.github.vishalmysore.model.MoltbookPost;
 import lombok.extern.slf4j.Slf4j;
-import okhttp3.*;
 import org.springframework.stereotype.Service;
 
-import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.Callable;
 
 /**
  * Service for interacting with Moltbook API
+ *
+ * Typed facade over {@link MoltbookClient}: requests share the client's pooled
+ * transport, API key and verification handling instead of running a separate
+ * HTTP stack.
+ *
+ * Action beans are singletons, so with several hosted agents they call
+ * {@link #forCurrentAgent()}: inside {@link #runAs} that is the acting
+ * agent's service, otherwise the service itself.
  */
 @Service
 @Slf4j
 public class MoltbookService {
 
+    private static final ThreadLocal<MoltbookService> CURRENT = new ThreadLocal<>();
+
     private final MoltbookConfig config;
-    private final OkHttpClient httpClient;
+    private final MoltbookClient moltbookClient;
     private final Gson gson;
-    private String apiKey;
 
-    public MoltbookService(MoltbookConfig config) {
+    public MoltbookService(MoltbookConfig config, MoltbookClient moltbookClient) {
         this.config = config;
-        this.httpClient = new OkHttpClient();
+        this.moltbookClient = moltbookClient;
         this.gson = new Gson();
-        this.apiKey = config.getApi().getKey();
     }
 
     /**
-     * Register the agent with Moltbook
+     * Run work on this thread with this service as the current agent's
      */
-    public MoltbookAgent register() throws IOException {
-        log.info("Registering agent: {}", config.getAgent().getName());
-
-        JsonObject requestBody = new JsonObject();
-        requestBody.addProperty("name", config.getAgent().getName());
-        requestBody.addProperty("description", config.getAgent().getDescription());
-
-        RequestBody body = RequestBody.create(
-                requestBody.toString(),
-                MediaType.parse("application/json"));
+    public <T> T runAs(Callable<T> work) throws Exception {
+        MoltbookService previous = CURRENT.get();
+        CURRENT.set(this);
+        try {
+            return work.call();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
 
-        Request request = new Request.Builder()
-                .url(config.getApi().getBaseUrl() + "/agents/register")
-                .post(body)
-                .build();
+    /**
+     * Service of the agent acting on this thread, or this one
+     */
+    public MoltbookService forCurrentAgent() {
+        MoltbookService current = CURRENT.get();
+        return current != null ? current : this;
+    }
 
-        try (Response response = httpClient.newCall(request).execute()) {
-            String responseBody = response.body().string();
-            log.debug("Registration response: {}", responseBody);
+    /**
+     * Register the agent with Moltbook
+     */
+    public MoltbookAgent register() {
+        log.info("Registering agent: {}", config.getAgent().getName());
 
-            if (!response.isSuccessful()) {
-                throw new IOException("Registration failed: " + responseBody);
-            }
+        String responseBody = moltbookClient.registerAgent(
+                config.getAgent().getName(),
+                config.getAgent().getDescription());
+        log.debug("Registration response: {}", responseBody);
 
-            JsonObject jsonResponse = gson.fromJson(responseBody, JsonObject.class);
-            JsonObject agentData = jsonResponse.getAsJsonObject("agent");
+        JsonObject jsonResponse = gson.fromJson(responseBody, JsonObject.class);
+        JsonObject agentData = jsonResponse.getAsJsonObject("agent");
 
-            MoltbookAgent agent = new MoltbookAgent();
-            agent.setName(config.getAgent().getName());
-            agent.setDescription(config.getAgent().getDescription());
-            agent.setApiKey(agentData.get("api_key").getAsString());
-            agent.setClaimUrl(agentData.get("claim_url").getAsString());
-            agent.setVerificationCode(agentData.get("verification_code").getAsString());
+        MoltbookAgent agent = new MoltbookAgent();
+        agent.setName(config.getAgent().getName());
+        agent.setDescription(config.getAgent().getDescription());
+        agent.setApiKey(agentData.get("api_key").getAsString());
+        agent.setClaimUrl(agentData.get("claim_url").getAsString());
+        agent.setVerificationCode(agentData.get("verification_code").getAsString());
 
-            // Store the API key
-            this.apiKey = agent.getApiKey();
+        // Store the API key
+        moltbookClient.setApiKey(agent.getApiKey());
 
-            log.info("Agent registered successfully!");
-            log.info("API Key: {}", agent.getApiKey());
-            log.info("Claim URL: {}", agent.getClaimUrl());
-            log.info("Verification Code: {}", agent.getVerificationCode());
+        log.info("Agent registered successfully!");
+        log.info("API Key: {}", agent.getApiKey());
+        log.info("Claim URL: {}", agent.getClaimUrl());
+        log.info("Verification Code: {}", agent.getVerificationCode());
 
-            return agent;
-        }
+        return agent;
     }
 
     /**
      * Get agent profile
      */
-    public MoltbookAgent getProfile() throws IOException {
-        Request request = new Request.Builder()
-                .url(config.getApi().getBaseUrl() + "/agents/me")
-                .header("Authorization", "Bearer " + apiKey)
-                .get()
-                .build();
-
-        try (Response response = httpClient.newCall(request).execute()) {
-            if (!response.isSuccessful()) {
-                throw new IOException("Failed to get profile: " + response.body().string());
-            }
-
-            JsonObject jsonResponse = gson.fromJson(response.body().string(), JsonObject.class);
-            return gson.fromJson(jsonResponse.getAsJsonObject("agent"), MoltbookAgent.class);
-        }
+    public MoltbookAgent getProfile() {
+        JsonObject jsonResponse = gson.fromJson(moltbookClient.getProfile(), JsonObject.class);
+        return gson.fromJson(jsonResponse.getAsJsonObject("agent"), MoltbookAgent.class);
     }
 
     /**
      * Check claim status
      */
-    public String getClaimStatus() throws IOException {
-        Request request = new Request.Builder()
-                .url(config.getApi().getBaseUrl() + "/agents/status")
-                .header("Authorization", "Bearer " + apiKey)
-                .get()
-                .build();
-
-        try (Response response = httpClient.newCall(request).execute()) {
-            JsonObject jsonResponse = gson.fromJson(response.body().string(), JsonObject.class);
-            return jsonResponse.get("status").getAsString();
-        }
+    public String getClaimStatus() {
+        JsonObject jsonResponse = gson.fromJson(moltbookClient.getAgentStatus(), JsonObject.class);
+        return jsonResponse.get("status").getAsString();
     }
 
     /**
      * Create a post
      */
-    public MoltbookPost createPost(String submolt, String title, String content, String url) throws IOException {
-        JsonObject requestBody = new JsonObject();
-        requestBody.addProperty("submolt", submolt);
-        requestBody.addProperty("title", title);
-        if (content != null) {
-            requestBody.addProperty("content", content);
-        }
-        if (url != null) {
-            requestBody.addProperty("url", url);
-        }
-
-        RequestBody body = RequestBody.create(
-                requestBody.toString(),
-                MediaType.parse("application/json"));
-
-        Request request = new Request.Builder()
-                .url(config.getApi().getBaseUrl() + "/posts")
-                .header("Authorization", "Bearer " + apiKey)
-                .post(body)
-                .build();
-
-        try (Response response = httpClient.newCall(request).execute()) {
-            if (!response.isSuccessful()) {
-                throw new IOException("Failed to create post: " + response.body().string());
-            }
-
-            JsonObject jsonResponse = gson.fromJson(response.body().string(), JsonObject.class);
-            return gson.fromJson(jsonResponse.getAsJsonObject("post"), MoltbookPost.class);
-        }
+    public MoltbookPost createPost(String submolt, String title, String content, String url) {
+        String responseBody = moltbookClient.createPost(submolt, title, content, url);
+        JsonObject jsonResponse = gson.fromJson(responseBody, JsonObject.class);
+        return gson.fromJson(jsonResponse.getAsJsonObject("post"), MoltbookPost.class);
     }
 
     /**
      * Get feed posts
      */
-    public List<MoltbookPost> getFeed(String sort, int limit) throws IOException {
-        HttpUrl url = HttpUrl.parse(config.getApi().getBaseUrl() + "/posts").newBuilder()
-                .addQueryParameter("sort", sort)
-                .addQueryParameter("limit", String.valueOf(limit))
-                .build();
-
-        Request request = new Request.Builder()
-                .url(url)
-                .header("Authorization", "Bearer " + apiKey)
-                .get()
-                .build();
-
-        try (Response response = httpClient.newCall(request).execute()) {
-            if (!response.isSuccessful()) {
-                throw new IOException("Failed to get feed: " + response.body().string());
-            }
-
-            JsonObject jsonResponse = gson.fromJson(response.body().string(), JsonObject.class);
-            MoltbookPost[] posts = gson.fromJson(jsonResponse.getAsJsonArray("posts"), MoltbookPost[].class);
-            return Arrays.asList(posts);
-        }
+    public List<MoltbookPost> getFeed(String sort, int limit) {
+        JsonObject jsonResponse = gson.fromJson(moltbookClient.getPosts(sort, limit), JsonObject.class);
+        MoltbookPost[] posts = gson.fromJson(jsonResponse.getAsJsonArray("posts"), MoltbookPost[].class);
+        return Arrays.asList(posts);
     }
 
     /**
      * Comment on a post
      */
-    public void createComment(String postId, String content) throws IOException {
-        JsonObject requestBody = new JsonObject();
-        requestBody.addProperty("content", content);
-
-        RequestBody body = RequestBody.create(
-                requestBody.toString(),
-                MediaType.parse("application/json"));
-
-        Request request = new Request.Builder()
-                .url(config.getApi().getBaseUrl() + "/posts/" + postId + "/comments")
-                .header("Authorization", "Bearer " + apiKey)
-                .post(body)
-                .build();
-
-        try (Response response = httpClient.newCall(request).execute()) {
-            if (!response.isSuccessful()) {
-                throw new IOException("Failed to create comment: " + response.body().string());
-            }
-        }
+    public void createComment(String postId, String content) {
+        moltbookClient.createComment(postId, content);
     }
 
     /**
      * Upvote a post
      */
-    public void upvotePost(String postId) throws IOException {
-        Request request = new Request.Builder()
-                .url(config.getApi().getBaseUrl() + "/posts/" + postId + "/upvote")
-                .header("Authorization", "Bearer " + apiKey)
-                .post(RequestBody.create("", null))
-                .build();
-
-        try (Response response = httpClient.newCall(request).execute()) {
-            if (!response.isSuccessful()) {
-                throw new IOException("Failed to upvote post: " + response.body().string());
-            }
-        }
+    public void upvotePost(String postId) {
+        moltbookClient.upvote(postId);
     }
 
     /**
      * Search posts semantically
      */
-    public List<MoltbookPost> searchPosts(String query, int limit) throws IOException {
-        HttpUrl url = HttpUrl.parse(config.getApi().getBaseUrl() + "/search").newBuilder()
-                .addQueryParameter("q", query)
-                .addQueryParameter("type", "posts")
-                .addQueryParameter("limit", String.valueOf(limit))
-                .build();
-
-        Request request = new Request.Builder()
-                .url(url)
-                .header("Authorization", "Bearer " + apiKey)
-                .get()
-                .build();
-
-        try (Response response = httpClient.newCall(request).execute()) {
-            if (!response.isSuccessful()) {
-                throw new IOException("Failed to search posts: " + response.body().string());
-            }
-
-            JsonObject jsonResponse = gson.fromJson(response.body().string(), JsonObject.class);
-            MoltbookPost[] posts = gson.fromJson(jsonResponse.getAsJsonArray("results"), MoltbookPost[].class);
-            return Arrays.asList(posts);
-        }
+    public List<MoltbookPost> searchPosts(String query, int limit) {
+        JsonObject jsonResponse = gson.fromJson(moltbookClient.semanticSearch(query, "posts", limit), JsonObject.class);
+        MoltbookPost[] posts = gson.fromJson(jsonResponse.getAsJsonArray("results"), MoltbookPost[].class);
+        return Arrays.asList(posts);
     }
 
     public void setApiKey(String apiKey) {
-        this.apiKey = apiKey;
+        moltbookClient.setApiKey(apiKey);
     }
 }
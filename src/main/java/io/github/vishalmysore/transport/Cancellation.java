@@ -0,0 +1,39 @@
+package io.github.vishalmysore.transport;
+
+import okhttp3.Call;
+
+/**
+ * Cancels the HTTP calls of one logical request, e.g. once its caller has
+ * stopped waiting. Set it as the request tag; the transport attaches each
+ * call it starts for that request. {@link #cancel()} aborts the call in
+ * flight, and a call started afterwards is aborted right away.
+ */
+public class Cancellation {
+
+    private Call current;
+    private boolean cancelled;
+
+    public void cancel() {
+        Call call;
+        synchronized (this) {
+            cancelled = true;
+            call = current;
+            current = null;
+        }
+        if (call != null) {
+            call.cancel();
+        }
+    }
+
+    public synchronized boolean isCancelled() {
+        return cancelled;
+    }
+
+    synchronized void attach(Call call) {
+        if (cancelled) {
+            call.cancel();
+        } else {
+            current = call;
+        }
+    }
+}
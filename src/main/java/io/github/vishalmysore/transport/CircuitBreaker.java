@@ -0,0 +1,122 @@
+package io.github.vishalmysore.transport;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Circuit breaker for one Moltbook endpoint.
+ *
+ * After failureThreshold consecutive failures (I/O errors or 5xx) the circuit
+ * opens and calls fail fast with {@link CircuitOpenException}. Once openFor
+ * has passed, a single trial call is let through: success closes the
+ * circuit, failure opens it again.
+ */
+@Slf4j
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    // Path segments that name an endpoint; anything else is an id or agent name
+    private static final Set<String> ENDPOINT_SEGMENTS = Set.of(
+            "feed", "posts", "search", "agents", "status", "me", "register", "comments",
+            "upvote", "downvote", "verify", "follow", "submolts", "subscribe");
+
+    private final String endpoint;
+    private final int failureThreshold;
+    private final long openForNanos;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean trialInFlight;
+
+    public CircuitBreaker(String endpoint, int failureThreshold, Duration openFor) {
+        this.endpoint = endpoint;
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openForNanos = openFor.toNanos();
+    }
+
+    /**
+     * Key for the breaker of a request, e.g. "GET /posts/{id}/comments"
+     *
+     * @param path path relative to the API base URL, query string allowed
+     */
+    public static String endpointKey(String method, String path) {
+        int query = path.indexOf('?');
+        String[] segments = (query >= 0 ? path.substring(0, query) : path).split("/");
+        StringBuilder key = new StringBuilder(method).append(' ');
+        for (String segment : segments) {
+            if (!segment.isEmpty()) {
+                key.append('/').append(ENDPOINT_SEGMENTS.contains(segment) ? segment : "{id}");
+            }
+        }
+        return key.toString();
+    }
+
+    /**
+     * Let a call through or fail fast
+     *
+     * @throws CircuitOpenException while the circuit is open
+     */
+    public synchronized void checkPermission() {
+        State current = getState();
+        if (current == State.CLOSED) {
+            return;
+        }
+        if (current == State.HALF_OPEN && !trialInFlight) {
+            trialInFlight = true;
+            return;
+        }
+        throw new CircuitOpenException(endpoint, remainingOpen());
+    }
+
+    public synchronized void onSuccess() {
+        if (state != State.CLOSED) {
+            log.info("🟢 Circuit for {} closed", endpoint);
+        }
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        trialInFlight = false;
+    }
+
+    /**
+     * The permitted call was never sent (e.g. rate limited locally)
+     */
+    public synchronized void onNotSent() {
+        trialInFlight = false;
+    }
+
+    public synchronized void onFailure() {
+        consecutiveFailures++;
+        trialInFlight = false;
+        if (state == State.OPEN || (state == State.CLOSED && consecutiveFailures < failureThreshold)) {
+            return;
+        }
+        state = State.OPEN;
+        openedAt = System.nanoTime();
+        log.warn("🔴 Circuit for {} opened after {} failures - failing fast for {}s",
+                endpoint, consecutiveFailures, Duration.ofNanos(openForNanos).toSeconds());
+    }
+
+    /**
+     * Current state; an open circuit reports HALF_OPEN once its open time is over
+     */
+    public synchronized State getState() {
+        if (state == State.OPEN && System.nanoTime() - openedAt >= openForNanos) {
+            state = State.HALF_OPEN;
+        }
+        return state;
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    private Duration remainingOpen() {
+        return Duration.ofNanos(Math.max(0, openForNanos - (System.nanoTime() - openedAt)));
+    }
+}
@@ -0,0 +1,23 @@
+package io.github.vishalmysore.transport;
+
+import lombok.Getter;
+
+import java.time.Duration;
+
+/**
+ * Thrown instead of sending a request while the endpoint's circuit is open
+ */
+@Getter
+public class CircuitOpenException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String endpoint;
+    private final Duration retryAfter;
+
+    public CircuitOpenException(String endpoint, Duration retryAfter) {
+        super("Circuit open for " + endpoint + " - retry in " + retryAfter.toSeconds() + "s");
+        this.endpoint = endpoint;
+        this.retryAfter = retryAfter;
+    }
+}
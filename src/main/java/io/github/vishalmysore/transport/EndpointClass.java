@@ -0,0 +1,33 @@
+package io.github.vishalmysore.transport;
+
+/**
+ * Groups Moltbook endpoints that share a server-side rate limit
+ */
+public enum EndpointClass {
+    POST, COMMENT, VOTE, READ, WRITE, VERIFY;
+
+    /**
+     * Classify a request by method and path. GETs that are not verifications
+     * count as READ, which has its own bucket (read-per-minute, read-burst)
+     * on top of the general request budget. Any other write (follows,
+     * subscriptions, profile updates, deletes) is WRITE, limited by the
+     * general budget only.
+     */
+    public static EndpointClass of(String method, String path) {
+        if (path.endsWith("/verify")) {
+            return VERIFY;
+        }
+        if ("POST".equals(method)) {
+            if (path.endsWith("/comments")) {
+                return COMMENT;
+            }
+            if (path.endsWith("/upvote") || path.endsWith("/downvote")) {
+                return VOTE;
+            }
+            if (path.endsWith("/posts")) {
+                return POST;
+            }
+        }
+        return "GET".equals(method) ? READ : WRITE;
+    }
+}
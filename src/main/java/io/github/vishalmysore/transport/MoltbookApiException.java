@@ -0,0 +1,33 @@
+package io.github.vishalmysore.transport;
+
+import lombok.Getter;
+import okhttp3.Headers;
+
+/**
+ * Non-2xx response from the Moltbook API.
+ * The message keeps the "401 Unauthorized: {body}" shape callers already match on.
+ */
+@Getter
+public class MoltbookApiException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int statusCode;
+    private final String responseBody;
+    private final transient Headers headers;
+
+    public MoltbookApiException(TransportResponse response) {
+        super(response.getCode() + " " + response.getMessage() + ": " + response.getBody());
+        this.statusCode = response.getCode();
+        this.responseBody = response.getBody();
+        this.headers = response.getHeaders();
+    }
+
+    public boolean isClientError() {
+        return statusCode >= 400 && statusCode < 500;
+    }
+
+    public boolean isServerError() {
+        return statusCode >= 500;
+    }
+}
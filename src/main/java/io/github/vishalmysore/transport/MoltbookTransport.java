@@ -0,0 +1,318 @@
+package io.github.vishalmysore.transport;
+
+import io.github.vishalmysore.config.MoltbookConfig;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.Call;
+import okhttp3.Connection;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.EventListener;
+import okhttp3.Headers;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Reader;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pooled, keep-alive HTTP transport for the Moltbook API.
+ * This is the only HTTP stack in the library: MoltbookClient, and through it
+ * MoltbookService and the example actions, all share its pool and dispatcher.
+ *
+ * Wraps a single OkHttpClient with a shared connection pool, HTTP/2 (negotiated
+ * via ALPN when the server supports it) and connect/read/write/call timeouts,
+ * all configured from {@link MoltbookConfig.Api}. Connection acquisition is
+ * instrumented so pool health can be queried through {@link #getPoolMetrics()}.
+ *
+ * Calls here are synchronous, which OkHttp's dispatcher does not limit, so
+ * max-requests and max-requests-per-host are enforced with request slots:
+ * a call beyond either limit waits for a slot and counts as queued.
+ */
+@Component
+@Slf4j
+public class MoltbookTransport {
+
+    private final MoltbookConfig.Api apiConfig;
+    private final ConnectionPool connectionPool;
+    private final OkHttpClient httpClient;
+
+    private final LongAdder connectionsAcquired = new LongAdder();
+    private final LongAdder connectionsOpened = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    private final Semaphore requestSlots;
+    private final Map<String, Semaphore> hostSlots = new ConcurrentHashMap<>();
+    private final AtomicInteger waitingForSlot = new AtomicInteger();
+
+    public MoltbookTransport(MoltbookConfig config) {
+        this.apiConfig = config.getApi();
+        this.connectionPool = new ConnectionPool(
+                apiConfig.getMaxIdleConnections(),
+                apiConfig.getKeepAliveSeconds(),
+                TimeUnit.SECONDS);
+
+        // Same limits for calls enqueued on the shared client by others
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(apiConfig.getMaxRequests());
+        dispatcher.setMaxRequestsPerHost(apiConfig.getMaxRequestsPerHost());
+        this.requestSlots = new Semaphore(dispatcher.getMaxRequests(), true);
+
+        OkHttpClient.Builder builder = new OkHttpClient.Builder()
+                .connectionPool(connectionPool)
+                .dispatcher(dispatcher)
+                .connectTimeout(apiConfig.getConnectTimeoutSeconds(), TimeUnit.SECONDS)
+                .readTimeout(apiConfig.getReadTimeoutSeconds(), TimeUnit.SECONDS)
+                .writeTimeout(apiConfig.getWriteTimeoutSeconds(), TimeUnit.SECONDS)
+                .callTimeout(apiConfig.getCallTimeoutSeconds(), TimeUnit.SECONDS)
+                .eventListenerFactory(call -> new PoolEventListener());
+
+        if (!apiConfig.isHttp2Enabled()) {
+            builder.protocols(List.of(Protocol.HTTP_1_1));
+        }
+
+        this.httpClient = builder.build();
+        log.info("✓ Moltbook transport ready (pool: {} idle / {}s keep-alive, HTTP/2: {})",
+                apiConfig.getMaxIdleConnections(), apiConfig.getKeepAliveSeconds(), apiConfig.isHttp2Enabled());
+    }
+
+    /**
+     * Base URL of the API, from moltbook.api.base-url
+     */
+    public String getBaseUrl() {
+        return apiConfig.getBaseUrl();
+    }
+
+    /**
+     * Start a request against the API with the shared auth and content headers
+     */
+    public Request.Builder newRequest(String path, String apiKey) {
+        Request.Builder builder = new Request.Builder().url(apiConfig.getBaseUrl() + path);
+        if (apiKey != null && !apiKey.isEmpty()) {
+            builder.header("Authorization", "Bearer " + apiKey);
+        }
+        return builder.header("Content-Type", "application/json");
+    }
+
+    /**
+     * The shared client - use this instead of creating new OkHttpClient instances
+     */
+    public OkHttpClient getHttpClient() {
+        return httpClient;
+    }
+
+    /**
+     * Execute a request and fully read the response so the connection goes back
+     * to the pool
+     */
+    public TransportResponse execute(Request request) throws IOException {
+        Call call = newCall(request);
+        Semaphore hostSlot = acquireSlots(call);
+        try (Response response = call.execute()) {
+            ResponseBody body = response.body();
+            return new TransportResponse(
+                    response.code(),
+                    response.message(),
+                    response.headers(),
+                    body != null ? body.string() : null);
+        } finally {
+            releaseSlots(hostSlot);
+        }
+    }
+
+    /**
+     * Execute a request and hand the response body to the reader as a stream,
+     * without buffering it into a String. Non-2xx responses are buffered and
+     * thrown as MoltbookApiException.
+     */
+    public <T> T stream(Request request, BodyReader<T> bodyReader) throws IOException {
+        return streamWithHeaders(request, (headers, body) -> bodyReader.read(body));
+    }
+
+    /**
+     * Like {@link #stream(Request, BodyReader)}, also passing the response
+     * headers (e.g. for cache validators)
+     */
+    public <T> T streamWithHeaders(Request request, ResponseReader<T> responseReader) throws IOException {
+        Call call = newCall(request);
+        Semaphore hostSlot = acquireSlots(call);
+        try (Response response = call.execute()) {
+            ResponseBody body = response.body();
+            if (!response.isSuccessful()) {
+                throw new MoltbookApiException(new TransportResponse(
+                        response.code(),
+                        response.message(),
+                        response.headers(),
+                        body != null ? body.string() : null));
+            }
+            return responseReader.read(response.headers(), body != null ? body.charStream() : Reader.nullReader());
+        } finally {
+            releaseSlots(hostSlot);
+        }
+    }
+
+    /**
+     * New call for the request, attached to its {@link Cancellation} tag if it
+     * has one
+     */
+    private Call newCall(Request request) {
+        Call call = httpClient.newCall(request);
+        Cancellation cancellation = request.tag(Cancellation.class);
+        if (cancellation != null) {
+            cancellation.attach(call);
+        }
+        return call;
+    }
+
+    /**
+     * Wait for a request slot and a slot for the call's host
+     *
+     * @return the host slot taken, for {@link #releaseSlots}
+     */
+    private Semaphore acquireSlots(Call call) throws IOException {
+        Semaphore hostSlot = hostSlots.computeIfAbsent(call.request().url().host(),
+                host -> new Semaphore(httpClient.dispatcher().getMaxRequestsPerHost(), true));
+        waitingForSlot.incrementAndGet();
+        try {
+            requestSlots.acquire();
+            try {
+                hostSlot.acquire();
+            } catch (InterruptedException e) {
+                requestSlots.release();
+                throw e;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a request slot");
+        } finally {
+            waitingForSlot.decrementAndGet();
+        }
+        if (call.isCanceled()) {
+            releaseSlots(hostSlot);
+            throw new IOException("Canceled");
+        }
+        return hostSlot;
+    }
+
+    private void releaseSlots(Semaphore hostSlot) {
+        hostSlot.release();
+        requestSlots.release();
+    }
+
+    /**
+     * Snapshot of connection pool usage
+     */
+    public PoolMetrics getPoolMetrics() {
+        int total = connectionPool.connectionCount();
+        int idle = connectionPool.idleConnectionCount();
+        long acquired = connectionsAcquired.sum();
+        long waitNanos = totalWaitNanos.sum();
+        return new PoolMetrics(
+                Math.max(0, total - idle),
+                idle,
+                acquired,
+                connectionsOpened.sum(),
+                acquired == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(waitNanos / acquired),
+                TimeUnit.NANOSECONDS.toMicros(maxWaitNanos.get()),
+                httpClient.dispatcher().runningCallsCount(),
+                httpClient.dispatcher().queuedCallsCount() + waitingForSlot.get());
+    }
+
+    /**
+     * Consumes a streamed response body. May be called again for the same
+     * logical request when it is retried, so it should not keep state between
+     * calls.
+     */
+    @FunctionalInterface
+    public interface BodyReader<T> {
+        T read(Reader body) throws IOException;
+    }
+
+    /**
+     * Consumes a streamed response body along with its headers
+     */
+    @FunctionalInterface
+    public interface ResponseReader<T> {
+        T read(Headers headers, Reader body) throws IOException;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        httpClient.dispatcher().executorService().shutdown();
+        connectionPool.evictAll();
+    }
+
+    /**
+     * Measures how long each call waits for a pooled (or newly opened)
+     * connection. DNS, TCP connect and TLS time of a new connection is not
+     * counted, and the call only starts once it has a request slot, so the
+     * wait reflects contention for pooled connections alone.
+     */
+    private class PoolEventListener extends EventListener {
+        private long callStartNanos;
+        private long setupStartNanos;
+        private long setupNanos;
+        private boolean acquired;
+
+        @Override
+        public void callStart(Call call) {
+            callStartNanos = System.nanoTime();
+        }
+
+        @Override
+        public void dnsStart(Call call, String domainName) {
+            setupStartNanos = System.nanoTime();
+        }
+
+        @Override
+        public void dnsEnd(Call call, String domainName, List<InetAddress> inetAddressList) {
+            setupNanos += System.nanoTime() - setupStartNanos;
+        }
+
+        @Override
+        public void connectStart(Call call, InetSocketAddress inetSocketAddress, Proxy proxy) {
+            connectionsOpened.increment();
+            setupStartNanos = System.nanoTime();
+        }
+
+        @Override
+        public void connectEnd(Call call, InetSocketAddress inetSocketAddress, Proxy proxy, Protocol protocol) {
+            setupNanos += System.nanoTime() - setupStartNanos;
+        }
+
+        @Override
+        public void connectFailed(Call call, InetSocketAddress inetSocketAddress, Proxy proxy, Protocol protocol,
+                IOException ioe) {
+            setupNanos += System.nanoTime() - setupStartNanos;
+        }
+
+        @Override
+        public void connectionAcquired(Call call, Connection connection) {
+            if (acquired) {
+                return; // follow-ups and redirects reuse the first measurement
+            }
+            acquired = true;
+            long waited = Math.max(0, System.nanoTime() - callStartNanos - setupNanos);
+            connectionsAcquired.increment();
+            totalWaitNanos.add(waited);
+            maxWaitNanos.accumulateAndGet(waited, Math::max);
+        }
+    }
+}
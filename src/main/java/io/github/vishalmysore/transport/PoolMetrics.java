@@ -0,0 +1,34 @@
+package io.github.vishalmysore.transport;
+
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Point-in-time view of the transport connection pool
+ */
+@Getter
+@ToString
+public class PoolMetrics {
+
+    private final int activeConnections;
+    private final int idleConnections;
+    private final long connectionsAcquired;
+    private final long connectionsOpened; // acquired - opened = reused from the pool
+    private final long averageWaitMicros;
+    private final long maxWaitMicros;
+    private final int runningCalls;
+    private final int queuedCalls; // waiting for a slot under max-requests / max-requests-per-host
+
+    public PoolMetrics(int activeConnections, int idleConnections, long connectionsAcquired,
+            long connectionsOpened, long averageWaitMicros, long maxWaitMicros,
+            int runningCalls, int queuedCalls) {
+        this.activeConnections = activeConnections;
+        this.idleConnections = idleConnections;
+        this.connectionsAcquired = connectionsAcquired;
+        this.connectionsOpened = connectionsOpened;
+        this.averageWaitMicros = averageWaitMicros;
+        this.maxWaitMicros = maxWaitMicros;
+        this.runningCalls = runningCalls;
+        this.queuedCalls = queuedCalls;
+    }
+}
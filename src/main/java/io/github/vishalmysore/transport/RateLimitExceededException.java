@@ -0,0 +1,24 @@
+package io.github.vishalmysore.transport;
+
+import lombok.Getter;
+
+import java.time.Duration;
+
+/**
+ * Thrown instead of sending a request when the local rate limiter would have
+ * to wait longer than moltbook.rate-limit.max-wait-seconds
+ */
+@Getter
+public class RateLimitExceededException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final EndpointClass endpointClass;
+    private final Duration retryAfter;
+
+    public RateLimitExceededException(EndpointClass endpointClass, Duration retryAfter) {
+        super("Rate limit for " + endpointClass + " requests - retry in " + retryAfter.toSeconds() + "s");
+        this.endpointClass = endpointClass;
+        this.retryAfter = retryAfter;
+    }
+}
@@ -0,0 +1,257 @@
+package io.github.vishalmysore.transport;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import io.github.vishalmysore.config.MoltbookConfig;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.Headers;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Client-side rate limiter for one Moltbook agent (API key).
+ *
+ * Every request takes a token from the general request bucket and from the
+ * bucket of its {@link EndpointClass}. Buckets refill continuously, so the
+ * agent can run at the configured rate without ever going over it. When the
+ * server still answers 429, the Retry-After header and the
+ * retry_after_minutes/retry_after_seconds body fields pause the affected
+ * bucket until the server is ready again.
+ *
+ * {@link #reserve} takes a token right away and says how long to wait
+ * before using it; the caller schedules its request after that wait (see
+ * MoltbookClient), so no thread sleeps while the bucket refills.
+ */
+@Slf4j
+public class RateLimiter {
+
+    private final TokenBucket general;
+    private final Map<EndpointClass, TokenBucket> buckets = new EnumMap<>(EndpointClass.class);
+    private final long maxWaitNanos;
+    private final Duration defaultRetryAfter;
+
+    public RateLimiter(MoltbookConfig.RateLimit config) {
+        this.general = TokenBucket.perMinute(config.getRequestsPerMinute(), config.getBurst());
+        buckets.put(EndpointClass.READ, TokenBucket.perMinute(config.getReadPerMinute(), config.getReadBurst()));
+        // no server-side limit of its own: the class bucket mirrors the general one
+        buckets.put(EndpointClass.WRITE, TokenBucket.perMinute(config.getRequestsPerMinute(), config.getBurst()));
+        buckets.put(EndpointClass.VOTE, TokenBucket.perMinute(config.getVotePerMinute(), config.getVoteBurst()));
+        buckets.put(EndpointClass.COMMENT,
+                TokenBucket.oneEvery(Duration.ofSeconds(config.getCommentIntervalSeconds())));
+        buckets.put(EndpointClass.POST, TokenBucket.oneEvery(Duration.ofMinutes(config.getPostIntervalMinutes())));
+        buckets.put(EndpointClass.VERIFY,
+                TokenBucket.oneEvery(Duration.ofSeconds(config.getVerifyIntervalSeconds())));
+        this.maxWaitNanos = Duration.ofSeconds(config.getMaxWaitSeconds()).toNanos();
+        this.defaultRetryAfter = Duration.ofSeconds(config.getDefaultRetryAfterSeconds());
+    }
+
+    /**
+     * Take a token now, to be used once the returned wait has passed. Callers
+     * reserving after this one queue up behind it.
+     *
+     * @throws RateLimitExceededException if the wait would exceed the max wait
+     *                                    (no token is taken then)
+     */
+    public synchronized Duration reserve(EndpointClass endpointClass) {
+        long now = System.nanoTime();
+        long waitNanos = waitNanos(endpointClass, now);
+        if (waitNanos > maxWaitNanos) {
+            throw new RateLimitExceededException(endpointClass, Duration.ofNanos(waitNanos));
+        }
+        general.take(now);
+        buckets.get(endpointClass).take(now);
+        return Duration.ofNanos(waitNanos);
+    }
+
+    /**
+     * Take a token only if one is available right now
+     */
+    public synchronized boolean tryAcquire(EndpointClass endpointClass) {
+        long now = System.nanoTime();
+        if (waitNanos(endpointClass, now) > 0) {
+            return false;
+        }
+        general.take(now);
+        buckets.get(endpointClass).take(now);
+        return true;
+    }
+
+    public synchronized Duration timeUntilAvailable(EndpointClass endpointClass) {
+        return Duration.ofNanos(waitNanos(endpointClass, System.nanoTime()));
+    }
+
+    /**
+     * Share of the budget left for this class right now, 0..1: the emptier of
+     * the general and the class bucket, 0 while paused
+     */
+    public synchronized double remainingBudget(EndpointClass endpointClass) {
+        long now = System.nanoTime();
+        return Math.min(general.fill(now), buckets.get(endpointClass).fill(now));
+    }
+
+    /**
+     * Give back the class token of a request the server turned away without
+     * acting on it (e.g. a write rejected pending verification), so resending
+     * it does not wait out the class interval. The general token stays spent.
+     */
+    public synchronized void refund(EndpointClass endpointClass) {
+        buckets.get(endpointClass).give(System.nanoTime());
+    }
+
+    /**
+     * Stop sending requests of this class for the given time
+     */
+    public synchronized void pause(EndpointClass endpointClass, Duration duration) {
+        buckets.get(endpointClass).pauseUntil(System.nanoTime() + duration.toNanos());
+    }
+
+    /**
+     * Feed a 429 response back into the limiter. The longest of Retry-After
+     * and the retry_after_* body fields wins. Without a class-specific hint
+     * the general bucket is paused as well.
+     */
+    public synchronized void onRateLimited(EndpointClass endpointClass, MoltbookApiException error) {
+        Duration fromHeader = retryAfterHeader(error.getHeaders());
+        Duration fromBody = retryAfterBody(error.getResponseBody());
+        Duration retryAfter = max(fromHeader, fromBody);
+        if (retryAfter == null) {
+            retryAfter = defaultRetryAfter;
+        }
+        long until = System.nanoTime() + retryAfter.toNanos();
+        buckets.get(endpointClass).pauseUntil(until);
+        if (fromBody == null) {
+            general.pauseUntil(until);
+        }
+        log.warn("🚦 Rate limited on {} requests - pausing for {}s", endpointClass, retryAfter.toSeconds());
+    }
+
+    private long waitNanos(EndpointClass endpointClass, long now) {
+        return Math.max(general.waitNanos(now), buckets.get(endpointClass).waitNanos(now));
+    }
+
+    private static Duration retryAfterHeader(Headers headers) {
+        String value = headers == null ? null : headers.get("Retry-After");
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return Duration.ofSeconds(Long.parseLong(value.trim()));
+        } catch (NumberFormatException e) {
+            Date date = headers.getDate("Retry-After");
+            if (date == null) {
+                return null;
+            }
+            Duration untilDate = Duration.between(Instant.now(), date.toInstant());
+            return untilDate.isNegative() ? Duration.ZERO : untilDate;
+        }
+    }
+
+    private static Duration retryAfterBody(String body) {
+        if (body == null || body.isEmpty()) {
+            return null;
+        }
+        try {
+            JsonElement parsed = JsonParser.parseString(body);
+            if (!parsed.isJsonObject()) {
+                return null;
+            }
+            JsonObject obj = parsed.getAsJsonObject();
+            if (obj.has("retry_after_minutes")) {
+                return Duration.ofMinutes(obj.get("retry_after_minutes").getAsLong());
+            }
+            if (obj.has("retry_after_seconds")) {
+                return Duration.ofSeconds(obj.get("retry_after_seconds").getAsLong());
+            }
+        } catch (Exception e) {
+            log.debug("Could not read retry_after from 429 body: {}", e.getMessage());
+        }
+        return null;
+    }
+
+    private static Duration max(Duration a, Duration b) {
+        if (a == null) {
+            return b;
+        }
+        if (b == null) {
+            return a;
+        }
+        return a.compareTo(b) >= 0 ? a : b;
+    }
+
+    /**
+     * Token bucket with continuous refill. Tokens may go negative: a request
+     * that had to wait has already been counted, so later callers queue up
+     * behind it instead of racing for the same refill.
+     */
+    private static class TokenBucket {
+        private final double capacity;
+        private final double nanosPerToken;
+        private double tokens;
+        private long lastRefill;
+
+        TokenBucket(double capacity, double nanosPerToken) {
+            this.capacity = Math.max(1, capacity);
+            this.nanosPerToken = nanosPerToken;
+            this.tokens = this.capacity;
+            this.lastRefill = System.nanoTime();
+        }
+
+        static TokenBucket perMinute(int perMinute, int burst) {
+            return new TokenBucket(burst, (double) TimeUnit.MINUTES.toNanos(1) / Math.max(1, perMinute));
+        }
+
+        static TokenBucket oneEvery(Duration interval) {
+            return new TokenBucket(1, Math.max(1, interval.toNanos()));
+        }
+
+        long waitNanos(long now) {
+            refill(now);
+            long paused = Math.max(0, lastRefill - now);
+            if (tokens >= 1) {
+                return paused;
+            }
+            return paused + (long) Math.ceil((1 - tokens) * nanosPerToken);
+        }
+
+        double fill(long now) {
+            refill(now);
+            if (lastRefill - now > 0) {
+                return 0;
+            }
+            return Math.max(0, tokens) / capacity;
+        }
+
+        void take(long now) {
+            refill(now);
+            tokens -= 1;
+        }
+
+        void give(long now) {
+            refill(now);
+            tokens = Math.min(capacity, tokens + 1);
+        }
+
+        /**
+         * Nothing refills before the given time; one request may go then
+         */
+        void pauseUntil(long until) {
+            if (until - lastRefill > 0) {
+                lastRefill = until;
+            }
+            tokens = Math.min(tokens, 1);
+        }
+
+        private void refill(long now) {
+            if (now - lastRefill > 0) {
+                tokens = Math.min(capacity, tokens + (now - lastRefill) / nanosPerToken);
+                lastRefill = now;
+            }
+        }
+    }
+}
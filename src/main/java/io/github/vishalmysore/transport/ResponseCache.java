@@ -0,0 +1,228 @@
+package io.github.vishalmysore.transport;
+
+import okhttp3.Headers;
+import okhttp3.Request;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Conditional-request cache for GET responses of one client.
+ *
+ * Bodies are stored with their ETag/Last-Modified validators and revalidated
+ * with If-None-Match/If-Modified-Since; a 304 answer serves the stored body.
+ * Responses without validators are served from memory for ttl instead,
+ * when a ttl is set.
+ * Total body size is bounded by maxBytes, evicting least recently used
+ * entries first.
+ */
+public class ResponseCache {
+
+    private final long maxBytes;
+    private final long maxEntryBytes;
+    private final long ttlNanos;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes;
+
+    private final LongAdder hits = new LongAdder(); // served from cache, with or without revalidation
+    private final LongAdder revalidations = new LongAdder(); // 304 answers
+    private final LongAdder misses = new LongAdder();
+
+    public ResponseCache(long maxBytes, Duration ttl) {
+        this.maxBytes = maxBytes;
+        this.maxEntryBytes = maxBytes / 4;
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    /**
+     * Body that can be used without asking the server (no validators and
+     * still within the TTL), or null
+     */
+    public synchronized String fresh(String key) {
+        Entry entry = entries.get(key);
+        if (entry != null && !entry.hasValidators() && System.nanoTime() - entry.storedAt < ttlNanos) {
+            hits.increment();
+            return entry.body;
+        }
+        return null;
+    }
+
+    /**
+     * Add If-None-Match/If-Modified-Since for a stored entry
+     */
+    public synchronized Request conditional(String key, Request request) {
+        Entry entry = entries.get(key);
+        if (entry == null || !entry.hasValidators()) {
+            return request;
+        }
+        Request.Builder builder = request.newBuilder();
+        if (entry.etag != null) {
+            builder.header("If-None-Match", entry.etag);
+        }
+        if (entry.lastModified != null) {
+            builder.header("If-Modified-Since", entry.lastModified);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Stored body after a 304, or null if it was evicted meanwhile
+     */
+    public synchronized String notModified(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        entry.storedAt = System.nanoTime();
+        hits.increment();
+        revalidations.increment();
+        return entry.body;
+    }
+
+    /**
+     * Remember a 200 response. Bodies without validators are only kept when
+     * a TTL is configured.
+     */
+    public synchronized void store(String key, Headers headers, String body) {
+        misses.increment();
+        String etag = headers != null ? headers.get("ETag") : null;
+        String lastModified = headers != null ? headers.get("Last-Modified") : null;
+        String cacheControl = headers != null ? headers.get("Cache-Control") : null;
+        if (body == null || (cacheControl != null && cacheControl.contains("no-store"))) {
+            return;
+        }
+        if (etag == null && lastModified == null && ttlNanos <= 0) {
+            return;
+        }
+        long size = 2L * body.length();
+        if (size > maxEntryBytes) {
+            remove(key);
+            return;
+        }
+        remove(key);
+        entries.put(key, new Entry(body, etag, lastModified, size));
+        totalBytes += size;
+        for (Iterator<Entry> it = entries.values().iterator(); totalBytes > maxBytes && it.hasNext();) {
+            totalBytes -= it.next().size;
+            it.remove();
+        }
+    }
+
+    /**
+     * Wrap a streamed body so it can be stored once the reader is done
+     */
+    public CapturingReader capture(Reader body) {
+        return new CapturingReader(body, maxEntryBytes / 2);
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        totalBytes = 0;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getTotalBytes() {
+        return totalBytes;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getRevalidations() {
+        return revalidations.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public double getHitRate() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        return total == 0 ? 0.0 : (double) h / total;
+    }
+
+    private void remove(String key) {
+        Entry old = entries.remove(key);
+        if (old != null) {
+            totalBytes -= old.size;
+        }
+    }
+
+    /**
+     * Passes a response stream through while keeping a copy, up to a limit
+     */
+    public static class CapturingReader extends Reader {
+        private final Reader delegate;
+        private final long maxChars;
+        private StringBuilder copy = new StringBuilder();
+
+        CapturingReader(Reader delegate, long maxChars) {
+            this.delegate = delegate;
+            this.maxChars = maxChars;
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) throws IOException {
+            int n = delegate.read(buffer, offset, length);
+            if (n > 0 && copy != null) {
+                if (copy.length() + n > maxChars) {
+                    copy = null; // too large to cache, keep streaming only
+                } else {
+                    copy.append(buffer, offset, n);
+                }
+            }
+            return n;
+        }
+
+        /**
+         * Read whatever the consumer left unread and return the full body,
+         * or null if it was too large or could not be read to the end
+         */
+        public String finish() {
+            char[] buffer = new char[8192];
+            try {
+                while (copy != null && read(buffer, 0, buffer.length) >= 0) {
+                    // draining into the copy
+                }
+            } catch (IOException e) {
+                return null;
+            }
+            return copy != null ? copy.toString() : null;
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+    }
+
+    private static class Entry {
+        final String body;
+        final String etag;
+        final String lastModified;
+        final long size;
+        long storedAt;
+
+        Entry(String body, String etag, String lastModified, long size) {
+            this.body = body;
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.size = size;
+            this.storedAt = System.nanoTime();
+        }
+
+        boolean hasValidators() {
+            return etag != null || lastModified != null;
+        }
+    }
+}
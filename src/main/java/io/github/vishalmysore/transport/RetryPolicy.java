@@ -0,0 +1,47 @@
+package io.github.vishalmysore.transport;
+
+import io.github.vishalmysore.config.MoltbookConfig;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Which failures are retried and how long to wait between attempts.
+ *
+ * Backoff is capped exponential with full jitter: attempt n waits a random
+ * time between 0 and min(maxBackoff, initialBackoff * 2^(n-1)), so clients
+ * that failed together do not retry together.
+ */
+public class RetryPolicy {
+
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+
+    public RetryPolicy(MoltbookConfig.Resilience config) {
+        this.maxAttempts = Math.max(1, config.getMaxAttempts());
+        this.initialBackoffMillis = Math.max(1, config.getInitialBackoffMillis());
+        this.maxBackoffMillis = Math.max(initialBackoffMillis, config.getMaxBackoffMillis());
+    }
+
+    /**
+     * Attempts for a request; only idempotent methods are retried
+     */
+    public int attemptsFor(String method) {
+        return "GET".equals(method) || "DELETE".equals(method) ? maxAttempts : 1;
+    }
+
+    /**
+     * Server errors, gateway errors, 408 request timeouts and 429s are worth
+     * another attempt; other 4xx responses are not
+     */
+    public boolean isRetryable(MoltbookApiException error) {
+        return error.isServerError() || error.getStatusCode() == 429 || error.getStatusCode() == 408;
+    }
+
+    public Duration backoff(int attempt) {
+        long ceiling = initialBackoffMillis << Math.min(attempt - 1, 20);
+        long capped = Math.min(maxBackoffMillis, ceiling);
+        return Duration.ofMillis(ThreadLocalRandom.current().nextLong(capped + 1));
+    }
+}
@@ -0,0 +1,31 @@
+package io.github.vishalmysore.transport;
+
+import lombok.Getter;
+import okhttp3.Headers;
+
+/**
+ * Fully buffered HTTP response returned by {@link MoltbookTransport}
+ */
+@Getter
+public class TransportResponse {
+
+    private final int code;
+    private final String message;
+    private final Headers headers;
+    private final String body;
+
+    public TransportResponse(int code, String message, Headers headers, String body) {
+        this.code = code;
+        this.message = message;
+        this.headers = headers;
+        this.body = body;
+    }
+
+    public boolean isSuccessful() {
+        return code >= 200 && code < 300;
+    }
+
+    public String header(String name) {
+        return headers != null ? headers.get(name) : null;
+    }
+}
@@ -0,0 +1,165 @@
+package io.github.vishalmysore.analyzer;
+
+import com.t4a.processor.AIProcessor;
+import io.github.vishalmysore.config.MoltbookConfig;
+import io.github.vishalmysore.model.FeedItem;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test for feed parsing and batched relevance classification, with a scripted AI
+ */
+public class FeedAnalyzerTest {
+
+    private static final String POST = "{\"id\": \"%s\", \"title\": \"%s\", \"content\": \"about java agents\"}";
+
+    @Test
+    public void testMalformedFeedKeepsItemsParsedSoFar() {
+        FeedAnalyzer analyzer = analyzer(new MoltbookConfig(), prompt -> "java, agents");
+        String feed = "{\"posts\": [" + String.format(POST, "a", "one") + ", " + String.format(POST, "b", "two")
+                + ", {\"id\": }";
+        List<FeedItem> items = analyzer.parseFeed(feed);
+        assertEquals(List.of("a", "b"), items.stream().map(FeedItem::getId).toList());
+        assertTrue(analyzer.parseFeed("").isEmpty());
+    }
+
+    @Test
+    public void testMistypedFieldKeepsItemsParsedSoFar() {
+        FeedAnalyzer analyzer = analyzer(new MoltbookConfig(), prompt -> "java, agents");
+        String feed = "{\"posts\": [" + String.format(POST, "a", "one")
+                + ", {\"id\": \"b\", \"upvotes\": \"n/a\"}, " + String.format(POST, "c", "three") + "]}";
+        assertEquals(List.of("a"), analyzer.parseFeed(feed).stream().map(FeedItem::getId).toList());
+
+        String badAuthor = "{\"posts\": [" + String.format(POST, "a", "one")
+                + ", {\"id\": \"b\", \"author\": \"bob\"}]}";
+        assertEquals(List.of("a"), analyzer.parseFeed(badAuthor).stream().map(FeedItem::getId).toList());
+    }
+
+    @Test
+    public void testIoErrorWhileStreamingIsRethrown() {
+        FeedAnalyzer analyzer = analyzer(new MoltbookConfig(), prompt -> "java, agents");
+        String head = "{\"posts\": [" + String.format(POST, "a", "one") + ", ";
+        Reader broken = new Reader() {
+            private final Reader delegate = new StringReader(head);
+
+            @Override
+            public int read(char[] buffer, int offset, int length) throws IOException {
+                int read = delegate.read(buffer, offset, length);
+                if (read < 0) {
+                    throw new IOException("connection reset");
+                }
+                return read;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        UncheckedIOException e = assertThrows(UncheckedIOException.class, () -> analyzer.parseFeed(broken));
+        assertEquals("connection reset", e.getCause().getMessage());
+    }
+
+    @Test
+    public void testBatchAnswerMapsNumberedIdsToItems() {
+        List<String> prompts = new ArrayList<>();
+        FeedAnalyzer analyzer = analyzer(new MoltbookConfig(), prompt -> {
+            prompts.add(prompt);
+            return prompt.startsWith("Extract") ? "java"
+                    : "[{\"id\": \"2\", \"relevant\": true, \"reason\": \"r\"},"
+                            + " {\"id\": \"1\", \"relevant\": false}, {\"id\": \" 3 \", \"relevant\": true}]";
+        });
+        List<FeedItem> items = items("java one", "java two", "java three");
+
+        assertEquals(List.of(items.get(1), items.get(2)), analyzer.classifyCandidates(items));
+        // keyword extraction plus one batch call, no per-item calls
+        assertEquals(2, prompts.size());
+        assertTrue(prompts.get(1).contains("\"id\":\"3\""));
+        // decided items are served from the cache
+        assertEquals(List.of(items.get(1), items.get(2)), analyzer.classifyCandidates(items));
+        assertEquals(2, prompts.size());
+    }
+
+    @Test
+    public void testBatchAnswerAsFencedItemsObject() {
+        FeedAnalyzer analyzer = analyzer(new MoltbookConfig(), prompt -> prompt.startsWith("Extract") ? "java"
+                : "```json\n{\"items\": [{\"id\": \"1\", \"relevant\": true}, {\"id\": \"2\", \"relevant\": false}]}\n```");
+        List<FeedItem> items = items("java one", "java two");
+        assertEquals(List.of(items.get(0)), analyzer.classifyCandidates(items));
+    }
+
+    @Test
+    public void testOutOfRangeAndMissingIdsFallBackToSingleChecks() {
+        List<String> singleChecks = new ArrayList<>();
+        FeedAnalyzer analyzer = analyzer(new MoltbookConfig(), prompt -> {
+            if (prompt.startsWith("Extract")) {
+                return "java";
+            }
+            if (prompt.contains("Analyze this feed item text")) {
+                singleChecks.add(prompt);
+                return "{\"relevant\": " + prompt.contains("java three") + ", \"reason\": \"single\"}";
+            }
+            return "[{\"id\": \"0\", \"relevant\": true}, {\"id\": \"1\", \"relevant\": true},"
+                    + " {\"id\": \"4\", \"relevant\": true}]";
+        });
+        List<FeedItem> items = items("java one", "java two", "java three");
+
+        assertEquals(List.of(items.get(0), items.get(2)), analyzer.classifyCandidates(items));
+        assertEquals(2, singleChecks.size()); // items 2 and 3 were not answered
+    }
+
+    @Test
+    public void testMalformedBatchFallsBackToSingleChecks() {
+        List<String> singleChecks = new ArrayList<>();
+        FeedAnalyzer analyzer = analyzer(new MoltbookConfig(), prompt -> {
+            if (prompt.startsWith("Extract")) {
+                return "java";
+            }
+            if (prompt.contains("Analyze this feed item text")) {
+                singleChecks.add(prompt);
+                return prompt.contains("java two") ? "not json" : "{\"relevant\": false, \"reason\": \"no\"}";
+            }
+            return "Sure! Here are my decisions: item one is relevant";
+        });
+        List<FeedItem> items = items("java one", "java two");
+
+        // a failed single check keeps the keyword match
+        assertEquals(List.of(items.get(1)), analyzer.classifyCandidates(items));
+        assertEquals(2, singleChecks.size());
+    }
+
+    private static List<FeedItem> items(String... titles) {
+        List<FeedItem> items = new ArrayList<>();
+        for (String title : titles) {
+            FeedItem item = new FeedItem();
+            item.setId("id-" + title);
+            item.setTitle(title);
+            items.add(item);
+        }
+        return items;
+    }
+
+    /**
+     * Analyzer whose AI answers with the given function; keywords come from
+     * the first call
+     */
+    static FeedAnalyzer analyzer(MoltbookConfig config, Function<String, String> ai) {
+        AIProcessor processor = (AIProcessor) Proxy.newProxyInstance(AIProcessor.class.getClassLoader(),
+                new Class<?>[] { AIProcessor.class }, (proxy, method, args) -> {
+                    if (method.getName().equals("query") && args.length == 1) {
+                        return ai.apply((String) args[0]);
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+        return new FeedAnalyzer(config, processor, () -> "[answerQuestion, compareTools]");
+    }
+}
@@ -0,0 +1,124 @@
+package io.github.vishalmysore.analyzer;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import io.github.vishalmysore.model.FeedItem;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compares the old tree-based feed parsing (String -> JsonObject -> FeedItem)
+ * with FeedStreamParser reading the response bytes directly.
+ *
+ * Not a unit test - run manually:
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/classes:target/test-classes:$(cat target/cp.txt) io.github.vishalmysore.analyzer.FeedParseBenchmark
+ */
+public class FeedParseBenchmark {
+
+    private static final int ITEMS = 50;
+    private static final int BODY_CHARS = 4000;
+    private static final int WARMUP = 2_000;
+    private static final int ITERATIONS = 5_000;
+
+    private static final Gson gson = new Gson();
+
+    public static void main(String[] args) throws Exception {
+        byte[] response = buildFeed().getBytes(StandardCharsets.UTF_8);
+        System.out.printf("Feed: %d items, %,d bytes%n%n", ITEMS, response.length);
+
+        FeedStreamParser streamParser = new FeedStreamParser();
+        FeedStreamParser cappedParser = new FeedStreamParser(500);
+
+        run("tree (String + JsonObject + fromJson)", () -> treeParse(response));
+        run("stream from bytes", () -> streamParse(streamParser, response));
+        run("stream from bytes, 500 char cap", () -> streamParse(cappedParser, response));
+    }
+
+    /**
+     * The pre-streaming FeedAnalyzer.parseFeed, including reading the body into
+     * a String as the transport used to
+     */
+    private static List<FeedItem> treeParse(byte[] response) {
+        String feedJson = new String(response, StandardCharsets.UTF_8);
+        List<FeedItem> items = new ArrayList<>();
+        JsonObject parsed = gson.fromJson(feedJson, JsonObject.class);
+        if (parsed.has("posts")) {
+            JsonArray posts = parsed.getAsJsonArray("posts");
+            for (JsonElement element : posts) {
+                items.add(gson.fromJson(element, FeedItem.class));
+            }
+        }
+        return items;
+    }
+
+    private static List<FeedItem> streamParse(FeedStreamParser parser, byte[] response) throws Exception {
+        List<FeedItem> items = new ArrayList<>();
+        try (Reader reader = new InputStreamReader(new ByteArrayInputStream(response), StandardCharsets.UTF_8)) {
+            parser.parse(reader, items);
+        }
+        return items;
+    }
+
+    private static void run(String name, ParseCall call) throws Exception {
+        for (int i = 0; i < WARMUP; i++) {
+            consume(call.parse());
+        }
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory
+                .getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            consume(call.parse());
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+        System.out.printf("%-40s %10.1f us/op %,14d bytes/op%n",
+                name, elapsed / 1000.0 / ITERATIONS, allocated / ITERATIONS);
+    }
+
+    private static long sink;
+
+    private static void consume(List<FeedItem> items) {
+        sink += items.size() + items.get(items.size() - 1).getContent().length();
+    }
+
+    private static String buildFeed() {
+        StringBuilder body = new StringBuilder();
+        while (body.length() < BODY_CHARS) {
+            body.append("Agents helping agents with java coding questions, \\\"quoted\\\" text and emoji \\ud83e\\udd9e. ");
+        }
+        StringBuilder json = new StringBuilder("{\"success\":true,\"posts\":[");
+        for (int i = 0; i < ITEMS; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"id\":\"post-").append(i).append("\",")
+                    .append("\"title\":\"Post number ").append(i).append("\",")
+                    .append("\"content\":\"").append(body).append("\",")
+                    .append("\"url\":null,\"upvotes\":").append(i).append(",\"downvotes\":0,")
+                    .append("\"comment_count\":3,\"created_at\":\"2026-02-12T14:56:17.788793+00:00\",")
+                    .append("\"submolt\":{\"id\":\"s1\",\"name\":\"general\",\"display_name\":\"General\"},")
+                    .append("\"author\":{\"id\":\"a").append(i).append("\",\"name\":\"Agent").append(i)
+                    .append("\",\"description\":\"AI agent\",\"karma\":10,\"follower_count\":1},")
+                    .append("\"you_follow_author\":false}");
+        }
+        return json.append("],\"count\":").append(ITEMS).append('}').toString();
+    }
+
+    @FunctionalInterface
+    private interface ParseCall {
+        List<FeedItem> parse() throws Exception;
+    }
+}
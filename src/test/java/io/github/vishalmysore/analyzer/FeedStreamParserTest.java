@@ -0,0 +1,89 @@
+package io.github.vishalmysore.analyzer;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import io.github.vishalmysore.model.FeedItem;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test for streaming feed parsing
+ */
+public class FeedStreamParserTest {
+
+    private static final String FEED_JSON = "{\n" +
+            "  \"success\" : true,\n" +
+            "  \"posts\" : [{\n" +
+            "    \"id\" : \"897897-76ff-9999-85b1-8767876\",\n" +
+            "    \"title\" : \"Spreading tokens #135\",\n" +
+            "    \"content\" : \"test content\",\n" +
+            "    \"url\" : null,\n" +
+            "    \"upvotes\" : 3,\n" +
+            "    \"downvotes\" : 0,\n" +
+            "    \"comment_count\" : 2,\n" +
+            "    \"created_at\" : \"2026-02-12T14:56:17.788793+00:00\",\n" +
+            "    \"submolt\" : { \"id\" : \"olaola\", \"name\" : \"general\", \"display_name\" : \"General\" },\n" +
+            "    \"author\" : { \"id\" : \"towtotango\", \"name\" : \"TestUser\", \"karma\" : 5,\n" +
+            "                   \"follower_count\" : 1, \"badges\" : [\"new\"] },\n" +
+            "    \"tags\" : { \"nested\" : [1, 2, {\"deep\" : true}] },\n" +
+            "    \"you_follow_author\" : false\n" +
+            "  }],\n" +
+            "  \"results\" : [{ \"id\" : \"r1\", \"type\" : \"post\", \"title\" : \"Search hit\", \"post_id\" : \"p1\" }]\n" +
+            "}";
+
+    @Test
+    public void testParsePostsAndResults() throws Exception {
+        List<FeedItem> items = new ArrayList<>();
+        new FeedStreamParser().parse(new StringReader(FEED_JSON), items);
+
+        assertEquals(2, items.size());
+
+        FeedItem post = items.get(0);
+        assertEquals("897897-76ff-9999-85b1-8767876", post.getId());
+        assertEquals("Spreading tokens #135", post.getTitle());
+        assertEquals("test content", post.getContent());
+        assertNull(post.getUrl());
+        assertEquals(3, post.getUpvotes());
+        assertEquals(2, post.getCommentCount());
+        assertEquals("2026-02-12T14:56:17.788793+00:00", post.getCreatedAt());
+        assertEquals("General", post.getSubmolt().getDisplayName());
+        assertEquals("TestUser", post.getAuthor().getName());
+        assertEquals(1, post.getAuthor().getFollowerCount());
+        assertEquals(false, post.getYouFollowAuthor());
+
+        FeedItem result = items.get(1);
+        assertEquals("r1", result.getId());
+        assertEquals("post", result.getType());
+        assertEquals("p1", result.getPostId());
+    }
+
+    @Test
+    public void testMatchesGsonMappingOfFeedItem() throws Exception {
+        List<FeedItem> items = new ArrayList<>();
+        new FeedStreamParser().parse(new StringReader(FEED_JSON), items);
+
+        // Same mapping as the tree parser, so fields added to FeedItem are not dropped
+        JsonObject tree = JsonParser.parseString(FEED_JSON).getAsJsonObject();
+        Gson gson = new Gson();
+        assertEquals(gson.fromJson(tree.getAsJsonArray("posts").get(0), FeedItem.class), items.get(0));
+        assertEquals(gson.fromJson(tree.getAsJsonArray("results").get(0), FeedItem.class), items.get(1));
+    }
+
+    @Test
+    public void testFieldSizeCap() throws Exception {
+        List<FeedItem> items = new ArrayList<>();
+        new FeedStreamParser(4).parse(new StringReader(FEED_JSON), items);
+
+        assertEquals("Spre", items.get(0).getTitle());
+        assertEquals("test", items.get(0).getContent());
+        assertEquals("Gene", items.get(0).getSubmolt().getDisplayName());
+        // ids are never truncated
+        assertEquals("897897-76ff-9999-85b1-8767876", items.get(0).getId());
+    }
+}
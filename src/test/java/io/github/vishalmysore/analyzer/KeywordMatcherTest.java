@@ -0,0 +1,58 @@
+package io.github.vishalmysore.analyzer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test for the Aho-Corasick keyword prefilter
+ */
+public class KeywordMatcherTest {
+
+    @Test
+    public void testCaseInsensitiveSubstringMatch() {
+        KeywordMatcher matcher = new KeywordMatcher(List.of("java", "Agent", "ai"));
+
+        assertTrue(matcher.matchesAny("Looking for AGENTS who know JaVa"));
+        assertTrue(matcher.matchesAny("email")); // substring, like String.contains
+        assertFalse(matcher.matchesAny("nothing relevant here"));
+        assertFalse(matcher.matchesAny(null));
+        assertFalse(new KeywordMatcher(List.of()).matchesAny("java"));
+    }
+
+    @Test
+    public void testReportsOverlappingHitsAndPositions() {
+        KeywordMatcher matcher = new KeywordMatcher(List.of("he", "she", "his", "hers"));
+
+        List<KeywordMatcher.Match> matches = matcher.findAll("USHERS");
+        List<String> found = new ArrayList<>();
+        for (KeywordMatcher.Match match : matches) {
+            found.add(match + "-" + match.getEnd());
+        }
+        assertEquals(List.of("she@1-4", "he@2-4", "hers@2-6"), found);
+
+        Set<String> distinct = matcher.findKeywords("he said she said hers");
+        assertEquals(Set.of("he", "she", "hers"), distinct);
+    }
+
+    @Test
+    public void testAgreesWithContainsForManyKeywords() {
+        List<String> keywords = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            keywords.add("skill" + i + "x");
+        }
+        keywords.add("booking");
+        KeywordMatcher matcher = new KeywordMatcher(keywords);
+
+        String text = "Please help with car service Booking and skill42x and skill4x, not skill7";
+        Set<String> found = matcher.findKeywords(text);
+        String lower = text.toLowerCase();
+        for (String keyword : keywords) {
+            assertEquals(lower.contains(keyword), found.contains(keyword), keyword);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package io.github.vishalmysore.analyzer;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test for the bounded, persistent cache of AI relevance decisions
+ */
+public class RelevanceCacheTest {
+
+    private static final String SKILLS = RelevanceCache.fingerprint("[answerQuestion]");
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void testEntriesExpireAfterTtl() throws Exception {
+        RelevanceCache cache = new RelevanceCache(10, Duration.ofMillis(50), null);
+        cache.put("p1", "text", SKILLS, true);
+        assertEquals(Boolean.TRUE, cache.get("p1", "text", SKILLS));
+        Thread.sleep(120);
+        assertNull(cache.get("p1", "text", SKILLS));
+        assertEquals(0, cache.size());
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEvictedBeyondMaxEntries() {
+        RelevanceCache cache = new RelevanceCache(2, Duration.ofHours(1), null);
+        cache.put("p1", "one", SKILLS, true);
+        cache.put("p2", "two", SKILLS, false);
+        cache.get("p1", "one", SKILLS); // p2 is now least recently used
+        cache.put("p3", "three", SKILLS, true);
+
+        assertEquals(2, cache.size());
+        assertEquals(Boolean.TRUE, cache.get("p1", "one", SKILLS));
+        assertNull(cache.get("p2", "two", SKILLS));
+        assertEquals(Boolean.TRUE, cache.get("p3", "three", SKILLS));
+    }
+
+    @Test
+    public void testKeyFollowsTextAndSkills() {
+        RelevanceCache cache = new RelevanceCache(10, Duration.ofHours(1), null);
+        cache.put("p1", "text", SKILLS, true);
+        assertNull(cache.get("p1", "edited text", SKILLS));
+
+        String otherSkills = RelevanceCache.fingerprint("[answerQuestion, compareTools]");
+        assertNotEquals(SKILLS, otherSkills);
+        assertNull(cache.get("p1", "text", otherSkills));
+
+        assertEquals(1, cache.invalidateOtherFingerprints(otherSkills));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testSaveAndReload() throws Exception {
+        Path file = dir.resolve("cache/relevance.json");
+        RelevanceCache cache = new RelevanceCache(10, Duration.ofHours(1), file);
+        cache.put("p1", "one", SKILLS, true);
+        cache.put("p2", "two", SKILLS, false);
+        cache.save();
+        assertTrue(Files.exists(file));
+
+        RelevanceCache reloaded = new RelevanceCache(10, Duration.ofHours(1), file);
+        assertEquals(2, reloaded.size());
+        assertEquals(Boolean.TRUE, reloaded.get("p1", "one", SKILLS));
+        assertEquals(Boolean.FALSE, reloaded.get("p2", "two", SKILLS));
+    }
+
+    @Test
+    public void testExpiredAndUnreadableFilesAreIgnoredOnLoad() throws Exception {
+        Path file = dir.resolve("relevance.json");
+        Files.writeString(file, "[{\"key\": \"old\", \"fingerprint\": \"" + SKILLS
+                + "\", \"relevant\": true, \"createdAt\": 0}]");
+        assertEquals(0, new RelevanceCache(10, Duration.ofHours(1), file).size());
+
+        Files.writeString(file, "not json");
+        assertEquals(0, new RelevanceCache(10, Duration.ofHours(1), file).size());
+    }
+}
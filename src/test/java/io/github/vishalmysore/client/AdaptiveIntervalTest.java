@@ -0,0 +1,65 @@
+package io.github.vishalmysore.client;
+
+import io.github.vishalmysore.config.MoltbookConfig;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test for the feed-driven heartbeat interval
+ */
+public class AdaptiveIntervalTest {
+
+    @Test
+    public void testIdleFeedBacksOffAndBusyFeedSpeedsUp() {
+        AdaptiveInterval interval = new AdaptiveInterval(config());
+        assertEquals(Duration.ofMinutes(10), interval.getCurrent());
+
+        // Nothing new: double, capped at max
+        interval.update(0, Duration.ofMinutes(10), 0, 1.0);
+        assertEquals(Duration.ofMinutes(20), interval.getCurrent());
+        interval.update(0, Duration.ofMinutes(20), 0, 1.0);
+        assertEquals(Duration.ofMinutes(30), interval.getCurrent());
+        assertTrue(interval.getReason().contains("idle feed"));
+
+        // 50 items in 30 min, target 25: at most halved per step, then settles at 15 min
+        interval.update(50, Duration.ofMinutes(30), 0, 1.0);
+        assertEquals(Duration.ofMinutes(15), interval.getCurrent());
+        assertTrue(interval.getReason().contains("feed velocity"));
+    }
+
+    @Test
+    public void testRelevantHitsShortenAndLowBudgetLengthens() {
+        AdaptiveInterval interval = new AdaptiveInterval(config());
+
+        // 25 items in 10 min is on target; 5 relevant halves it
+        interval.update(25, Duration.ofMinutes(10), 5, 1.0);
+        assertEquals(Duration.ofMinutes(5), interval.getCurrent());
+
+        interval.update(25, Duration.ofMinutes(5), 0, 0.1);
+        assertEquals(Duration.ofMinutes(10), interval.getCurrent());
+        assertTrue(interval.getReason().contains("rate budget low"));
+    }
+
+    @Test
+    public void testFixedWhenNotAdaptive() {
+        MoltbookConfig.Heartbeat.Interval config = config();
+        config.setAdaptive(false);
+        AdaptiveInterval interval = new AdaptiveInterval(config);
+
+        interval.update(0, Duration.ofMinutes(10), 0, 1.0);
+        assertEquals(Duration.ofMinutes(10), interval.getCurrent());
+        assertEquals("fixed", interval.getReason());
+    }
+
+    private static MoltbookConfig.Heartbeat.Interval config() {
+        MoltbookConfig.Heartbeat.Interval config = new MoltbookConfig.Heartbeat.Interval();
+        config.setMinutes(10);
+        config.setMinMinutes(2);
+        config.setMaxMinutes(30);
+        config.setTargetNewItems(25);
+        return config;
+    }
+}
@@ -0,0 +1,49 @@
+package io.github.vishalmysore.client;
+
+import io.github.vishalmysore.analyzer.FeedAnalyzer;
+import io.github.vishalmysore.config.MoltbookConfig;
+import io.github.vishalmysore.transport.MoltbookTransport;
+
+/**
+ * Measures the heap retained by each additional agent of an AgentRuntime
+ * (client, rate limiter, seen-set, feed mark, activity log, heartbeat).
+ * No requests are made and no heartbeat runs.
+ *
+ * Not a unit test - run manually:
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/classes:target/test-classes:$(cat target/cp.txt) io.github.vishalmysore.client.AgentFootprintBenchmark
+ */
+public class AgentFootprintBenchmark {
+
+    private static final int AGENTS = 200;
+
+    public static void main(String[] args) throws Exception {
+        MoltbookConfig config = new MoltbookConfig();
+        MoltbookTransport transport = new MoltbookTransport(config);
+        FeedAnalyzer analyzer = new FeedAnalyzer(config);
+        AgentRuntime runtime = new AgentRuntime(config, transport, analyzer, new LoggingHumanDecision());
+
+        // First agent pays for the shared executor and scheduler
+        runtime.addAgent("warmup", "key-warmup");
+        long before = usedHeap();
+        for (int i = 0; i < AGENTS; i++) {
+            runtime.addAgent("agent-" + i, "key-" + i);
+        }
+        long after = usedHeap();
+
+        System.out.printf("%d agents: %,d KB retained, %,d KB per agent%n",
+                AGENTS, (after - before) / 1024, (after - before) / AGENTS / 1024);
+        System.out.printf("(seen-set: %d ids x 2 Bloom generations, GET cache up to %,d KB per agent)%n",
+                config.getHeartbeat().getSeenFilterCapacity(), config.getMultiAgent().getCacheMaxBytes() / 1024);
+        runtime.shutdown();
+    }
+
+    private static long usedHeap() throws InterruptedException {
+        Runtime jvm = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(100);
+        }
+        return jvm.totalMemory() - jvm.freeMemory();
+    }
+}
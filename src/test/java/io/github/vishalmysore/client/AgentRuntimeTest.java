@@ -0,0 +1,48 @@
+package io.github.vishalmysore.client;
+
+import io.github.vishalmysore.analyzer.FeedAnalyzer;
+import io.github.vishalmysore.config.MoltbookConfig;
+import io.github.vishalmysore.transport.MoltbookTransport;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test for placing the first heartbeats of agents added at runtime
+ */
+public class AgentRuntimeTest {
+
+    @TempDir
+    Path stateDir;
+
+    @Test
+    public void testAgentsAddedOneByOneSpreadAcrossInterval() {
+        MoltbookConfig config = new MoltbookConfig();
+        config.getApi().setBaseUrl("http://127.0.0.1:1/api/v1"); // a heartbeat that starts fails fast
+        config.getHeartbeat().getInterval().setMinutes(40);
+        config.getMultiAgent().setStateDir(stateDir.toString());
+        AgentRuntime runtime = new AgentRuntime(config, new MoltbookTransport(config), new FeedAnalyzer(config),
+                new LoggingHumanDecision());
+        try {
+            Instant start = Instant.now();
+            List<Long> minutes = new ArrayList<>();
+            for (String name : List.of("a", "b", "c", "d")) {
+                Instant nextRun = runtime.addAgent(name, "key-" + name).getHeartbeat().getNextRunAt();
+                minutes.add(Math.round(Duration.between(start, nextRun).toSeconds() / 60.0));
+            }
+            // Each new agent halves the widest gap left by the ones before it
+            assertEquals(20L, minutes.get(1));
+            minutes.sort(null);
+            assertEquals(List.of(0L, 10L, 20L, 30L), minutes);
+        } finally {
+            runtime.shutdown();
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package io.github.vishalmysore.client;
+
+import io.github.vishalmysore.model.FeedItem;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test for the feed high-water mark
+ */
+public class FeedHighWaterMarkTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testItemsSharingTheLatestTimestampAreTrackedById() {
+        FeedHighWaterMark mark = new FeedHighWaterMark(null);
+        assertTrue(mark.isEmpty());
+        assertTrue(mark.isNew(item("a", "2026-09-01T10:00:00Z")));
+
+        mark.advance(List.of(item("a", "2026-09-01T10:00:00Z"), item("old", "2026-09-01T09:00:00Z")));
+        assertEquals(Instant.parse("2026-09-01T10:00:00Z"), mark.getLatest());
+
+        assertFalse(mark.isNew(item("a", "2026-09-01T10:00:00Z")));
+        assertFalse(mark.isNew(item("older", "2026-09-01T09:30:00Z")));
+        assertTrue(mark.isNew(item("b", "2026-09-01T10:00:00Z")), "same second, not pulled yet");
+        assertFalse(mark.isNew(item("a", "2026-09-01T12:00:00+02:00")), "offsets are normalized");
+
+        mark.advance(List.of(item("b", "2026-09-01T10:00:00Z")));
+        assertFalse(mark.isNew(item("b", "2026-09-01T10:00:00Z")));
+        assertFalse(mark.isNew(item("a", "2026-09-01T10:00:00Z")), "ties accumulate");
+
+        mark.advance(List.of(item("d", "2026-09-01T10:00:01Z")));
+        assertTrue(mark.isNew(item("b2", "2026-09-01T10:00:01Z")));
+        assertFalse(mark.isNew(item("a", "2026-09-01T10:00:00Z")));
+    }
+
+    @Test
+    public void testUnparseableTimestampsCountAsNewAndDoNotMoveTheMark() {
+        FeedHighWaterMark mark = new FeedHighWaterMark(null);
+        mark.advance(List.of(item("x", "yesterday"), item("y", null)));
+        assertTrue(mark.isEmpty());
+
+        mark.advance(List.of(item("a", "2026-09-01T10:00:00Z"), item("x", "yesterday")));
+        assertEquals(Instant.parse("2026-09-01T10:00:00Z"), mark.getLatest());
+        assertTrue(mark.isNew(item("x", "yesterday")));
+        assertTrue(mark.isNew(item("y", "")));
+    }
+
+    @Test
+    public void testAdvanceFinishedStopsBeforeOldestUnfinishedItem() {
+        FeedHighWaterMark mark = new FeedHighWaterMark(null);
+        List<FeedItem> feed = List.of(item("e", "2026-09-01T10:05:00Z"), item("d", "2026-09-01T10:04:00Z"),
+                item("c", "2026-09-01T10:03:00Z"), item("b", "2026-09-01T10:02:00Z"),
+                item("a", "2026-09-01T10:01:00Z"));
+
+        // c was deferred (or failed), everything else is done
+        mark.advanceFinished(feed, item -> !item.getId().equals("c"));
+        assertEquals(Instant.parse("2026-09-01T10:02:00Z"), mark.getLatest());
+        assertTrue(mark.isNew(item("c", "2026-09-01T10:03:00Z")));
+        assertTrue(mark.isNew(item("e", "2026-09-01T10:05:00Z")), "pulled again and skipped as seen");
+
+        mark.advanceFinished(feed, item -> true);
+        assertEquals(Instant.parse("2026-09-01T10:05:00Z"), mark.getLatest());
+
+        FeedHighWaterMark untouched = new FeedHighWaterMark(null);
+        untouched.advanceFinished(feed, item -> !item.getId().equals("a"));
+        assertTrue(untouched.isEmpty());
+    }
+
+    @Test
+    public void testSaveAndLoadRoundTrip() throws Exception {
+        Path file = tempDir.resolve("state/feed-mark.json");
+        FeedHighWaterMark mark = new FeedHighWaterMark(file);
+        mark.save();
+        assertFalse(Files.exists(file), "nothing to save before the first advance");
+
+        mark.advance(List.of(item("a", "2026-09-01T10:00:00Z"), item("b", "2026-09-01T10:00:00Z")));
+        mark.save();
+
+        FeedHighWaterMark reloaded = new FeedHighWaterMark(file);
+        assertEquals(mark.getLatest(), reloaded.getLatest());
+        assertFalse(reloaded.isNew(item("a", "2026-09-01T10:00:00Z")));
+        assertFalse(reloaded.isNew(item("b", "2026-09-01T10:00:00Z")));
+        assertTrue(reloaded.isNew(item("c", "2026-09-01T10:00:00Z")));
+
+        Files.writeString(file, "{not json");
+        assertTrue(new FeedHighWaterMark(file).isEmpty());
+    }
+
+    private static FeedItem item(String id, String createdAt) {
+        FeedItem item = new FeedItem();
+        item.setId(id);
+        item.setCreatedAt(createdAt);
+        return item;
+    }
+}
@@ -0,0 +1,99 @@
+package io.github.vishalmysore.client;
+
+import io.github.vishalmysore.model.FeedItem;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test for lazy feed paging
+ */
+public class FeedPagerTest {
+
+    @Test
+    public void testStopsFetchingWhenConsumerStops() {
+        List<Integer> requestedOffsets = new ArrayList<>();
+        FeedPager pager = new FeedPager((offset, limit) -> {
+            requestedOffsets.add(offset);
+            return CompletableFuture.completedFuture(page(offset, limit));
+        }, 10, 0);
+
+        List<String> ids = pager.stream().limit(15).map(FeedItem::getId).collect(Collectors.toList());
+
+        assertEquals(15, ids.size());
+        assertEquals("post-14", ids.get(14));
+        // Page 2 is being consumed, page 3 was prefetched, nothing further
+        assertEquals(List.of(0, 10, 20), requestedOffsets);
+    }
+
+    @Test
+    public void testEndsOnShortPageAndSkipsShiftedDuplicates() {
+        FeedPager pager = new FeedPager((offset, limit) -> {
+            if (offset == 0) {
+                return CompletableFuture.completedFuture(page(0, 3));
+            }
+            // A new post arrived meanwhile, so post-2 shifted onto the second page
+            List<FeedItem> second = page(2, 2);
+            return CompletableFuture.completedFuture(second);
+        }, 3, 0);
+
+        List<String> ids = new ArrayList<>();
+        pager.forEachRemaining(item -> ids.add(item.getId()));
+        assertEquals(List.of("post-0", "post-1", "post-2", "post-3"), ids);
+    }
+
+    @Test
+    public void testSkipsDuplicatesFromAnyEarlierPageAndEndsWhenNothingIsNew() {
+        List<Integer> requestedOffsets = new ArrayList<>();
+        FeedPager pager = new FeedPager((offset, limit) -> {
+            requestedOffsets.add(offset);
+            switch (offset) {
+                case 0:
+                    return CompletableFuture.completedFuture(page(0, 3));
+                case 3:
+                    return CompletableFuture.completedFuture(page(3, 3));
+                default:
+                    // post-1 reappears two pages later, then the feed only repeats itself
+                    List<FeedItem> repeat = page(1, 1);
+                    repeat.addAll(page(offset == 6 ? 6 : 4, 2));
+                    return CompletableFuture.completedFuture(repeat);
+            }
+        }, 3, 0);
+
+        List<String> ids = new ArrayList<>();
+        pager.forEachRemaining(item -> ids.add(item.getId()));
+        assertEquals(List.of("post-0", "post-1", "post-2", "post-3", "post-4", "post-5", "post-6", "post-7"), ids);
+        assertEquals(List.of(0, 3, 6, 9), requestedOffsets);
+    }
+
+    @Test
+    public void testUntilStopsWithoutFetchingTheNextPage() {
+        List<Integer> requestedOffsets = new ArrayList<>();
+        FeedPager pager = new FeedPager((offset, limit) -> {
+            requestedOffsets.add(offset);
+            return CompletableFuture.completedFuture(page(offset, limit));
+        }, 10, 0).until(item -> item.getId().equals("post-14"));
+
+        List<String> ids = pager.stream().map(FeedItem::getId).collect(Collectors.toList());
+
+        assertEquals(14, ids.size());
+        assertEquals("post-13", ids.get(13));
+        // The boundary is on the second page, so the third is never requested
+        assertEquals(List.of(0, 10), requestedOffsets);
+    }
+
+    private static List<FeedItem> page(int offset, int size) {
+        List<FeedItem> items = new ArrayList<>();
+        for (int i = offset; i < offset + size; i++) {
+            FeedItem item = new FeedItem();
+            item.setId("post-" + i);
+            items.add(item);
+        }
+        return items;
+    }
+}
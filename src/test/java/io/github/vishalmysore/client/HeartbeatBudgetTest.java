@@ -0,0 +1,44 @@
+package io.github.vishalmysore.client;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test for the per-heartbeat time budget
+ */
+public class HeartbeatBudgetTest {
+
+    @Test
+    public void testReserveEndsEarlierAndSharesCounters() throws Exception {
+        HeartbeatBudget budget = HeartbeatBudget.of(Duration.ofSeconds(10));
+        HeartbeatBudget feedBudget = budget.withReserve(Duration.ofMillis(9_950));
+
+        Thread.sleep(80);
+        assertTrue(feedBudget.isExpired());
+        assertEquals(Duration.ZERO, feedBudget.remaining());
+        assertFalse(budget.isExpired());
+        assertTrue(budget.remaining().compareTo(Duration.ofSeconds(9)) > 0);
+
+        feedBudget.defer("classify", 2);
+        budget.defer("verify", 1);
+        feedBudget.defer("act", 0);
+        assertEquals(Map.of("classify", 2, "verify", 1), budget.getDeferred());
+        assertEquals(budget.getDeferred(), feedBudget.getDeferred());
+        assertTrue(budget.wasExceeded(), "running out of the reserved part counts for the whole heartbeat");
+    }
+
+    @Test
+    public void testNoLimit() {
+        for (Duration limit : new Duration[] {Duration.ZERO, Duration.ofSeconds(-1), null}) {
+            HeartbeatBudget budget = HeartbeatBudget.of(limit);
+            assertFalse(budget.isExpired());
+            assertFalse(budget.withReserve(Duration.ofMinutes(5)).isExpired());
+            assertEquals(Duration.ofNanos(Long.MAX_VALUE), budget.remaining());
+            assertFalse(budget.wasExceeded());
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package io.github.vishalmysore.client;
+
+import io.github.vishalmysore.config.MoltbookConfig;
+import io.github.vishalmysore.transport.CircuitBreaker;
+import io.github.vishalmysore.transport.EndpointClass;
+import io.github.vishalmysore.transport.MoltbookApiException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test for MoltbookAsyncClient against a local stub of the API
+ */
+public class MoltbookAsyncClientTest {
+
+    @Test
+    public void testTimeoutCancelsHttpCall() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        try (StubMoltbookServer server = new StubMoltbookServer(call -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return StubMoltbookServer.Response.ok("{}");
+        })) {
+            MoltbookConfig config = server.config();
+            config.getResilience().setFailureThreshold(1);
+            config.getResilience().setInitialBackoffMillis(10);
+            MoltbookClient client = MoltbookClientTest.client(server, config, "key");
+            ExecutorService executor = Executors.newSingleThreadExecutor();
+            try {
+                MoltbookAsyncClient async = new MoltbookAsyncClient(client, executor, Duration.ofMillis(300));
+
+                ExecutionException e = assertThrows(ExecutionException.class,
+                        () -> async.getProfile().get(5, TimeUnit.SECONDS));
+                assertInstanceOf(TimeoutException.class, e.getCause());
+
+                // The HTTP call is aborted while the server still holds it
+                long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+                while (client.getPoolMetrics().getRunningCalls() > 0 && System.nanoTime() < deadline) {
+                    Thread.sleep(10);
+                }
+                assertEquals(0, client.getPoolMetrics().getRunningCalls());
+
+                // ...and neither retried nor counted against the circuit
+                release.countDown();
+                Thread.sleep(200);
+                assertEquals(1, server.getCalls().size());
+                assertEquals(CircuitBreaker.State.CLOSED, client.getCircuitState("GET", "/agents/me"));
+            } finally {
+                release.countDown();
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    @Test
+    public void testFailuresPropagateToTheFuture() throws Exception {
+        try (StubMoltbookServer server = new StubMoltbookServer(call -> "GET".equals(call.method)
+                ? new StubMoltbookServer.Response(404, "{\"error\": \"Post not found\"}", null)
+                : new StubMoltbookServer.Response(400, "{\"error\": \"Content required\"}", null))) {
+            MoltbookConfig config = server.config();
+            MoltbookClient client = MoltbookClientTest.client(server, config, "key");
+            ExecutorService executor = Executors.newSingleThreadExecutor();
+            try {
+                MoltbookAsyncClient async = new MoltbookAsyncClient(client, executor, Duration.ofSeconds(5));
+
+                ExecutionException read = assertThrows(ExecutionException.class,
+                        () -> async.getComments("missing", "top").get(5, TimeUnit.SECONDS));
+                MoltbookApiException notFound = assertInstanceOf(MoltbookApiException.class,
+                        read.getCause().getCause());
+                assertEquals(404, notFound.getStatusCode());
+
+                ExecutionException write = assertThrows(ExecutionException.class,
+                        () -> async.createComment("post-1", "").get(5, TimeUnit.SECONDS));
+                MoltbookApiException badRequest = assertInstanceOf(MoltbookApiException.class, write.getCause());
+                assertEquals(400, badRequest.getStatusCode());
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    @Test
+    public void testRateLimitWaitHoldsNoThreadAndTakesOneToken() throws Exception {
+        try (StubMoltbookServer server = new StubMoltbookServer(
+                call -> StubMoltbookServer.Response.ok("{\"success\": true}"))) {
+            MoltbookConfig config = server.config();
+            config.getRateLimit().setReadPerMinute(60);
+            config.getRateLimit().setReadBurst(1);
+            MoltbookClient client = MoltbookClientTest.client(server, config, "key");
+            ExecutorService executor = Executors.newSingleThreadExecutor();
+            try {
+                MoltbookAsyncClient async = new MoltbookAsyncClient(client, executor, Duration.ofSeconds(5));
+
+                long start = System.nanoTime();
+                async.getProfile().get(5, TimeUnit.SECONDS);
+                CompletableFuture<String> feed = async.getFeed(5); // waits about a second for a read token
+                // A follow is a write: it neither waits for the read bucket nor
+                // queues behind the waiting feed call on the only executor thread
+                async.followAgent("molty").get(5, TimeUnit.SECONDS);
+                assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(500));
+                assertFalse(feed.isDone());
+
+                feed.get(5, TimeUnit.SECONDS);
+                assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(900));
+                assertEquals("/agents/molty/follow", server.getCalls().get(1).path);
+                assertEquals("/feed?sort=new&limit=5", server.getCalls().get(2).path);
+
+                // The feed call took one read token, not one to wait and one to send
+                long nextRead = client.getRateLimiter().timeUntilAvailable(EndpointClass.READ).toMillis();
+                assertTrue(nextRead > 500 && nextRead <= 1000, String.valueOf(nextRead));
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package io.github.vishalmysore.client;
+
+import io.github.vishalmysore.config.MoltbookConfig;
+import io.github.vishalmysore.examples.MoltbookActions;
+import io.github.vishalmysore.service.ActivityTrackingService;
+import io.github.vishalmysore.service.MoltbookService;
+import io.github.vishalmysore.transport.CircuitBreaker;
+import io.github.vishalmysore.transport.EndpointClass;
+import io.github.vishalmysore.transport.MoltbookTransport;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test for MoltbookClient against a local stub of the API
+ */
+public class MoltbookClientTest {
+
+    @Test
+    public void testUnexpectedFailureOnTrialCallReleasesCircuit() throws Exception {
+        AtomicInteger requests = new AtomicInteger();
+        try (StubMoltbookServer server = new StubMoltbookServer(call -> requests.incrementAndGet() == 1
+                ? new StubMoltbookServer.Response(503, "{}", null)
+                : StubMoltbookServer.Response.ok("{\"posts\": []}"))) {
+            MoltbookConfig config = server.config();
+            config.getResilience().setMaxAttempts(1);
+            config.getResilience().setFailureThreshold(1);
+            config.getResilience().setOpenSeconds(0); // a trial call is allowed right away
+            MoltbookClient client = client(server, config, "key");
+
+            assertThrows(RuntimeException.class, () -> client.getFeed(10, body -> "unused"));
+            assertEquals(CircuitBreaker.State.HALF_OPEN, client.getCircuitState("GET", "/feed"));
+
+            // The trial call's body reader fails with something other than an I/O error
+            RuntimeException e = assertThrows(RuntimeException.class, () -> client.getFeed(10, body -> {
+                throw new IllegalStateException("reader bug");
+            }));
+            assertInstanceOf(IllegalStateException.class, e.getCause());
+
+            // The circuit still lets a trial through and closes on success
+            assertEquals("ok", client.getFeed(10, body -> "ok"));
+            assertEquals(CircuitBreaker.State.CLOSED, client.getCircuitState("GET", "/feed"));
+        }
+    }
+
+    @Test
+    public void testSharedActionUsesKeyOfAgentRunningIt() throws Exception {
+        try (StubMoltbookServer server = new StubMoltbookServer(
+                call -> StubMoltbookServer.Response.ok("{\"success\": true}"))) {
+            MoltbookConfig config = server.config();
+            MoltbookService primary = new MoltbookService(config, client(server, config, "key-a"));
+            MoltbookService agentB = new MoltbookService(config, client(server, config, "key-b"));
+            // The action bean is a singleton wired to the primary service
+            MoltbookActions actions = new MoltbookActions(primary);
+
+            agentB.runAs(() -> actions.upvotePost("post-1"));
+            actions.upvotePost("post-2");
+
+            assertEquals(2, server.getCalls().size());
+            assertEquals("/posts/post-1/upvote", server.getCalls().get(0).path);
+            assertEquals("Bearer key-b", server.getCalls().get(0).authorization);
+            assertEquals("Bearer key-a", server.getCalls().get(1).authorization);
+            assertSame(primary, primary.forCurrentAgent());
+        }
+    }
+
+    @Test
+    public void testWriteClearsCachedReads() throws Exception {
+        AtomicInteger version = new AtomicInteger(1);
+        try (StubMoltbookServer server = new StubMoltbookServer(call -> "PATCH".equals(call.method)
+                ? StubMoltbookServer.Response.ok("{\"success\": " + version.incrementAndGet() + "}")
+                : StubMoltbookServer.Response.ok("{\"version\": " + version.get() + "}"))) {
+            MoltbookConfig config = server.config();
+            config.getApi().setCacheTtlSeconds(30); // opt in to serving unvalidated bodies
+            MoltbookClient client = MoltbookClient.forAgent("key", new ActivityTrackingService(config),
+                    new MoltbookTransport(config), config, 1024 * 1024);
+
+            assertEquals("{\"version\": 1}", client.getProfile());
+            assertEquals("{\"version\": 1}", client.getProfile());
+            assertEquals(1, server.getCalls().size());
+
+            client.updateProfile("new description");
+            assertEquals("{\"version\": 2}", client.getProfile());
+            assertEquals(3, server.getCalls().size());
+        }
+    }
+
+    @Test
+    public void testUnvalidatedBodiesAreNotReusedByDefault() throws Exception {
+        try (StubMoltbookServer server = new StubMoltbookServer(
+                call -> StubMoltbookServer.Response.ok("{\"agent\": {}}"))) {
+            MoltbookConfig config = server.config();
+            MoltbookClient client = MoltbookClient.forAgent("key", new ActivityTrackingService(config),
+                    new MoltbookTransport(config), config, 1024 * 1024);
+
+            client.getProfile();
+            client.getProfile();
+            assertEquals(2, server.getCalls().size());
+        }
+    }
+
+    @Test
+    public void testRefetchAfterNotModifiedForEvictedEntryTakesItsOwnToken() throws Exception {
+        AtomicInteger requests = new AtomicInteger();
+        MoltbookClient[] holder = new MoltbookClient[1];
+        try (StubMoltbookServer server = new StubMoltbookServer(call -> {
+            if (requests.incrementAndGet() == 2) {
+                holder[0].getResponseCache().clear(); // evicted while the revalidation is in flight
+                return new StubMoltbookServer.Response(304, "", "\"v1\"");
+            }
+            return new StubMoltbookServer.Response(200, "{\"posts\": []}", "\"v1\"");
+        })) {
+            MoltbookConfig config = server.config();
+            config.getRateLimit().setReadBurst(10);
+            MoltbookClient client = MoltbookClient.forAgent("key", new ActivityTrackingService(config),
+                    new MoltbookTransport(config), config, 1024 * 1024);
+            holder[0] = client;
+
+            client.getPosts("new", 5);
+            assertEquals("{\"posts\": []}", client.getPosts("new", 5));
+
+            assertEquals(3, server.getCalls().size());
+            assertEquals("\"v1\"", server.getCalls().get(1).ifNoneMatch);
+            assertNull(server.getCalls().get(2).ifNoneMatch);
+            // Three read tokens taken out of ten
+            double left = client.getRateLimiter().remainingBudget(EndpointClass.READ);
+            assertTrue(left > 0.65 && left < 0.75, String.valueOf(left));
+        }
+    }
+
+    @Test
+    public void testPostRetriedAfterVerificationReusesItsToken() throws Exception {
+        AtomicInteger posts = new AtomicInteger();
+        try (StubMoltbookServer server = new StubMoltbookServer(call -> {
+            if ("/verify".equals(call.path)) {
+                return StubMoltbookServer.Response.ok("{\"success\": true}");
+            }
+            return posts.incrementAndGet() == 1
+                    ? new StubMoltbookServer.Response(403, "{\"success\": false, \"verification_required\": true,"
+                            + " \"verification\": {\"code\": \"c1\", \"challenge\": \"what is 2 + 2\"}}", null)
+                    : StubMoltbookServer.Response.ok("{\"success\": true, \"post\": {\"id\": \"p1\"}}");
+        })) {
+            MoltbookConfig config = server.config();
+            MoltbookClient client = client(server, config, "key");
+            client.setChallengeSolver(challenge -> "4");
+
+            // The post interval is two hours: a second token would fail fast
+            String response = client.createPost("general", "title", "content");
+
+            assertEquals("{\"success\": true, \"post\": {\"id\": \"p1\"}}", response);
+            assertEquals(List.of("/posts", "/verify", "/posts"),
+                    server.getCalls().stream().map(call -> call.path).toList());
+            assertEquals("{\"verification_code\":\"c1\",\"answer\":\"4\"}", server.getCalls().get(1).body);
+            assertFalse(client.getRateLimiter().timeUntilAvailable(EndpointClass.POST).isZero());
+        }
+    }
+
+    static MoltbookClient client(StubMoltbookServer server, MoltbookConfig config, String apiKey) {
+        config.getApi().setCacheMaxBytes(0);
+        return MoltbookClient.forAgent(apiKey, new ActivityTrackingService(config),
+                new MoltbookTransport(config), config, 0);
+    }
+}
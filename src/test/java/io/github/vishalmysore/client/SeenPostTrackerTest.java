@@ -0,0 +1,48 @@
+package io.github.vishalmysore.client;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test for cross-heartbeat seen-post tracking
+ */
+public class SeenPostTrackerTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testRemembersAcrossRestart() {
+        Path file = tempDir.resolve("seen.bin");
+        SeenPostTracker tracker = new SeenPostTracker(10, 1000, 0.001, file);
+        for (int i = 0; i < 100; i++) {
+            tracker.markSeen("post-" + i);
+        }
+        assertTrue(tracker.hasSeen("post-5"));
+        assertFalse(tracker.hasSeen("post-new"));
+        tracker.save();
+
+        SeenPostTracker reloaded = new SeenPostTracker(10, 1000, 0.001, file);
+        assertEquals(100, reloaded.getTotalMarked());
+        for (int i = 0; i < 100; i++) {
+            assertTrue(reloaded.hasSeen("post-" + i), "post-" + i);
+        }
+        assertFalse(reloaded.hasSeen("post-new"));
+    }
+
+    @Test
+    public void testOldGenerationsAgeOut() {
+        SeenPostTracker tracker = new SeenPostTracker(5, 100, 0.001, null);
+        tracker.markSeen("oldest");
+        for (int i = 0; i < 250; i++) {
+            tracker.markSeen("post-" + i);
+        }
+        assertTrue(tracker.hasSeen("post-249"));
+        assertTrue(tracker.hasSeen("post-120"));
+        assertFalse(tracker.hasSeen("oldest"));
+    }
+}
@@ -0,0 +1,206 @@
+package io.github.vishalmysore.client;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test for coalescing identical concurrent reads
+ */
+public class SingleFlightTest {
+
+    @Test
+    public void testConcurrentCallsShareOneExecution() throws Exception {
+        SingleFlight flight = new SingleFlight(Duration.ZERO);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            Future<String> leader = pool.submit(() -> flight.execute("/feed", () -> {
+                calls.incrementAndGet();
+                await(release);
+                return "feed";
+            }));
+            waitFor(() -> calls.get() == 1);
+            Future<String> follower1 = pool.submit(() -> flight.execute("/feed", () -> "other"));
+            Future<String> follower2 = pool.submit(() -> flight.execute("/feed", () -> "other"));
+            waitFor(() -> flight.getCoalesced() == 2);
+            assertEquals("profile", flight.execute("/agents/me", () -> "profile")); // other keys run on their own
+            release.countDown();
+
+            assertEquals("feed", leader.get(5, TimeUnit.SECONDS));
+            assertEquals("feed", follower1.get(5, TimeUnit.SECONDS));
+            assertEquals("feed", follower2.get(5, TimeUnit.SECONDS));
+            assertEquals(2, flight.getExecuted());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testFreshWindowServesCompletedResultUntilInvalidated() throws Exception {
+        SingleFlight flight = new SingleFlight(Duration.ofMillis(100));
+        AtomicInteger calls = new AtomicInteger();
+        assertEquals("v1", flight.execute("/feed", () -> "v" + calls.incrementAndGet()));
+        assertEquals("v1", flight.execute("/feed", () -> "v" + calls.incrementAndGet()));
+        assertEquals(1, flight.getFreshHits());
+
+        flight.invalidate();
+        assertEquals("v2", flight.execute("/feed", () -> "v" + calls.incrementAndGet()));
+
+        Thread.sleep(150);
+        assertEquals("v3", flight.execute("/feed", () -> "v" + calls.incrementAndGet()));
+        assertEquals(3, flight.getExecuted());
+    }
+
+    @Test
+    public void testLeaderFailureReachesFollowers() throws Exception {
+        assertFailureShared(new IllegalStateException("boom"));
+        assertFailureShared(new StackOverflowError("deep"));
+    }
+
+    private static void assertFailureShared(Throwable failure) throws Exception {
+        SingleFlight flight = new SingleFlight(Duration.ofSeconds(10));
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> leader = pool.submit(() -> flight.execute("/feed", () -> {
+                calls.incrementAndGet();
+                await(release);
+                if (failure instanceof Error) {
+                    throw (Error) failure;
+                }
+                throw (RuntimeException) failure;
+            }));
+            waitFor(() -> calls.get() == 1);
+            CompletableFuture<Throwable> follower = new CompletableFuture<>();
+            pool.submit(() -> {
+                try {
+                    flight.execute("/feed", () -> "other");
+                    follower.complete(null);
+                } catch (Throwable e) {
+                    follower.complete(e);
+                }
+            });
+            waitFor(() -> flight.getCoalesced() == 1);
+            release.countDown();
+
+            assertSame(failure, follower.get(5, TimeUnit.SECONDS));
+            assertThrows(Exception.class, () -> leader.get(5, TimeUnit.SECONDS));
+            // failures are not remembered in the fresh window
+            assertEquals("ok", flight.execute("/feed", () -> "ok"));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testSharedCallOutlivesLeaderGivingUp() throws Exception {
+        SingleFlight flight = new SingleFlight(Duration.ZERO);
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            CompletableFuture<String> response = new CompletableFuture<>();
+            CallContext[] shared = new CallContext[1];
+            CallContext leader = CallContext.on(pool);
+            flight.executeAsync("/feed", leader, context -> {
+                shared[0] = context;
+                return response;
+            });
+            CallContext async = CallContext.on(pool);
+            CompletableFuture<String> asyncFollower = flight.executeAsync("/feed", async, context -> null);
+            CompletableFuture<String> blocking = CompletableFuture.supplyAsync(
+                    () -> flight.execute("/feed", () -> "other"), pool);
+            waitFor(() -> flight.getCoalesced() == 2);
+
+            leader.cancel(); // e.g. the leader's async call timed out
+            async.cancel();
+            assertFalse(shared[0].isCancelled());
+
+            response.complete("feed");
+            assertEquals("feed", blocking.get(5, TimeUnit.SECONDS));
+            assertEquals("feed", asyncFollower.get(5, TimeUnit.SECONDS));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testSharedCallCancelledOnceEveryCallerGaveUp() {
+        SingleFlight flight = new SingleFlight(Duration.ZERO);
+        CallContext[] shared = new CallContext[1];
+        CallContext leader = CallContext.on(Runnable::run);
+        CallContext follower = CallContext.on(Runnable::run);
+        flight.executeAsync("/feed", leader, context -> {
+            shared[0] = context;
+            return new CompletableFuture<>();
+        });
+        CompletableFuture<String> followed = flight.executeAsync("/feed", follower, context -> null);
+
+        leader.cancel();
+        assertFalse(shared[0].isCancelled());
+        follower.cancel();
+        assertTrue(shared[0].isCancelled());
+        assertTrue(followed.isCompletedExceptionally());
+        // the key is free again
+        assertEquals("fresh", flight.execute("/feed", () -> "fresh"));
+    }
+
+    @Test
+    public void testInterruptedCallerRunsLeaderReleasesKey() throws Exception {
+        SingleFlight flight = new SingleFlight(Duration.ZERO);
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            CompletableFuture<Throwable> leaderError = new CompletableFuture<>();
+            Thread leader = new Thread(() -> {
+                CallContext caller = CallContext.callerRuns();
+                try {
+                    // never completes: the steps it waits for are queued on this thread
+                    caller.await(flight.executeAsync("/feed", caller, context -> new CompletableFuture<>()));
+                } catch (Throwable e) {
+                    leaderError.complete(e);
+                }
+            });
+            leader.start();
+            waitFor(() -> flight.getExecuted() == 1);
+            CompletableFuture<String> follower = flight.executeAsync("/feed", CallContext.on(pool), context -> null);
+            waitFor(() -> flight.getCoalesced() == 1);
+
+            leader.interrupt(); // e.g. the item executor shutting down
+            assertInstanceOf(IllegalStateException.class, leaderError.get(5, TimeUnit.SECONDS));
+            ExecutionException e = assertThrows(ExecutionException.class,
+                    () -> follower.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(CancellationException.class, e.getCause());
+            assertEquals("fresh", flight.execute("/feed", () -> "fresh"));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void waitFor(java.util.function.BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "timed out");
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package io.github.vishalmysore.client;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test for the staged item pipeline
+ */
+public class StagedPipelineTest {
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @AfterEach
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testItemsFlowThroughAllStagesAndFailuresAreDropped() throws Exception {
+        List<Integer> results = Collections.synchronizedList(new ArrayList<>());
+        List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+        StagedPipeline<Integer> pipeline = StagedPipeline.<Integer>builder("test", executor, 4)
+                .stage("double", 2, (Integer n, Consumer<Integer> emit) -> {
+                    if (n == 3) {
+                        throw new IllegalArgumentException("bad item");
+                    }
+                    emit.accept(n * 2);
+                })
+                .batchStage("batch", 1, 5, Duration.ofMillis(50), (List<Integer> batch, Consumer<Integer> emit) -> {
+                    batchSizes.add(batch.size());
+                    batch.forEach(emit);
+                })
+                .stage("collect", 3, (Integer n, Consumer<Void> emit) -> results.add(n))
+                .start();
+
+        for (int i = 0; i < 20; i++) {
+            pipeline.submit(i);
+        }
+        pipeline.complete();
+
+        assertTrue(pipeline.await(Duration.ofSeconds(5)));
+        assertEquals(19, results.size());
+        assertFalse(results.contains(6));
+        assertTrue(batchSizes.stream().allMatch(size -> size <= 5));
+        assertEquals(1, pipeline.getStats().get(0).getFailed());
+        assertEquals(19, pipeline.getStats().get(2).getReceived());
+    }
+
+    @Test
+    public void testFirstItemReachesLastStageBeforeInputEnds() throws Exception {
+        CountDownLatch firstDone = new CountDownLatch(1);
+        StagedPipeline<String> pipeline = StagedPipeline.<String>builder("test", executor, 2)
+                .stage("upper", 1, (String s, Consumer<String> emit) -> emit.accept(s.toUpperCase()))
+                .stage("act", 1, (String s, Consumer<Void> emit) -> firstDone.countDown())
+                .start();
+
+        pipeline.submit("first");
+        // Input is still open, yet the item has already been acted on
+        assertTrue(firstDone.await(5, TimeUnit.SECONDS));
+        pipeline.complete();
+        assertTrue(pipeline.await(Duration.ofSeconds(5)));
+    }
+
+    @Test
+    public void testOfferGivesUpWhileQueueStaysFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> done = Collections.synchronizedList(new ArrayList<>());
+        StagedPipeline<String> pipeline = StagedPipeline.<String>builder("test", executor, 1)
+                .stage("slow", 1, (String s, Consumer<Void> emit) -> {
+                    release.await();
+                    done.add(s);
+                })
+                .start();
+
+        assertTrue(pipeline.offer("a", Duration.ofSeconds(5))); // taken by the worker
+        assertTrue(pipeline.offer("b", Duration.ofSeconds(5))); // fills the queue
+        long start = System.nanoTime();
+        assertFalse(pipeline.offer("c", Duration.ofMillis(100)));
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(2));
+        pipeline.complete(); // never waits, even with the queue full
+
+        release.countDown();
+        assertTrue(pipeline.await(Duration.ofSeconds(5)));
+        assertEquals(List.of("a", "b"), done);
+    }
+}
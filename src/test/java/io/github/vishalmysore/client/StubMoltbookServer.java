@@ -0,0 +1,97 @@
+package io.github.vishalmysore.client;
+
+import com.sun.net.httpserver.HttpServer;
+import io.github.vishalmysore.config.MoltbookConfig;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+
+/**
+ * Local HTTP server standing in for the Moltbook API in tests. Records every
+ * request and answers with the handler's response.
+ */
+class StubMoltbookServer implements AutoCloseable {
+
+    private final HttpServer server;
+    private final List<Call> calls = new CopyOnWriteArrayList<>();
+
+    StubMoltbookServer(Function<Call, Response> handler) throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            String path = exchange.getRequestURI().getRawPath();
+            if (exchange.getRequestURI().getRawQuery() != null) {
+                path += "?" + exchange.getRequestURI().getRawQuery();
+            }
+            Call call = new Call(exchange.getRequestMethod(), path.substring("/api/v1".length()),
+                    exchange.getRequestHeaders().getFirst("Authorization"),
+                    exchange.getRequestHeaders().getFirst("If-None-Match"),
+                    new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            calls.add(call);
+            Response response = handler.apply(call);
+            if (response.etag != null) {
+                exchange.getResponseHeaders().add("ETag", response.etag);
+            }
+            byte[] body = response.body.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(response.code, body.length == 0 ? -1 : body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+    }
+
+    /**
+     * Config pointing at this server
+     */
+    MoltbookConfig config() {
+        MoltbookConfig config = new MoltbookConfig();
+        config.getApi().setBaseUrl("http://127.0.0.1:" + server.getAddress().getPort() + "/api/v1");
+        return config;
+    }
+
+    List<Call> getCalls() {
+        return calls;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    static class Call {
+        final String method;
+        final String path;
+        final String authorization;
+        final String ifNoneMatch;
+        final String body;
+
+        Call(String method, String path, String authorization, String ifNoneMatch, String body) {
+            this.method = method;
+            this.path = path;
+            this.authorization = authorization;
+            this.ifNoneMatch = ifNoneMatch;
+            this.body = body;
+        }
+    }
+
+    static class Response {
+        final int code;
+        final String body;
+        final String etag;
+
+        Response(int code, String body, String etag) {
+            this.code = code;
+            this.body = body;
+            this.etag = etag;
+        }
+
+        static Response ok(String body) {
+            return new Response(200, body, null);
+        }
+    }
+}
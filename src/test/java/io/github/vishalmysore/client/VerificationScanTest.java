@@ -0,0 +1,43 @@
+package io.github.vishalmysore.client;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test for the single-pass verification scan
+ */
+public class VerificationScanTest {
+
+    @Test
+    public void testFindsChallengeAfterLargeEchoedPost() {
+        String body = "{\"success\":true,\"post\":{\"id\":\"p1\",\"content\":\"long text with \\\"verification\\\" inside\","
+                + "\"author\":{\"name\":\"a\"},\"tags\":[1,2,{\"x\":null}]},"
+                + "\"verification_required\":true,"
+                + "\"verification\":{\"code\":\"abc123\",\"challenge\":\"wHaT iS 2 + 3\",\"expires_at\":\"soon\"}}";
+
+        VerificationScan scan = VerificationScan.of(body);
+        assertTrue(scan.isVerificationRequired());
+        assertTrue(scan.hasChallenge());
+        assertEquals("abc123", scan.getCode());
+        assertEquals("wHaT iS 2 + 3", scan.getChallenge());
+        assertTrue(scan.isSuccess());
+    }
+
+    @Test
+    public void testPlainResponsesNeedNoVerification() {
+        VerificationScan scan = VerificationScan.of("{\"success\":true,\"post\":{\"verification\":{\"code\":\"x\"}}}");
+        assertFalse(scan.isVerificationRequired()); // only top-level fields count
+        assertTrue(scan.isSuccess());
+
+        assertFalse(VerificationScan.of(null).isVerificationRequired());
+        assertFalse(VerificationScan.of("{\"success\":false}").isSuccess());
+    }
+
+    @Test
+    public void testNonJsonFallsBackToTextCheck() {
+        VerificationScan scan = VerificationScan.of("<html>verification_required</html>");
+        assertTrue(scan.isVerificationRequired());
+        assertFalse(scan.hasChallenge());
+    }
+}
@@ -0,0 +1,149 @@
+package io.github.vishalmysore.service;
+
+import io.github.vishalmysore.config.MoltbookConfig;
+
+import java.time.LocalDateTime;
+import java.util.Random;
+
+/**
+ * Compares the heap retained by a full activity log in the previous layout
+ * (String type and status, LocalDateTime, whole content) with the compact
+ * records, at 10k and 100k activities. The mix is mostly actions carrying
+ * LLM responses of a few KB, some with emoji, plus comments, observations
+ * and logs.
+ *
+ * Not a unit test - run manually:
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/classes:target/test-classes:$(cat target/cp.txt) io.github.vishalmysore.service.ActivityFootprintBenchmark
+ */
+public class ActivityFootprintBenchmark {
+
+    private static final String WORDS = "the agent read a post about tool calling and replied with a short note on "
+            + "retries timeouts and budgets because the thread asked how others keep their heartbeat cheap ";
+
+    /**
+     * Activity as it was stored before: every field an object
+     */
+    static class LegacyActivity {
+        String type;
+        String postId;
+        String title;
+        String content;
+        String status;
+        LocalDateTime timestamp;
+        long sequence;
+    }
+
+    public static void main(String[] args) throws Exception {
+        // load and compile both paths before measuring
+        measureLegacy(10_000);
+        measureCompact(10_000);
+        for (int count : new int[] { 10_000, 100_000 }) {
+            long legacy = measureLegacy(count);
+            long compact = measureCompact(count);
+            System.out.printf("%,d activities: legacy %,d KB (%,d B each), compact %,d KB (%,d B each), %.1fx smaller%n",
+                    count, legacy / 1024, legacy / count, compact / 1024, compact / count, (double) legacy / compact);
+        }
+    }
+
+    private static long measureLegacy(int count) throws InterruptedException {
+        Random random = new Random(42);
+        long before = usedHeap();
+        LegacyActivity[] log = new LegacyActivity[count];
+        for (int i = 0; i < count; i++) {
+            LegacyActivity activity = new LegacyActivity();
+            Sample sample = sample(random, i);
+            activity.type = sample.type;
+            activity.postId = sample.postId;
+            activity.title = sample.title;
+            activity.content = sample.content;
+            activity.status = sample.type.equals("ACTION") || sample.type.equals("COMMENT") ? "SUCCESS" : null;
+            activity.timestamp = LocalDateTime.now();
+            activity.sequence = i;
+            log[i] = activity;
+        }
+        long after = usedHeap();
+        if (log[count - 1] == null) {
+            throw new IllegalStateException();
+        }
+        return after - before;
+    }
+
+    private static long measureCompact(int count) throws InterruptedException {
+        Random random = new Random(42);
+        MoltbookConfig config = new MoltbookConfig();
+        config.getActivity().setCapacity(count);
+        long before = usedHeap();
+        ActivityTrackingService service = new ActivityTrackingService(config, null);
+        for (int i = 0; i < count; i++) {
+            Sample sample = sample(random, i);
+            switch (sample.type) {
+                case "ACTION" -> service.trackAction(sample.title, "details", sample.response, true);
+                case "COMMENT" -> service.trackComment(sample.postId, sample.title, sample.content, true);
+                case "OBSERVE" -> service.trackObservation(sample.postId, sample.title);
+                default -> service.trackLog(sample.content);
+            }
+        }
+        long after = usedHeap();
+        if (service.getRecentActivities(1).isEmpty()) {
+            throw new IllegalStateException();
+        }
+        return after - before;
+    }
+
+    private static Sample sample(Random random, int i) {
+        Sample sample = new Sample();
+        int kind = random.nextInt(10);
+        sample.postId = "post-" + random.nextInt(50_000);
+        sample.title = "Thread " + random.nextInt(50_000);
+        if (kind < 4) {
+            sample.type = "ACTION";
+            sample.title = "replyToPost";
+            sample.response = text(random, 500 + random.nextInt(5500), random.nextInt(5) == 0);
+            sample.content = "details\nResponse: " + sample.response;
+            sample.postId = null;
+        } else if (kind < 7) {
+            sample.type = "COMMENT";
+            sample.content = text(random, 100 + random.nextInt(400), random.nextInt(5) == 0);
+        } else if (kind < 9) {
+            sample.type = "OBSERVE";
+            sample.content = "Observed but took no action";
+        } else {
+            sample.type = "INFO";
+            sample.title = "System Log";
+            sample.content = "Heartbeat " + i + " done";
+            sample.postId = null;
+        }
+        return sample;
+    }
+
+    private static String text(Random random, int length, boolean emoji) {
+        StringBuilder text = new StringBuilder(length + 2);
+        while (text.length() < length) {
+            int start = random.nextInt(WORDS.length() - 20);
+            text.append(WORDS, start, start + 20);
+        }
+        text.setLength(length);
+        if (emoji) {
+            text.append("🦞"); // one emoji makes the whole String UTF-16
+        }
+        return text.toString();
+    }
+
+    private static class Sample {
+        String type;
+        String postId;
+        String title;
+        String content;
+        String response;
+    }
+
+    private static long usedHeap() throws InterruptedException {
+        Runtime jvm = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(100);
+        }
+        return jvm.totalMemory() - jvm.freeMemory();
+    }
+}
@@ -0,0 +1,112 @@
+package io.github.vishalmysore.service;
+
+import io.github.vishalmysore.config.MoltbookConfig;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test for indexed, paged queries over the retained activities
+ */
+public class ActivityIndexTest {
+
+    @Test
+    public void testQueriesByPostIdActionAndTypeFollowEviction() {
+        MoltbookConfig config = new MoltbookConfig();
+        config.getActivity().setCapacity(64);
+        ActivityTrackingService service = new ActivityTrackingService(config);
+
+        for (int i = 0; i < 100; i++) {
+            if (i % 5 == 0) {
+                service.trackAction("VERIFY_FAILED", "attempt " + i, "no", false);
+            } else {
+                service.trackComment("post-" + (i % 2), "title", "comment " + i);
+            }
+        }
+
+        // 64 retained: activities 36..99, 12 of them VERIFY_FAILED
+        List<String> actions = new ArrayList<>();
+        String cursor = null;
+        do {
+            ActivityPage<ActivityTrackingService.Activity> page = service.query(
+                    ActivityQuery.all().action("VERIFY_FAILED").limit(5).after(cursor));
+            assertTrue(page.getItems().size() <= 5);
+            page.getItems().forEach(a -> actions.add(a.getContent()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        assertEquals(12, actions.size());
+        assertEquals("attempt 95\nResponse: no", actions.get(0));
+        assertEquals("attempt 40\nResponse: no", actions.get(11));
+
+        ActivityPage<ActivityTrackingService.Activity> post = service.query(ActivityQuery.all().postId("post-1").limit(3));
+        assertEquals(List.of("comment 99", "comment 97", "comment 93"),
+                post.getItems().stream().map(ActivityTrackingService.Activity::getContent).toList());
+        assertTrue(post.hasMore());
+
+        assertEquals(0, service.query(ActivityQuery.all().postId("post-7")).getItems().size());
+        assertEquals(52, service.query(ActivityQuery.all().types(ActivityType.COMMENT).limit(100)).getItems().size());
+        assertEquals(64, service.query(ActivityQuery.all().limit(1000)).getItems().size());
+    }
+
+    @Test
+    public void testTimeRangeUsesMinuteBuckets() {
+        ActivityRing ring = new ActivityRing(16);
+        ActivityIndex index = new ActivityIndex(ring);
+        long base = 1_700_000_000_000L - 1_700_000_000_000L % 60_000;
+        for (int i = 0; i < 10; i++) {
+            // one activity every 30 seconds
+            index.add(new ActivityTrackingService.Activity(ActivityType.INFO, ActivityStatus.NONE,
+                    base + i * 30_000L, null, "log " + i, null, false));
+        }
+
+        ActivityPage<ActivityTrackingService.Activity> page = index.query(ActivityQuery.all()
+                .from(Instant.ofEpochMilli(base + 60_000)).to(Instant.ofEpochMilli(base + 150_000)));
+        assertEquals(List.of("log 4", "log 3", "log 2"),
+                page.getItems().stream().map(ActivityTrackingService.Activity::getTitle).toList());
+
+        assertTrue(index.query(ActivityQuery.all().from(Instant.ofEpochMilli(base + 3_600_000))).getItems().isEmpty());
+    }
+
+    @Test
+    public void testMultiTypeQueryMergesTypeListsWhileWritersRun() throws Exception {
+        ActivityRing ring = new ActivityRing(4096);
+        ActivityIndex index = new ActivityIndex(ring);
+        ActivityType[] types = { ActivityType.POST, ActivityType.COMMENT, ActivityType.ERROR, ActivityType.INFO };
+        List<Thread> writers = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            ActivityType type = types[t];
+            writers.add(new Thread(() -> {
+                for (int i = 0; i < 500; i++) {
+                    index.add(new ActivityTrackingService.Activity(type, ActivityStatus.NONE, 0, null,
+                            type + " " + i, null, false));
+                }
+            }));
+        }
+        writers.forEach(Thread::start);
+        for (Thread writer : writers) {
+            writer.join();
+        }
+
+        List<Long> sequences = new ArrayList<>();
+        String cursor = null;
+        do {
+            ActivityPage<ActivityTrackingService.Activity> page = index.query(
+                    ActivityQuery.all().types(ActivityType.COMMENT, ActivityType.ERROR).limit(64).after(cursor));
+            for (ActivityTrackingService.Activity activity : page.getItems()) {
+                assertTrue(activity.getActivityType() == ActivityType.COMMENT
+                        || activity.getActivityType() == ActivityType.ERROR);
+                sequences.add(activity.sequence);
+            }
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertEquals(1000, sequences.size());
+        for (int i = 1; i < sequences.size(); i++) {
+            assertTrue(sequences.get(i) < sequences.get(i - 1), "newest first, no repeats");
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package io.github.vishalmysore.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test for the memory-mapped activity journal
+ */
+public class ActivityJournalTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void testScansByTimeAndTypeAcrossSegmentsAndRestarts() throws Exception {
+        long base = 1_700_000_000_000L;
+        String content = "x".repeat(2000);
+        try (ActivityJournal journal = new ActivityJournal(dir, 64 * 1024, Duration.ZERO, 100, 1000)) {
+            for (int i = 0; i < 100; i++) {
+                ActivityType type = i % 10 == 0 ? ActivityType.ERROR : ActivityType.POST;
+                journal.append(base + i * 1000L, type, "SUCCESS", "post-" + i, "title " + i, content);
+            }
+        }
+
+        // Reopened journal continues the last segment
+        ActivityJournal journal = new ActivityJournal(dir, 64 * 1024, Duration.ZERO, 100, 1000);
+        try (journal) {
+            journal.append(base + 100_000L, ActivityType.ERROR, "FAILED", "post-100", "late", "after restart");
+        }
+        assertTrue(journal.getSegmentCount() > 1);
+
+        List<ActivityJournal.JournalRecord> errors = new ArrayList<>();
+        journal.scan(Instant.ofEpochMilli(base + 15_000), Instant.ofEpochMilli(base + 200_000),
+                EnumSet.of(ActivityType.ERROR), errors::add);
+        assertEquals(List.of("post-20", "post-30", "post-40", "post-50", "post-60", "post-70", "post-80",
+                "post-90", "post-100"), errors.stream().map(ActivityJournal.JournalRecord::getPostId).toList());
+        assertEquals("FAILED", errors.get(errors.size() - 1).getStatus());
+        assertEquals(content, errors.get(0).getContent());
+
+        List<ActivityJournal.JournalRecord> firstThree = new ArrayList<>();
+        journal.scan(null, null, null, record -> firstThree.add(record) && firstThree.size() < 3);
+        assertEquals(3, firstThree.size());
+        assertEquals("post-0", firstThree.get(0).getPostId());
+    }
+
+    @Test
+    public void testRetentionKeepsNewestSegments() throws Exception {
+        ActivityJournal journal = new ActivityJournal(dir, 64 * 1024, Duration.ZERO, 3, 1000);
+        try (journal) {
+            for (int i = 0; i < 200; i++) {
+                journal.append(1_700_000_000_000L + i, ActivityType.INFO, null, null, "log", "y".repeat(2000));
+            }
+        }
+        assertEquals(3, journal.getSegmentCount());
+
+        List<ActivityJournal.JournalRecord> all = new ArrayList<>();
+        journal.scan(null, null, null, all::add);
+        assertEquals("log", all.get(all.size() - 1).getTitle());
+        assertTrue(all.size() < 200);
+    }
+
+    @Test
+    public void testWriterSurvivesSegmentThatCannotBeDeleted() throws Exception {
+        ActivityJournal journal = new ActivityJournal(dir, 64 * 1024, Duration.ZERO, 2, 1000);
+        // Looks like the oldest segment, but deleting a non-empty directory fails
+        Path stuck = dir.resolve(String.format("activity-%019d.seg", 1));
+        try (journal) {
+            Files.writeString(Files.createDirectories(stuck).resolve("keep"), "x");
+            for (int i = 0; i < 200; i++) {
+                journal.append(1_700_000_000_000L + i, ActivityType.INFO, null, null, "log", "y".repeat(2000));
+            }
+        }
+
+        assertEquals(200, journal.getWritten());
+        assertEquals(0, journal.getFailed());
+        assertTrue(Files.exists(stuck));
+        assertNotNull(journal.getLastError());
+        // Everything else beyond the limit was still removed
+        assertEquals(3, journal.getSegmentCount());
+    }
+
+    @Test
+    public void testQueryPagesNewestFirstByPostIdActionAndTime() throws Exception {
+        long base = 1_700_000_000_000L;
+        String content = "z".repeat(2000);
+        ActivityJournal journal = new ActivityJournal(dir, 64 * 1024, Duration.ZERO, 100, 1000);
+        try (journal) {
+            for (int i = 0; i < 100; i++) {
+                if (i % 4 == 0) {
+                    journal.append(base + i * 1000L, ActivityType.ACTION, "FAILED", null, "VERIFY_FAILED", content);
+                } else {
+                    journal.append(base + i * 1000L, ActivityType.COMMENT, "SUCCESS", "post-" + (i % 3), "t", content);
+                }
+            }
+        }
+        assertTrue(journal.getSegmentCount() > 2);
+        assertQueries(journal, base);
+
+        // Summaries of existing segments are built on first use
+        try (ActivityJournal reopened = new ActivityJournal(dir, 64 * 1024, Duration.ZERO, 100, 1000)) {
+            assertQueries(reopened, base);
+        }
+    }
+
+    private static void assertQueries(ActivityJournal journal, long base) throws Exception {
+        List<Long> seconds = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            ActivityPage<ActivityJournal.JournalRecord> page = journal.query(
+                    ActivityQuery.all().action("VERIFY_FAILED").limit(7).after(cursor));
+            page.getItems().forEach(r -> seconds.add((r.getTimestamp().toEpochMilli() - base) / 1000));
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+        assertEquals(25, seconds.size());
+        assertEquals(4, pages);
+        assertEquals(96L, seconds.get(0));
+        assertEquals(0L, seconds.get(24));
+
+        ActivityPage<ActivityJournal.JournalRecord> post = journal.query(ActivityQuery.all().postId("post-1")
+                .from(Instant.ofEpochMilli(base + 20_000)).to(Instant.ofEpochMilli(base + 40_000)));
+        // i % 3 == 1 and i % 4 != 0 within [20, 40)
+        assertEquals(List.of(37L, 34L, 31L, 25L, 22L), post.getItems().stream()
+                .map(r -> (r.getTimestamp().toEpochMilli() - base) / 1000).toList());
+        assertFalse(post.hasMore());
+
+        assertTrue(journal.query(ActivityQuery.all().postId("post-9")).getItems().isEmpty());
+        assertTrue(journal.query(ActivityQuery.all().types(ActivityType.ERROR)).getItems().isEmpty());
+    }
+}
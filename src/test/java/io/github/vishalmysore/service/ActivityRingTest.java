@@ -0,0 +1,90 @@
+package io.github.vishalmysore.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test for the lock-free activity ring
+ */
+public class ActivityRingTest {
+
+    @Test
+    public void testOverwritesOldestAndReturnsNewestFirst() {
+        ActivityRing ring = new ActivityRing(4);
+        for (int i = 0; i < 6; i++) {
+            assertEquals(i < 4, ring.add(activity("a" + i)) == null);
+        }
+
+        List<ActivityTrackingService.Activity> snapshot = ring.snapshot(Integer.MAX_VALUE);
+        assertEquals(List.of("a5", "a4", "a3", "a2"), titles(snapshot));
+        assertEquals(List.of("a5", "a4"), titles(ring.snapshot(2)));
+        assertEquals(4, ring.size());
+        assertEquals(6, ring.written());
+    }
+
+    @Test
+    public void testLappedWriterDoesNotOverwriteNewerEntry() {
+        ActivityRing ring = new ActivityRing(4);
+        for (int i = 0; i < 10; i++) {
+            ring.add(activity("a" + i));
+        }
+        // The writer of sequence 5 stalled until a full lap later: slot 1
+        // already holds sequence 9 when its write lands
+        ActivityTrackingService.Activity late = activity("late");
+        assertSame(late, ring.store(5, late));
+
+        assertEquals(List.of("a9", "a8", "a7", "a6"), titles(ring.snapshot(Integer.MAX_VALUE)));
+        assertNull(ring.get(5));
+    }
+
+    @Test
+    public void testConcurrentWritersStayWithinCapacity() throws Exception {
+        ActivityRing ring = new ActivityRing(1024);
+        List<Thread> writers = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            int writer = t;
+            writers.add(new Thread(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    ring.add(activity(writer + "-" + i));
+                }
+            }));
+        }
+        writers.forEach(Thread::start);
+        for (int i = 0; i < 100; i++) {
+            // Snapshots taken while writing never repeat an entry
+            List<ActivityTrackingService.Activity> snapshot = ring.snapshot(Integer.MAX_VALUE);
+            assertTrue(snapshot.size() <= 1024);
+            assertEquals(snapshot.size(), new HashSet<>(titles(snapshot)).size());
+        }
+        for (Thread writer : writers) {
+            writer.join();
+        }
+
+        // Slots only move forward, so each one ends with its last lap
+        List<ActivityTrackingService.Activity> snapshot = ring.snapshot(Integer.MAX_VALUE);
+        assertEquals(1024, snapshot.size());
+        assertEquals(80_000, ring.written());
+        Set<Long> sequences = new HashSet<>();
+        for (int i = 0; i < snapshot.size(); i++) {
+            assertEquals(80_000 - 1 - i, snapshot.get(i).sequence);
+            sequences.add(snapshot.get(i).sequence);
+        }
+        assertEquals(1024, sequences.size());
+    }
+
+    private static ActivityTrackingService.Activity activity(String title) {
+        return new ActivityTrackingService.Activity(ActivityType.INFO, ActivityStatus.NONE, 0, null, title, null, false);
+    }
+
+    private static List<String> titles(List<ActivityTrackingService.Activity> activities) {
+        List<String> titles = new ArrayList<>();
+        activities.forEach(activity -> titles.add(activity.getTitle()));
+        return titles;
+    }
+}
@@ -0,0 +1,76 @@
+package io.github.vishalmysore.service;
+
+import io.github.vishalmysore.config.MoltbookConfig;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test for activity tracking and its incrementally kept statistics
+ */
+public class ActivityTrackingServiceTest {
+
+    @Test
+    public void testStatsFollowEvictionAndKeepLifetimeTotals() {
+        MoltbookConfig config = new MoltbookConfig();
+        config.getActivity().setCapacity(8);
+        ActivityTrackingService service = new ActivityTrackingService(config);
+
+        for (int i = 0; i < 10; i++) {
+            service.trackPost("p" + i, "title", "content");
+        }
+        for (int i = 0; i < 5; i++) {
+            service.trackError("boom " + i);
+        }
+
+        Map<String, Object> stats = service.getStats();
+        // 8 retained: the 5 errors and the 3 newest posts
+        assertEquals(3L, stats.get("totalPosts"));
+        assertEquals(5L, stats.get("totalErrors"));
+        assertEquals(8L, stats.get("totalActivities"));
+        assertEquals(10L, stats.get("lifetimePosts"));
+        assertEquals(15L, stats.get("lifetimeActivities"));
+        assertNotEquals("No activity yet", stats.get("lastActivity"));
+
+        long recounted = service.getRecentActivities().stream().filter(a -> "POST".equals(a.getType())).count();
+        assertEquals(recounted, stats.get("totalPosts"));
+
+        List<ActivityStats.MinuteRollup> rollups = service.getMinuteRollups(5);
+        assertEquals(5, rollups.size());
+        assertEquals(15, rollups.stream().mapToLong(ActivityStats.MinuteRollup::getTotal).sum());
+    }
+
+    @Test
+    public void testContentIsCappedOnCharacterBoundary() {
+        MoltbookConfig config = new MoltbookConfig();
+        config.getActivity().setMaxContentBytes(9);
+        ActivityTrackingService service = new ActivityTrackingService(config);
+
+        service.trackComment("p1", "title", "short", false);
+        service.trackAction("reply", "details", "ok", true);
+
+        List<ActivityTrackingService.Activity> recent = service.getRecentActivities();
+        ActivityTrackingService.Activity action = recent.get(0);
+        assertEquals("ACTION", action.getType());
+        assertEquals("SUCCESS", action.getStatus());
+        assertEquals("details\nR", action.getContent());
+        assertTrue(action.isTruncated());
+
+        ActivityTrackingService.Activity comment = recent.get(1);
+        assertEquals(ActivityType.COMMENT, comment.getActivityType());
+        assertEquals("FAILED", comment.getStatus());
+        assertEquals("p1", comment.getPostId());
+        assertEquals("short", comment.getContent());
+        assertEquals("short", comment.getShortContent());
+        assertFalse(comment.isTruncated());
+        assertNotNull(comment.getFormattedTime());
+
+        config.getActivity().setMaxContentBytes(3);
+        service = new ActivityTrackingService(config);
+        service.trackLog("aéé"); // é is two bytes in UTF-8
+        assertEquals("aé", service.getRecentActivities(1).get(0).getContent());
+    }
+}
@@ -0,0 +1,70 @@
+package io.github.vishalmysore.service;
+
+import io.github.vishalmysore.client.MoltbookClient;
+import io.github.vishalmysore.config.MoltbookConfig;
+import io.github.vishalmysore.model.MoltbookPost;
+import io.github.vishalmysore.transport.MoltbookApiException;
+import io.github.vishalmysore.transport.MoltbookTransport;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test for the MoltbookService facade over MoltbookClient and its transport
+ */
+public class MoltbookServiceTest {
+
+    @Test
+    public void testFeedAndPostRoundTrip() throws Exception {
+        try (MockWebServer server = new MockWebServer()) {
+            server.enqueue(new MockResponse().setBody("{\"success\":true,\"posts\":[{\"id\":\"p1\",\"title\":\"Hi\","
+                    + "\"comment_count\":3,\"author\":{\"name\":\"molty\"}}]}"));
+            server.enqueue(new MockResponse().setBody("{\"success\":true,\"post\":{\"id\":\"p2\",\"title\":\"New\"}}"));
+            MoltbookService service = service(server);
+
+            List<MoltbookPost> feed = service.getFeed("new", 5);
+            assertEquals(1, feed.size());
+            assertEquals("p1", feed.get(0).getId());
+            assertEquals(3, feed.get(0).getCommentCount());
+            assertEquals("molty", feed.get(0).getAuthor().getName());
+
+            MoltbookPost created = service.createPost("general", "New", "Body \"quoted\"", null);
+            assertEquals("p2", created.getId());
+
+            RecordedRequest get = server.takeRequest();
+            assertEquals("GET", get.getMethod());
+            assertEquals("/api/v1/posts?sort=new&limit=5", get.getPath());
+            assertEquals("Bearer test-key", get.getHeader("Authorization"));
+            RecordedRequest post = server.takeRequest();
+            assertEquals("POST", post.getMethod());
+            assertEquals("/api/v1/posts", post.getPath());
+            assertEquals("{\"submolt\":\"general\",\"title\":\"New\",\"content\":\"Body \\\"quoted\\\"\"}",
+                    post.getBody().readUtf8());
+        }
+    }
+
+    @Test
+    public void testErrorResponseSurfacesAsApiException() throws Exception {
+        try (MockWebServer server = new MockWebServer()) {
+            server.enqueue(new MockResponse().setResponseCode(404).setBody("{\"error\":\"Post not found\"}"));
+            MoltbookService service = service(server);
+
+            MoltbookApiException e = assertThrows(MoltbookApiException.class, () -> service.upvotePost("missing"));
+            assertEquals(404, e.getStatusCode());
+            assertEquals("{\"error\":\"Post not found\"}", e.getResponseBody());
+        }
+    }
+
+    private static MoltbookService service(MockWebServer server) {
+        MoltbookConfig config = new MoltbookConfig();
+        config.getApi().setBaseUrl(server.url("/api/v1").toString());
+        MoltbookClient client = MoltbookClient.forAgent("test-key", new ActivityTrackingService(config),
+                new MoltbookTransport(config), config, 0);
+        return new MoltbookService(config, client);
+    }
+}
@@ -0,0 +1,48 @@
+package io.github.vishalmysore.transport;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test for the per-endpoint circuit breaker
+ */
+public class CircuitBreakerTest {
+
+    @Test
+    public void testEndpointKeyIgnoresIdsAndQuery() {
+        assertEquals("GET /feed", CircuitBreaker.endpointKey("GET", "/feed?sort=new&limit=50"));
+        assertEquals("POST /posts/{id}/comments",
+                CircuitBreaker.endpointKey("POST", "/posts/7f3c2a9e-11/comments"));
+        assertEquals("DELETE /agents/{id}/follow", CircuitBreaker.endpointKey("DELETE", "/agents/SomeMolty/follow"));
+        assertEquals("GET /agents/me", CircuitBreaker.endpointKey("GET", "/agents/me"));
+    }
+
+    @Test
+    public void testOpensAfterThresholdAndRecoversThroughTrial() throws Exception {
+        CircuitBreaker breaker = new CircuitBreaker("GET /feed", 3, Duration.ofMillis(50));
+
+        breaker.onFailure();
+        breaker.onFailure();
+        breaker.checkPermission();
+        breaker.onFailure();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertThrows(CircuitOpenException.class, breaker::checkPermission);
+
+        Thread.sleep(60);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        breaker.checkPermission(); // the single trial call
+        assertThrows(CircuitOpenException.class, breaker::checkPermission);
+
+        breaker.onFailure(); // trial failed - open again
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+
+        Thread.sleep(60);
+        breaker.checkPermission();
+        breaker.onSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        breaker.checkPermission();
+    }
+}
@@ -0,0 +1,121 @@
+package io.github.vishalmysore.transport;
+
+import io.github.vishalmysore.config.MoltbookConfig;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test for the pooled transport and its pool metrics
+ */
+public class MoltbookTransportTest {
+
+    @Test
+    public void testKeepAliveReusesPooledConnection() throws Exception {
+        try (MockWebServer server = new MockWebServer()) {
+            server.enqueue(new MockResponse().setBody("{\"a\":1}"));
+            server.enqueue(new MockResponse().setBody("{\"b\":2}"));
+            MoltbookConfig config = config(server);
+            MoltbookTransport transport = new MoltbookTransport(config);
+
+            assertEquals("{\"a\":1}", transport.execute(transport.newRequest("/a", "key").build()).getBody());
+            assertEquals("{\"b\":2}", transport.execute(transport.newRequest("/b", "key").build()).getBody());
+
+            PoolMetrics metrics = transport.getPoolMetrics();
+            assertEquals(2, metrics.getConnectionsAcquired());
+            assertEquals(1, metrics.getConnectionsOpened());
+            assertEquals(1, metrics.getIdleConnections());
+            assertEquals(0, metrics.getActiveConnections());
+            assertTrue(metrics.getMaxWaitMicros() >= metrics.getAverageWaitMicros());
+            assertEquals(0, server.takeRequest().getSequenceNumber());
+            assertEquals(1, server.takeRequest().getSequenceNumber()); // same socket
+            transport.shutdown();
+        }
+    }
+
+    @Test
+    public void testNoIdleConnectionsKeptWhenPoolIsDisabled() throws Exception {
+        try (MockWebServer server = new MockWebServer()) {
+            server.enqueue(new MockResponse().setBody("{}"));
+            server.enqueue(new MockResponse().setBody("{}"));
+            MoltbookConfig config = config(server);
+            config.getApi().setMaxIdleConnections(0);
+            MoltbookTransport transport = new MoltbookTransport(config);
+
+            transport.execute(transport.newRequest("/a", null).build());
+            transport.execute(transport.newRequest("/b", null).build());
+
+            PoolMetrics metrics = transport.getPoolMetrics();
+            assertEquals(2, metrics.getConnectionsAcquired());
+            assertEquals(2, metrics.getConnectionsOpened());
+            assertEquals(0, metrics.getIdleConnections());
+            transport.shutdown();
+        }
+    }
+
+    @Test
+    public void testRequestLimitsCapConcurrentCalls() throws Exception {
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger maxActive = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(5);
+        try (MockWebServer server = new MockWebServer()) {
+            server.setDispatcher(new Dispatcher() {
+                @Override
+                public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+                    maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+                    release.await(5, TimeUnit.SECONDS);
+                    active.decrementAndGet();
+                    return new MockResponse().setBody("{}");
+                }
+            });
+            MoltbookConfig config = config(server);
+            config.getApi().setMaxRequests(4);
+            config.getApi().setMaxRequestsPerHost(2);
+            MoltbookTransport transport = new MoltbookTransport(config);
+
+            List<Future<TransportResponse>> calls = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                calls.add(pool.submit(() -> transport.execute(transport.newRequest("/feed", null).build())));
+            }
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while ((transport.getPoolMetrics().getQueuedCalls() < 3 || active.get() < 2)
+                    && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            assertEquals(3, transport.getPoolMetrics().getQueuedCalls());
+            assertEquals(2, transport.getPoolMetrics().getRunningCalls());
+
+            release.countDown();
+            for (Future<TransportResponse> call : calls) {
+                assertEquals(200, call.get(5, TimeUnit.SECONDS).getCode());
+            }
+            assertEquals(2, maxActive.get()); // the per-host cap is the tighter one
+            assertEquals(5, server.getRequestCount());
+            assertEquals(0, transport.getPoolMetrics().getQueuedCalls());
+            transport.shutdown();
+        } finally {
+            release.countDown();
+            pool.shutdownNow();
+        }
+    }
+
+    private static MoltbookConfig config(MockWebServer server) {
+        MoltbookConfig config = new MoltbookConfig();
+        config.getApi().setBaseUrl(server.url("/api/v1").toString());
+        return config;
+    }
+}
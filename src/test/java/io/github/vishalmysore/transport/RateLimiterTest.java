@@ -0,0 +1,92 @@
+package io.github.vishalmysore.transport;
+
+import io.github.vishalmysore.config.MoltbookConfig;
+import okhttp3.Headers;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test for the per-endpoint token buckets
+ */
+public class RateLimiterTest {
+
+    @Test
+    public void testBurstThenRefillRate() {
+        MoltbookConfig.RateLimit config = new MoltbookConfig.RateLimit();
+        config.setReadPerMinute(60);
+        config.setReadBurst(3);
+        RateLimiter limiter = new RateLimiter(config);
+
+        for (int i = 0; i < 3; i++) {
+            assertTrue(limiter.tryAcquire(EndpointClass.READ));
+        }
+        assertFalse(limiter.tryAcquire(EndpointClass.READ));
+        Duration wait = limiter.timeUntilAvailable(EndpointClass.READ);
+        assertTrue(wait.toMillis() > 900 && wait.toMillis() <= 1000, wait.toString());
+
+        // Other classes are not affected by the read bucket
+        assertTrue(limiter.tryAcquire(EndpointClass.VOTE));
+    }
+
+    @Test
+    public void testFailsFastBeyondMaxWait() {
+        RateLimiter limiter = new RateLimiter(new MoltbookConfig.RateLimit());
+
+        assertTrue(limiter.reserve(EndpointClass.POST).isZero());
+        RateLimitExceededException error = assertThrows(RateLimitExceededException.class,
+                () -> limiter.reserve(EndpointClass.POST));
+        assertEquals(EndpointClass.POST, error.getEndpointClass());
+        assertTrue(error.getRetryAfter().toMinutes() >= 119);
+    }
+
+    @Test
+    public void testReservationsQueueUpWithoutWaiting() {
+        MoltbookConfig.RateLimit config = new MoltbookConfig.RateLimit();
+        config.setReadPerMinute(60);
+        config.setReadBurst(1);
+        RateLimiter limiter = new RateLimiter(config);
+
+        long start = System.nanoTime();
+        assertTrue(limiter.reserve(EndpointClass.READ).isZero());
+        long second = limiter.reserve(EndpointClass.READ).toMillis();
+        long third = limiter.reserve(EndpointClass.READ).toMillis();
+        // Each reservation is one refill behind the previous one, and none of them slept
+        assertTrue(second > 900 && second <= 1000, String.valueOf(second));
+        assertTrue(third > 1900 && third <= 2000, String.valueOf(third));
+        assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(500));
+    }
+
+    @Test
+    public void testWritesOtherThanPostsCommentsAndVotesAreNotReads() {
+        assertEquals(EndpointClass.READ, EndpointClass.of("GET", "/agents/me"));
+        assertEquals(EndpointClass.WRITE, EndpointClass.of("POST", "/agents/molty/follow"));
+        assertEquals(EndpointClass.WRITE, EndpointClass.of("DELETE", "/agents/molty/follow"));
+        assertEquals(EndpointClass.WRITE, EndpointClass.of("POST", "/submolts/general/subscribe"));
+        assertEquals(EndpointClass.WRITE, EndpointClass.of("PATCH", "/agents/me"));
+        assertEquals(EndpointClass.VOTE, EndpointClass.of("POST", "/posts/p1/upvote"));
+    }
+
+    @Test
+    public void testPausesFromRateLimitResponse() {
+        RateLimiter limiter = new RateLimiter(new MoltbookConfig.RateLimit());
+
+        limiter.onRateLimited(EndpointClass.COMMENT, tooManyRequests(Headers.of(),
+                "{\"success\":false,\"error\":\"Slow down\",\"retry_after_seconds\":45}"));
+        long commentWait = limiter.timeUntilAvailable(EndpointClass.COMMENT).toSeconds();
+        assertTrue(commentWait >= 44 && commentWait <= 45, String.valueOf(commentWait));
+        assertTrue(limiter.timeUntilAvailable(EndpointClass.READ).isZero());
+
+        // No class-specific hint: Retry-After pauses every request
+        limiter.onRateLimited(EndpointClass.READ, tooManyRequests(Headers.of("Retry-After", "30"), "Too Many Requests"));
+        long readWait = limiter.timeUntilAvailable(EndpointClass.VOTE).toSeconds();
+        assertTrue(readWait >= 29 && readWait <= 30, String.valueOf(readWait));
+    }
+
+    private static MoltbookApiException tooManyRequests(Headers headers, String body) {
+        return new MoltbookApiException(new TransportResponse(429, "Too Many Requests", headers, body));
+    }
+}
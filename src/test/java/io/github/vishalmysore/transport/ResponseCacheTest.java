@@ -0,0 +1,113 @@
+package io.github.vishalmysore.transport;
+
+import okhttp3.Headers;
+import okhttp3.Request;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test for the conditional-request response cache
+ */
+public class ResponseCacheTest {
+
+    private static final Headers NONE = Headers.of();
+
+    @Test
+    public void testNotModifiedServesStoredBody() {
+        ResponseCache cache = new ResponseCache(4096, Duration.ZERO);
+        Request plain = new Request.Builder().url("http://localhost/api/v1/agents/me").build();
+        assertSame(plain, cache.conditional("/agents/me", plain));
+
+        cache.store("/agents/me", Headers.of("ETag", "\"v1\"", "Last-Modified", "Tue, 01 Sep 2026 10:00:00 GMT"),
+                "{\"name\":\"me\"}");
+        assertNull(cache.fresh("/agents/me"), "entries with validators are always revalidated");
+
+        Request conditional = cache.conditional("/agents/me", plain);
+        assertEquals("\"v1\"", conditional.header("If-None-Match"));
+        assertEquals("Tue, 01 Sep 2026 10:00:00 GMT", conditional.header("If-Modified-Since"));
+
+        assertEquals("{\"name\":\"me\"}", cache.notModified("/agents/me"));
+        assertEquals(1, cache.getRevalidations());
+        assertNull(cache.notModified("/agents/other"), "a 304 for an evicted entry needs a full fetch");
+    }
+
+    @Test
+    public void testBodiesWithoutValidatorsExpireAfterTtl() throws Exception {
+        ResponseCache cache = new ResponseCache(4096, Duration.ofMillis(50));
+        cache.store("/feed", NONE, "[]");
+        assertEquals("[]", cache.fresh("/feed"));
+
+        Thread.sleep(80);
+        assertNull(cache.fresh("/feed"));
+
+        ResponseCache noTtl = new ResponseCache(4096, Duration.ZERO);
+        noTtl.store("/feed", NONE, "[]");
+        assertEquals(0, noTtl.size(), "nothing to revalidate with and no TTL, so not kept");
+
+        cache.store("/feed", Headers.of("Cache-Control", "no-store"), "[]");
+        assertNull(cache.fresh("/feed"));
+    }
+
+    @Test
+    public void testEvictsLeastRecentlyUsedByBytes() {
+        // 400 bytes in total, at most 100 bytes (50 chars) per entry
+        ResponseCache cache = new ResponseCache(400, Duration.ofMinutes(1));
+        String body = "x".repeat(40); // 80 bytes
+        for (String key : new String[] {"a", "b", "c", "d", "e"}) {
+            cache.store(key, NONE, body);
+        }
+        assertEquals(400, cache.getTotalBytes());
+
+        cache.fresh("a"); // now most recently used
+        cache.store("f", NONE, body);
+
+        assertNull(cache.fresh("b"));
+        assertEquals(body, cache.fresh("a"));
+        assertEquals(5, cache.size());
+        assertEquals(400, cache.getTotalBytes());
+
+        cache.store("big", NONE, "x".repeat(51));
+        assertNull(cache.fresh("big"), "entries over a quarter of the budget are not kept");
+        assertEquals(400, cache.getTotalBytes());
+    }
+
+    @Test
+    public void testCapturingReaderKeepsFullBody() throws Exception {
+        ResponseCache cache = new ResponseCache(400, Duration.ofMinutes(1));
+        ResponseCache.CapturingReader reader = cache.capture(new StringReader("{\"posts\": []}"));
+        char[] buffer = new char[4];
+        assertEquals(4, reader.read(buffer, 0, buffer.length)); // consumer stops early
+        assertEquals("{\"posts\": []}", reader.finish());
+    }
+
+    @Test
+    public void testCapturingReaderGivesUpOnOversizeOrBrokenBody() {
+        ResponseCache cache = new ResponseCache(400, Duration.ofMinutes(1)); // copies up to 50 chars
+        assertNull(cache.capture(new StringReader("x".repeat(51))).finish());
+
+        Reader broken = new Reader() {
+            private boolean served;
+
+            @Override
+            public int read(char[] buffer, int offset, int length) throws IOException {
+                if (served) {
+                    throw new IOException("connection reset");
+                }
+                served = true;
+                buffer[offset] = '[';
+                return 1;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        assertNull(cache.capture(broken).finish());
+    }
+}